@@ -0,0 +1,244 @@
+package com.alexander.diagrams.cache;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A directory of cache entries, each a file named by the hash of whatever decides its contents, shared by the caches
+ * of parsed tables and rendered diagrams.
+ * The directory can be shared by several processes: entries, and the files copied out of them, are written to a
+ * temporary file and atomically moved into place, so a reader sees either the whole file or none of it.
+ * Once the directory holds more than maxEntries the least recently used entries are removed, a hit refreshes the
+ * modified time of its entry.
+ */
+@SuppressFBWarnings(value = {"PATH_TRAVERSAL_IN", "RCN_REDUNDANT_NULLCHECK_OF_NONNULL_VALUE"},
+    justification = "PATH_TRAVERSAL_IN: the cache directory is configured by the caller and entry names are hashes. "
+        + "RCN_REDUNDANT_NULLCHECK_OF_NONNULL_VALUE: https://github.com/spotbugs/spotbugs/issues/259")
+public final class DiskCache {
+
+    private static final String TEMP_EXT = ".tmp";
+    private static final Duration ABANDONED_TEMP_AGE = Duration.ofHours(1);
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final Path directory;
+    private final String entryExtension;
+    private final int maxEntries;
+    private final AtomicInteger entries;
+
+    /**
+     * Writes the contents of an entry.
+     */
+    @FunctionalInterface
+    public interface EntryWriter {
+        void write(OutputStream output) throws IOException;
+    }
+
+    /**
+     * Opens a cache directory, creating it if it does not exist.
+     * @param directory the directory to keep the entries in
+     * @param entryExtension the extension of the entry files, so caches of different kinds can share a directory
+     * @param maxEntries the number of entries to keep before evicting the least recently used
+     */
+    public DiskCache(String directory, String entryExtension, int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("The cache must hold at least 1 entry but was " + maxEntries);
+        }
+        this.directory = Path.of(directory);
+        this.entryExtension = entryExtension;
+        this.maxEntries = maxEntries;
+        try {
+            Files.createDirectories(this.directory);
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to create the cache directory " + directory, e);
+        }
+        this.entries = new AtomicInteger(listEntries().size());
+    }
+
+    /**
+     * Creates the SHA-256 digest that keys are hashed with.
+     * @return a new {@link MessageDigest}
+     */
+    public static MessageDigest digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 is required of every Java platform", e);
+        }
+    }
+
+    /**
+     * Completes a digest into a key.
+     * @param digest the digest of everything that decides the contents of the entry
+     * @return the hex encoded hash
+     */
+    public static String key(MessageDigest digest) {
+        byte[] hash = digest.digest();
+        char[] hex = new char[hash.length * 2];
+        for (int i = 0; i < hash.length; i++) {
+            hex[i * 2] = HEX[(hash[i] >> 4) & 0xF];
+            hex[i * 2 + 1] = HEX[hash[i] & 0xF];
+        }
+        return new String(hex);
+    }
+
+    /**
+     * Reads the whole entry for a key.
+     * @param key the key of the entry
+     * @return the contents of the entry, or null if there is none
+     * @throws IOException if the entry exists but cannot be read
+     */
+    public byte[] read(String key) throws IOException {
+        Path entry = entry(key);
+        byte[] contents;
+        try {
+            contents = Files.readAllBytes(entry);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        touch(entry);
+        return contents;
+    }
+
+    /**
+     * Copies the entry for a key to a file, replacing it.
+     * @param key the key of the entry
+     * @param output the file to write
+     * @return true if the entry was copied, false if there is none
+     */
+    public boolean copyTo(String key, Path output) {
+        Path entry = entry(key);
+        try {
+            replace(output, out -> Files.copy(entry, out));
+        } catch (NoSuchFileException e) {
+            return false;
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to copy the cache entry " + entry + " to " + output, e);
+        }
+        touch(entry);
+        return true;
+    }
+
+    /**
+     * Stores an entry under its key. An entry stored by another process first is kept, it holds the same contents.
+     * @param key the key of the entry
+     * @param writer writes the contents of the entry
+     */
+    public void store(String key, EntryWriter writer) {
+        Path entry = entry(key);
+        try {
+            replace(entry, writer);
+        } catch (FileAlreadyExistsException | AccessDeniedException e) {
+            return;
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to write the cache entry " + entry, e);
+        }
+        if (entries.incrementAndGet() > maxEntries) {
+            evict();
+        }
+    }
+
+    /**
+     * Removes the least recently used entries until at most maxEntries remain, along with any temporary files left
+     * behind by a process that stopped part way through a write.
+     */
+    public synchronized void evict() {
+        List<Path> cached = listEntries();
+        if (cached.size() > maxEntries) {
+            Map<Path, FileTime> used = new HashMap<>();
+            for (Path entry : cached) {
+                used.put(entry, lastModified(entry));
+            }
+            cached.sort(Comparator.comparing(used::get));
+            for (Path entry : cached.subList(0, cached.size() - maxEntries)) {
+                delete(entry);
+            }
+        }
+        entries.set(Math.min(cached.size(), maxEntries));
+
+        FileTime abandoned = FileTime.from(Instant.now().minus(ABANDONED_TEMP_AGE));
+        try (DirectoryStream<Path> temps = Files.newDirectoryStream(directory, "*" + TEMP_EXT)) {
+            for (Path temp : temps) {
+                if (lastModified(temp).compareTo(abandoned) < 0) {
+                    delete(temp);
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to list the cache directory " + directory, e);
+        }
+    }
+
+    private Path entry(String key) {
+        return directory.resolve(key + entryExtension);
+    }
+
+    /**
+     * Writes a temporary file beside the target and atomically moves it over the target.
+     */
+    private static void replace(Path target, EntryWriter writer) throws IOException {
+        Path temp = Files.createTempFile(target.toAbsolutePath().getParent(), target.getFileName().toString(),
+            TEMP_EXT);
+        try {
+            try (OutputStream output = Files.newOutputStream(temp)) {
+                writer.write(output);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            delete(temp);
+            throw e;
+        }
+    }
+
+    private List<Path> listEntries() {
+        List<Path> cached = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + entryExtension)) {
+            stream.forEach(cached::add);
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to list the cache directory " + directory, e);
+        }
+        return cached;
+    }
+
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            // Removed by another process, so it sorts as the least recently used and its deletion is a no-op
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static void touch(Path entry) {
+        try {
+            Files.setLastModifiedTime(entry, FileTime.from(Instant.now()));
+        } catch (IOException e) {
+            // Evicted by another process since it was read, what was read is still valid
+        }
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // Left for the next eviction
+        }
+    }
+}
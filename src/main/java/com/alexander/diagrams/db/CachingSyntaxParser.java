@@ -0,0 +1,166 @@
+package com.alexander.diagrams.db;
+
+import com.alexander.diagrams.cache.DiskCache;
+import com.alexander.diagrams.model.Column;
+import com.alexander.diagrams.model.ForeignKey;
+import com.alexander.diagrams.model.PrimaryKey;
+import com.alexander.diagrams.model.Table;
+import com.alexander.diagrams.model.UniqueConstraint;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.Builder;
+
+/**
+ * Wraps a {@link DatabaseSyntaxParser} with an on disk cache of the tables it parses, so a schema where only a few
+ * tables changed since the last run only has those tables parsed again.
+ * Only {@link #parseTable(CharSequence)} is cached, the single line conversions are passed straight to the parser.
+ * Each table is stored as a {@link SchemaSnapshot} of its own, in a file named by the SHA-256 hash of the parser
+ * version and the statement, so a change to either is a miss rather than a stale hit.
+ * The entries are kept in a {@link DiskCache}, so the directory can be shared by several processes and is bounded to
+ * maxEntries. An entry that cannot be read is treated as a miss and written again.
+ */
+public class CachingSyntaxParser implements DatabaseSyntaxParser {
+
+    private static final String ENTRY_EXT = ".table";
+    private static final int DEFAULT_MAX_ENTRIES = 10_000;
+
+    private final DatabaseSyntaxParser parser;
+    private final DiskCache cache;
+    private final String parserVersion;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Creates a parser that caches the tables parsed by another.
+     * @param parser the {@link DatabaseSyntaxParser} to parse the statements that are not cached
+     * @param cacheDirectory the directory to keep the cached tables in, created if it does not exist
+     * @param parserVersion (optional) identifies the parser's output, change it to invalidate the cache, defaults to
+     *                      the parser's class name and {@link DatabaseSyntaxParser#getVersion()}, required if the
+     *                      parser is not versioned
+     * @param maxEntries (optional) the number of tables to keep before evicting the least recently used, defaults to
+     *                   10,000
+     */
+    @Builder
+    public CachingSyntaxParser(DatabaseSyntaxParser parser, String cacheDirectory, String parserVersion,
+                               Integer maxEntries) {
+        this.parser = Optional.ofNullable(parser).orElseThrow(
+            () -> new IllegalArgumentException("A parser is required to fill the cache"));
+        this.parserVersion = Optional.ofNullable(parserVersion).orElseGet(() -> defaultVersion(parser));
+        this.cache = new DiskCache(Optional.ofNullable(cacheDirectory).orElseThrow(
+            () -> new IllegalArgumentException("The provided cache directory is null")), ENTRY_EXT,
+            Optional.ofNullable(maxEntries).orElse(DEFAULT_MAX_ENTRIES));
+    }
+
+    @Override
+    public Table toTable(String line) {
+        return parser.toTable(line);
+    }
+
+    @Override
+    public Column toColumn(String line) {
+        return parser.toColumn(line);
+    }
+
+    @Override
+    public PrimaryKey toPrimaryKey(String line) {
+        return parser.toPrimaryKey(line);
+    }
+
+    @Override
+    public ForeignKey toForeignKey(String line) {
+        return parser.toForeignKey(line);
+    }
+
+    @Override
+    public UniqueConstraint toUniqueConstraint(String line) {
+        return parser.toUniqueConstraint(line);
+    }
+
+    @Override
+    public ClassifiedLine classify(String line) {
+        return parser.classify(line);
+    }
+
+    /**
+     * Returns the cached table for the statement, parsing and caching it on a miss. Statements that are not create
+     * table statements are not cached.
+     * @param createStatement The create table statement to parse
+     * @return {@link Table} with its columns, keys and column key flags set, or null if it is not a create table
+     *         statement
+     */
+    @Override
+    public Table parseTable(CharSequence createStatement) {
+        String key = key(createStatement);
+        Table cached = read(key);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+        misses.incrementAndGet();
+        Table table = parser.parseTable(createStatement);
+        if (table != null) {
+            cache.store(key, output -> SchemaSnapshot.write(List.of(table), output));
+        }
+        return table;
+    }
+
+    /**
+     * The version of the wrapped parser, the cache does not change the tables it returns.
+     * @return the version of the wrapped parser
+     */
+    @Override
+    public String getVersion() {
+        return parser.getVersion();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Removes the least recently used entries until at most maxEntries remain, along with any temporary files left
+     * behind by a process that stopped part way through a write.
+     */
+    public void evict() {
+        cache.evict();
+    }
+
+    private static String defaultVersion(DatabaseSyntaxParser parser) {
+        return Optional.ofNullable(parser.getVersion())
+            .map(version -> parser.getClass().getName() + ":" + version)
+            .orElseThrow(() -> new IllegalArgumentException(
+                "A parserVersion is required for " + parser.getClass().getName() + " as it has no version"));
+    }
+
+    String key(CharSequence createStatement) {
+        MessageDigest digest = DiskCache.digest();
+        digest.update(parserVersion.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(StandardCharsets.UTF_8.encode(CharBuffer.wrap(createStatement)));
+        return DiskCache.key(digest);
+    }
+
+    private Table read(String key) {
+        try {
+            byte[] entry = cache.read(key);
+            if (entry == null) {
+                return null;
+            }
+            List<Table> tables = SchemaSnapshot.read(ByteBuffer.wrap(entry));
+            return tables.isEmpty() ? null : tables.get(0);
+        } catch (IOException e) {
+            // A partial entry from an older format or a failed disk is replaced by the next write
+            return null;
+        }
+    }
+}
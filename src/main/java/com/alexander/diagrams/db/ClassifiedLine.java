@@ -0,0 +1,25 @@
+package com.alexander.diagrams.db;
+
+import com.alexander.diagrams.model.Column;
+import com.alexander.diagrams.model.ForeignKey;
+import com.alexander.diagrams.model.PrimaryKey;
+import com.alexander.diagrams.model.Table;
+import com.alexander.diagrams.model.UniqueConstraint;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * The result of classifying a single line of a create table statement.
+ * Only the model object matching the {@link LineType} is set, all others are null.
+ */
+@Builder
+@Getter
+public class ClassifiedLine {
+
+    private final LineType type;
+    private final Table table;
+    private final Column column;
+    private final PrimaryKey primaryKey;
+    private final ForeignKey foreignKey;
+    private final UniqueConstraint uniqueConstraint;
+}
@@ -6,6 +6,11 @@ import com.alexander.diagrams.model.PrimaryKey;
 import com.alexander.diagrams.model.Table;
 import com.alexander.diagrams.model.UniqueConstraint;
 
+/**
+ * Converts the create table statements of a database dialect into model objects.
+ * Implementations must be thread safe, a single instance is shared by every table when a generator parses tables in
+ * parallel, so any state kept between calls has to be immutable or safely shared.
+ */
 public interface DatabaseSyntaxParser {
     Table toTable(String line);
 
@@ -16,4 +21,27 @@ public interface DatabaseSyntaxParser {
     ForeignKey toForeignKey(String line);
 
     UniqueConstraint toUniqueConstraint(String line);
+
+    /**
+     * Classifies a line by its leading token and converts it with only the one matching conversion.
+     * @param line The line of a create table statement to classify
+     * @return {@link ClassifiedLine} holding the type of the line and its converted model object
+     */
+    ClassifiedLine classify(String line);
+
+    /**
+     * Parses a whole create table statement in a single forward pass, without splitting it into lines first.
+     * @param createStatement The create table statement to parse
+     * @return {@link Table} with its columns, keys and column key flags set, or null if it is not a create table
+     *         statement
+     */
+    Table parseTable(CharSequence createStatement);
+
+    /**
+     * Identifies the output of the parser, so that tables cached by a {@link CachingSyntaxParser} are not reused once a
+     * change to the parser can parse a statement differently.
+     * @return the version of the parser, which must change whenever the tables it parses can change, or null if the
+     *         parser is not versioned
+     */
+    String getVersion();
 }
@@ -0,0 +1,178 @@
+package com.alexander.diagrams.db;
+
+import com.alexander.diagrams.model.Column;
+import com.alexander.diagrams.model.ForeignKey;
+import com.alexander.diagrams.model.PrimaryKey;
+import com.alexander.diagrams.model.Table;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
+import lombok.Builder;
+
+/**
+ * Loads a MySQL schema from information_schema in two set based queries, one for the key columns and one for the
+ * columns of every base table, instead of a SHOW CREATE TABLE round trip and a parse per table.
+ */
+@SuppressFBWarnings(value = "RCN_REDUNDANT_NULLCHECK_OF_NONNULL_VALUE",
+    justification = "https://github.com/spotbugs/spotbugs/issues/259")
+public class InformationSchemaLoader implements SchemaLoader {
+
+    private static final String CONNECTION_STRING = "jdbc:mysql://%s/%s?useTimezone=true&serverTimezone=UTC";
+    private static final String PRIMARY_KEY = "PRIMARY KEY";
+    private static final String NULL = "NULL";
+    private static final String QUOTE = "'";
+    private static final String MARIADB = "MariaDB";
+
+    private static final String KEY_COLUMNS_QUERY = "SELECT k.TABLE_NAME, k.CONSTRAINT_NAME, c.CONSTRAINT_TYPE,"
+        + " k.COLUMN_NAME, k.REFERENCED_TABLE_NAME, k.REFERENCED_COLUMN_NAME"
+        + " FROM information_schema.KEY_COLUMN_USAGE k"
+        + " JOIN information_schema.TABLE_CONSTRAINTS c ON c.CONSTRAINT_SCHEMA = k.CONSTRAINT_SCHEMA"
+        + " AND c.TABLE_NAME = k.TABLE_NAME AND c.CONSTRAINT_NAME = k.CONSTRAINT_NAME"
+        + " WHERE k.TABLE_SCHEMA = ? AND c.CONSTRAINT_TYPE IN ('PRIMARY KEY', 'FOREIGN KEY')"
+        + " ORDER BY k.TABLE_NAME, k.CONSTRAINT_NAME, k.ORDINAL_POSITION";
+
+    private static final String COLUMNS_QUERY = "SELECT c.TABLE_NAME, c.COLUMN_NAME, c.DATA_TYPE, c.COLUMN_TYPE,"
+        + " c.IS_NULLABLE, c.COLUMN_DEFAULT, c.EXTRA"
+        + " FROM information_schema.COLUMNS c"
+        + " JOIN information_schema.TABLES t ON t.TABLE_SCHEMA = c.TABLE_SCHEMA AND t.TABLE_NAME = c.TABLE_NAME"
+        + " WHERE c.TABLE_SCHEMA = ? AND t.TABLE_TYPE = 'BASE TABLE'"
+        + " ORDER BY c.TABLE_NAME, c.ORDINAL_POSITION";
+
+    private final String password;
+    private final String username;
+    private final String databaseUrl;
+    private final String databaseName;
+    private final DataSource dataSource;
+
+    /**
+     * Creates a loader that reads a schema from information_schema.
+     * @param password the password for the account to use, ignored when a dataSource is provided
+     * @param username the username for the account to use, ignored when a dataSource is provided
+     * @param databaseName the name of the database schema to load
+     * @param databaseUrl the host (and optional port) of the database server e.g. localhost or 127.0.0.1:3306,
+     *                    ignored when a dataSource is provided
+     * @param dataSource (optional) a {@link DataSource} to obtain the connection from instead of the
+     *                   {@link DriverManager}
+     */
+    @Builder
+    public InformationSchemaLoader(String password, String username, String databaseName, String databaseUrl,
+                                   DataSource dataSource) {
+        this.password = password;
+        this.username = username;
+        this.databaseName = Optional.ofNullable(databaseName).orElseThrow(
+            () -> new IllegalArgumentException("The provided database name is null"));
+        this.databaseUrl = databaseUrl;
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public List<Table> load() {
+        try (Connection conn = getConnection()) {
+            boolean expressionDefaults = conn.getMetaData().getDatabaseProductVersion().contains(MARIADB);
+            Map<String, TableAssembler> tables = new LinkedHashMap<>();
+            Map<String, List<String>> primaryKeys = new LinkedHashMap<>();
+            Map<String, List<ForeignKey>> foreignKeys = new LinkedHashMap<>();
+            try (PreparedStatement keyColumns = conn.prepareStatement(KEY_COLUMNS_QUERY)) {
+                keyColumns.setString(1, databaseName);
+                try (ResultSet result = keyColumns.executeQuery()) {
+                    while (result.next()) {
+                        String tableName = result.getString("TABLE_NAME");
+                        if (PRIMARY_KEY.equals(result.getString("CONSTRAINT_TYPE"))) {
+                            primaryKeys.computeIfAbsent(tableName, name -> new ArrayList<>())
+                                .add(result.getString("COLUMN_NAME"));
+                        } else {
+                            foreignKeys.computeIfAbsent(tableName, name -> new ArrayList<>())
+                                .add(ForeignKey.builder()
+                                    .foreignKeyName(result.getString("COLUMN_NAME"))
+                                    .sourceTable(result.getString("REFERENCED_TABLE_NAME"))
+                                    .sourceColumn(result.getString("REFERENCED_COLUMN_NAME"))
+                                    .build());
+                        }
+                    }
+                }
+            }
+            try (PreparedStatement columns = conn.prepareStatement(COLUMNS_QUERY)) {
+                columns.setString(1, databaseName);
+                try (ResultSet result = columns.executeQuery()) {
+                    while (result.next()) {
+                        tables.computeIfAbsent(result.getString("TABLE_NAME"), TableAssembler::new)
+                            .addColumn(toColumn(result, expressionDefaults));
+                    }
+                }
+            }
+            tables.forEach((tableName, table) -> {
+                Optional.ofNullable(primaryKeys.get(tableName))
+                    .ifPresent(keyNames -> table.addPrimaryKey(PrimaryKey.builder().keyName(keyNames).build()));
+                foreignKeys.getOrDefault(tableName, List.of()).forEach(table::addForeignKey);
+            });
+            return tables.values().stream().map(TableAssembler::build).collect(Collectors.toList());
+        } catch (SQLException e) {
+            throw new RuntimeException("Unable to load the information_schema of " + databaseName, e);
+        }
+    }
+
+    private static Column toColumn(ResultSet result, boolean expressionDefaults) throws SQLException {
+        boolean nullable = !"NO".equals(result.getString("IS_NULLABLE"));
+        String extra = Optional.ofNullable(result.getString("EXTRA")).orElse("");
+        return Column.builder()
+            .name(result.getString("COLUMN_NAME"))
+            .type(result.getString("DATA_TYPE"))
+            .scale(scale(result.getString("COLUMN_TYPE")))
+            .notNull(!nullable)
+            .autoIncrement(extra.toLowerCase(Locale.ROOT).contains("auto_increment"))
+            .defaultValue(defaultValue(result.getString("COLUMN_DEFAULT"), nullable, expressionDefaults))
+            .build();
+    }
+
+    /**
+     * Extracts the scale from a column type, e.g. 36 from varchar(36) or 10,2 from decimal(10,2) unsigned.
+     * @param columnType the full column type
+     * @return the scale or null if the type has none
+     */
+    static String scale(String columnType) {
+        if (columnType == null) {
+            return null;
+        }
+        int open = columnType.indexOf('(');
+        int close = columnType.lastIndexOf(')');
+        return open < 0 || close < open ? null : columnType.substring(open + 1, close);
+    }
+
+    /**
+     * Renders a column default the way SHOW CREATE TABLE on the same server would, so the model matches what the text
+     * parsers produce. MySQL reports literals unquoted and shows them quoted, MariaDB reports and shows the default as
+     * an SQL expression.
+     * @param columnDefault the COLUMN_DEFAULT value
+     * @param nullable whether the column accepts null, in which case a missing default is DEFAULT NULL
+     * @param expressionDefaults whether the server reports defaults as SQL expressions
+     * @return the default value e.g. '0' or NULL, or null if the column has no default
+     */
+    static String defaultValue(String columnDefault, boolean nullable, boolean expressionDefaults) {
+        if (columnDefault == null || NULL.equalsIgnoreCase(columnDefault)) {
+            return nullable ? NULL : null;
+        }
+        if (expressionDefaults || columnDefault.toUpperCase(Locale.ROOT).startsWith("CURRENT_TIMESTAMP")) {
+            return columnDefault;
+        }
+        return QUOTE + columnDefault + QUOTE;
+    }
+
+    private Connection getConnection() throws SQLException {
+        if (dataSource != null) {
+            return dataSource.getConnection();
+        }
+        return DriverManager
+            .getConnection(String.format(CONNECTION_STRING, databaseUrl, databaseName), username, password);
+    }
+}
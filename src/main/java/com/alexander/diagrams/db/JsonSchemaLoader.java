@@ -0,0 +1,221 @@
+package com.alexander.diagrams.db;
+
+import com.alexander.diagrams.model.Column;
+import com.alexander.diagrams.model.ForeignKey;
+import com.alexander.diagrams.model.PrimaryKey;
+import com.alexander.diagrams.model.Table;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import lombok.Builder;
+
+/**
+ * Loads a schema exported as JSON by the JsonProducer, without a {@link DatabaseSyntaxParser}.
+ * The document is read token by token with a {@link JsonParser} and each table is built as soon as its object ends,
+ * so no tree of the document is held in memory alongside the model. Fields that are not part of the model are skipped.
+ */
+@SuppressFBWarnings(value = {"PATH_TRAVERSAL_IN", "EI_EXPOSE_REP2"},
+    justification = "PATH_TRAVERSAL_IN: the JSON file is configured by the caller. "
+        + "EI_EXPOSE_REP2: the input stream is provided to be read from.")
+public class JsonSchemaLoader implements SchemaLoader {
+
+    private static final String TABLES = "tables";
+    private static final String NAME = "name";
+    private static final String COLUMNS = "columns";
+    private static final String FOREIGN_KEYS = "foreignKeys";
+    private static final String TYPE = "type";
+    private static final String SCALE = "scale";
+    private static final String DEFAULT_VALUE = "defaultValue";
+    private static final String NOT_NULL = "notNull";
+    private static final String NOT_DEFAULT = "notDefault";
+    private static final String PRIMARY = "primary";
+    private static final String FOREIGN = "foreign";
+    private static final String AUTO_INCREMENT = "autoIncrement";
+    private static final String FOREIGN_KEY_NAME = "foreignKeyName";
+    private static final String SOURCE_TABLE = "sourceTable";
+    private static final String SOURCE_COLUMN = "sourceColumn";
+    private static final String PRIMARY_KEYS = "primaryKeys";
+    private static final String KEY_NAME = "keyName";
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    private final String jsonFile;
+    private final InputStream inputStream;
+
+    /**
+     * Creates a loader that reads a schema exported as JSON.
+     * @param jsonFile the path of the JSON file to load, ignored when an inputStream is provided
+     * @param inputStream (optional) a stream to read the JSON from instead of a file, it is not closed
+     */
+    @Builder
+    public JsonSchemaLoader(String jsonFile, InputStream inputStream) {
+        if (jsonFile == null && inputStream == null) {
+            throw new IllegalArgumentException("A JSON file or an input stream is required to load a schema");
+        }
+        this.jsonFile = jsonFile;
+        this.inputStream = inputStream;
+    }
+
+    @Override
+    public List<Table> load() {
+        try (JsonParser parser = open()) {
+            List<Table> tables = new ArrayList<>();
+            expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                if (TABLES.equals(parser.getCurrentName())) {
+                    expect(parser, parser.nextToken(), JsonToken.START_ARRAY);
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        tables.add(readTable(parser));
+                    }
+                } else {
+                    parser.nextToken();
+                    parser.skipChildren();
+                }
+            }
+            return tables;
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to load the schema JSON " + Optional.ofNullable(jsonFile).orElse(""),
+                e);
+        }
+    }
+
+    private JsonParser open() throws IOException {
+        if (inputStream != null) {
+            return FACTORY.createParser(inputStream).disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+        }
+        return FACTORY.createParser(Files.newInputStream(Path.of(jsonFile)));
+    }
+
+    private static Table readTable(JsonParser parser) throws IOException {
+        Table.TableBuilder table = Table.builder();
+        List<Column> columns = new ArrayList<>();
+        List<ForeignKey> foreignKeys = new ArrayList<>();
+        List<PrimaryKey> primaryKeys = new ArrayList<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case NAME:
+                    table.name(parser.getValueAsString());
+                    break;
+                case COLUMNS:
+                    expect(parser, value, JsonToken.START_ARRAY);
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        columns.add(readColumn(parser));
+                    }
+                    break;
+                case FOREIGN_KEYS:
+                    expect(parser, value, JsonToken.START_ARRAY);
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        foreignKeys.add(readForeignKey(parser));
+                    }
+                    break;
+                case PRIMARY_KEYS:
+                    expect(parser, value, JsonToken.START_ARRAY);
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        primaryKeys.add(readPrimaryKey(parser));
+                    }
+                    break;
+                default:
+                    parser.skipChildren();
+                    break;
+            }
+        }
+        return table.columns(columns).foreignKeys(foreignKeys).primaryKeys(primaryKeys).build();
+    }
+
+    private static Column readColumn(JsonParser parser) throws IOException {
+        Column.ColumnBuilder column = Column.builder();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+                case NAME:
+                    column.name(parser.getValueAsString());
+                    break;
+                case TYPE:
+                    column.type(parser.getValueAsString());
+                    break;
+                case SCALE:
+                    column.scale(parser.getValueAsString());
+                    break;
+                case DEFAULT_VALUE:
+                    column.defaultValue(parser.getValueAsString());
+                    break;
+                case NOT_NULL:
+                    column.notNull(parser.getValueAsBoolean());
+                    break;
+                case NOT_DEFAULT:
+                    column.notDefault(parser.getValueAsBoolean());
+                    break;
+                case PRIMARY:
+                    column.primary(parser.getValueAsBoolean());
+                    break;
+                case FOREIGN:
+                    column.foreign(parser.getValueAsBoolean());
+                    break;
+                case AUTO_INCREMENT:
+                    column.autoIncrement(parser.getValueAsBoolean());
+                    break;
+                default:
+                    parser.skipChildren();
+                    break;
+            }
+        }
+        return column.build();
+    }
+
+    private static ForeignKey readForeignKey(JsonParser parser) throws IOException {
+        ForeignKey.ForeignKeyBuilder foreignKey = ForeignKey.builder();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+                case FOREIGN_KEY_NAME:
+                    foreignKey.foreignKeyName(parser.getValueAsString());
+                    break;
+                case SOURCE_TABLE:
+                    foreignKey.sourceTable(parser.getValueAsString());
+                    break;
+                case SOURCE_COLUMN:
+                    foreignKey.sourceColumn(parser.getValueAsString());
+                    break;
+                default:
+                    parser.skipChildren();
+                    break;
+            }
+        }
+        return foreignKey.build();
+    }
+
+    private static PrimaryKey readPrimaryKey(JsonParser parser) throws IOException {
+        List<String> keyNames = new ArrayList<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if (KEY_NAME.equals(field)) {
+                expect(parser, value, JsonToken.START_ARRAY);
+                while (parser.nextToken() == JsonToken.VALUE_STRING) {
+                    keyNames.add(parser.getText());
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return PrimaryKey.builder().keyName(keyNames).build();
+    }
+
+    private static void expect(JsonParser parser, JsonToken actual, JsonToken expected) throws JsonParseException {
+        if (actual != expected) {
+            throw new JsonParseException(parser, "Expected " + expected + " but found " + actual);
+        }
+    }
+}
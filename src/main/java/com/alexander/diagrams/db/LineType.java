@@ -0,0 +1,15 @@
+package com.alexander.diagrams.db;
+
+/**
+ * The kind of definition a single line of a create table statement holds, decided by its leading token.
+ */
+public enum LineType {
+    TABLE,
+    COLUMN,
+    PRIMARY_KEY,
+    UNIQUE_KEY,
+    KEY,
+    FOREIGN_KEY,
+    END,
+    UNKNOWN
+}
@@ -0,0 +1,198 @@
+package com.alexander.diagrams.db;
+
+import com.alexander.diagrams.model.Column;
+import com.alexander.diagrams.model.ForeignKey;
+import com.alexander.diagrams.model.PrimaryKey;
+import com.alexander.diagrams.model.Table;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
+import lombok.Builder;
+
+/**
+ * Loads a schema from any JDBC database via {@link DatabaseMetaData}, so databases without a
+ * {@link DatabaseSyntaxParser} for their dialect can still be diagrammed.
+ * The tables and columns of the whole schema are read in one call each, JDBC only offers the primary and imported keys
+ * one table at a time.
+ */
+@SuppressFBWarnings(value = "RCN_REDUNDANT_NULLCHECK_OF_NONNULL_VALUE",
+    justification = "https://github.com/spotbugs/spotbugs/issues/259")
+public class MetaDataSchemaLoader implements SchemaLoader {
+
+    private static final String[] TABLE_TYPES = {"TABLE"};
+    private static final String ALL = "%";
+    private static final String YES = "YES";
+    private static final String MYSQL = "MySQL";
+    private static final String MARIADB = "MariaDB";
+
+    private final String jdbcUrl;
+    private final String username;
+    private final String password;
+    private final DataSource dataSource;
+    private final String catalog;
+    private final String schema;
+
+    /**
+     * Creates a loader that reads a schema via the JDBC driver's metadata.
+     * @param jdbcUrl the JDBC url of the database e.g. jdbc:h2:mem:test, ignored when a dataSource is provided
+     * @param username the username for the account to use, ignored when a dataSource is provided
+     * @param password the password for the account to use, ignored when a dataSource is provided
+     * @param dataSource (optional) a {@link DataSource} to obtain the connection from instead of the
+     *                   {@link DriverManager}
+     * @param catalog (optional) the catalog to load, MySQL calls these databases, defaults to the connection's catalog
+     * @param schema (optional) the schema to load, defaults to the connection's schema
+     */
+    @Builder
+    public MetaDataSchemaLoader(String jdbcUrl, String username, String password, DataSource dataSource,
+                                String catalog, String schema) {
+        if (jdbcUrl == null && dataSource == null) {
+            throw new IllegalArgumentException("Either a JDBC url or a DataSource is required");
+        }
+        this.jdbcUrl = jdbcUrl;
+        this.username = username;
+        this.password = password;
+        this.dataSource = dataSource;
+        this.catalog = catalog;
+        this.schema = schema;
+    }
+
+    @Override
+    public List<Table> load() {
+        try (Connection conn = getConnection()) {
+            DatabaseMetaData metaData = conn.getMetaData();
+            String tableCatalog = Optional.ofNullable(catalog).orElse(conn.getCatalog());
+            String tableSchema = Optional.ofNullable(schema).orElse(conn.getSchema());
+            boolean expressionDefaults = !MYSQL.equals(metaData.getDatabaseProductName())
+                || metaData.getDatabaseProductVersion().contains(MARIADB);
+
+            String schemaPattern = escapePattern(tableSchema, metaData.getSearchStringEscape());
+
+            Map<List<String>, TableAssembler> tables = new LinkedHashMap<>();
+            try (ResultSet result = metaData.getTables(tableCatalog, schemaPattern, ALL, TABLE_TYPES)) {
+                while (result.next()) {
+                    String tableName = result.getString("TABLE_NAME");
+                    tables.put(tableKey(result), new TableAssembler(tableName));
+                }
+            }
+            try (ResultSet result = metaData.getColumns(tableCatalog, schemaPattern, ALL, ALL)) {
+                while (result.next()) {
+                    TableAssembler table = tables.get(tableKey(result));
+                    if (table != null) {
+                        table.addColumn(toColumn(result, expressionDefaults));
+                    }
+                }
+            }
+            for (Map.Entry<List<String>, TableAssembler> table : tables.entrySet()) {
+                List<String> key = table.getKey();
+                addPrimaryKey(metaData, key.get(0), key.get(1), key.get(2), table.getValue());
+                addForeignKeys(metaData, key.get(0), key.get(1), key.get(2), table.getValue());
+            }
+            return tables.values().stream().map(TableAssembler::build).collect(Collectors.toList());
+        } catch (SQLException e) {
+            throw new RuntimeException("Unable to load the database metadata", e);
+        }
+    }
+
+    /**
+     * Identifies a table by its catalog, schema and name, as a schema left to the connection may match tables of the
+     * same name in more than one schema.
+     */
+    private static List<String> tableKey(ResultSet result) throws SQLException {
+        return Arrays.asList(result.getString("TABLE_CAT"), result.getString("TABLE_SCHEM"),
+            result.getString("TABLE_NAME"));
+    }
+
+    /**
+     * Escapes the LIKE wildcards in a name so it only matches itself when passed as a metadata pattern, e.g. the _ in
+     * my_db would otherwise also match myXdb.
+     */
+    static String escapePattern(String name, String escape) {
+        if (name == null || escape == null || escape.isEmpty()) {
+            return name;
+        }
+        return name.replace(escape, escape + escape)
+            .replace("_", escape + "_")
+            .replace("%", escape + "%");
+    }
+
+    private static void addPrimaryKey(DatabaseMetaData metaData, String tableCatalog, String tableSchema,
+                                      String tableName, TableAssembler table) throws SQLException {
+        Map<Integer, String> keyColumns = new TreeMap<>();
+        try (ResultSet result = metaData.getPrimaryKeys(tableCatalog, tableSchema, tableName)) {
+            while (result.next()) {
+                keyColumns.put(result.getInt("KEY_SEQ"), result.getString("COLUMN_NAME"));
+            }
+        }
+        if (!keyColumns.isEmpty()) {
+            table.addPrimaryKey(PrimaryKey.builder().keyName(List.copyOf(keyColumns.values())).build());
+        }
+    }
+
+    private static void addForeignKeys(DatabaseMetaData metaData, String tableCatalog, String tableSchema,
+                                       String tableName, TableAssembler table) throws SQLException {
+        try (ResultSet result = metaData.getImportedKeys(tableCatalog, tableSchema, tableName)) {
+            while (result.next()) {
+                table.addForeignKey(ForeignKey.builder()
+                    .foreignKeyName(result.getString("FKCOLUMN_NAME"))
+                    .sourceTable(result.getString("PKTABLE_NAME"))
+                    .sourceColumn(result.getString("PKCOLUMN_NAME"))
+                    .build());
+            }
+        }
+    }
+
+    private static Column toColumn(ResultSet result, boolean expressionDefaults) throws SQLException {
+        boolean nullable = result.getInt("NULLABLE") != DatabaseMetaData.columnNoNulls;
+        return Column.builder()
+            .name(result.getString("COLUMN_NAME"))
+            .type(result.getString("TYPE_NAME").toLowerCase(Locale.ROOT))
+            .scale(scale(result))
+            .notNull(!nullable)
+            .autoIncrement(YES.equals(result.getString("IS_AUTOINCREMENT")))
+            .defaultValue(InformationSchemaLoader.defaultValue(result.getString("COLUMN_DEF"), nullable,
+                expressionDefaults))
+            .build();
+    }
+
+    /**
+     * The scale of the types that are declared with one, e.g. the length of a varchar or the precision and digits of a
+     * decimal. For other types COLUMN_SIZE is their fixed precision rather than anything declared, so it is left out.
+     */
+    private static String scale(ResultSet result) throws SQLException {
+        int size = result.getInt("COLUMN_SIZE");
+        switch (result.getInt("DATA_TYPE")) {
+            case Types.CHAR:
+            case Types.VARCHAR:
+            case Types.NCHAR:
+            case Types.NVARCHAR:
+            case Types.BINARY:
+            case Types.VARBINARY:
+                return String.valueOf(size);
+            case Types.DECIMAL:
+            case Types.NUMERIC:
+                return size + "," + result.getInt("DECIMAL_DIGITS");
+            default:
+                return null;
+        }
+    }
+
+    private Connection getConnection() throws SQLException {
+        if (dataSource != null) {
+            return dataSource.getConnection();
+        }
+        return DriverManager.getConnection(jdbcUrl, username, password);
+    }
+}
@@ -0,0 +1,133 @@
+package com.alexander.diagrams.db;
+
+import com.alexander.diagrams.model.Column;
+import com.alexander.diagrams.model.ForeignKey;
+import com.alexander.diagrams.model.PrimaryKey;
+import com.alexander.diagrams.model.Table;
+import com.alexander.diagrams.model.UniqueConstraint;
+import java.nio.CharBuffer;
+import java.util.function.Function;
+import lombok.Builder;
+
+/**
+ * Classifies and parses MySQL create table statements using a set of conversions for each kind of definition, so the
+ * regex and scanner parsers share the dispatch and statement walking logic.
+ * The conversions are given views of the statement rather than copies, so walking a statement does not allocate a
+ * String per line.
+ */
+@Builder
+final class MySqlDefinitionParser {
+
+    private static final String CREATE_TABLE = "CREATE TABLE";
+    private static final ClassifiedLine UNKNOWN_LINE = ClassifiedLine.builder().type(LineType.UNKNOWN).build();
+    private static final ClassifiedLine KEY_LINE = ClassifiedLine.builder().type(LineType.KEY).build();
+    private static final ClassifiedLine END_LINE = ClassifiedLine.builder().type(LineType.END).build();
+
+    private final Function<CharSequence, Table> table;
+    private final Function<CharSequence, Column> column;
+    private final Function<CharSequence, PrimaryKey> primaryKey;
+    private final Function<CharSequence, ForeignKey> foreignKey;
+    private final Function<CharSequence, UniqueConstraint> uniqueConstraint;
+
+    /**
+     * Classifies a line by its leading token and converts it using only the matching conversion.
+     * @param line The line to classify
+     * @return {@link ClassifiedLine}, of type {@link LineType#UNKNOWN} when the matching conversion returns nothing
+     */
+    ClassifiedLine classify(CharSequence line) {
+        switch (MySqlLineClassifier.lineType(line)) {
+            case TABLE:
+                Table parsedTable = table.apply(line);
+                return parsedTable == null || parsedTable.getName().isEmpty() ? UNKNOWN_LINE
+                    : ClassifiedLine.builder().type(LineType.TABLE).table(parsedTable).build();
+            case COLUMN:
+                Column parsedColumn = column.apply(line);
+                return parsedColumn == null ? UNKNOWN_LINE
+                    : ClassifiedLine.builder().type(LineType.COLUMN).column(parsedColumn).build();
+            case PRIMARY_KEY:
+                PrimaryKey parsedPrimaryKey = primaryKey.apply(line);
+                return parsedPrimaryKey == null ? UNKNOWN_LINE
+                    : ClassifiedLine.builder().type(LineType.PRIMARY_KEY).primaryKey(parsedPrimaryKey).build();
+            case FOREIGN_KEY:
+                ForeignKey parsedForeignKey = foreignKey.apply(line);
+                return parsedForeignKey == null ? UNKNOWN_LINE
+                    : ClassifiedLine.builder().type(LineType.FOREIGN_KEY).foreignKey(parsedForeignKey).build();
+            case UNIQUE_KEY:
+                UniqueConstraint parsedUniqueConstraint = uniqueConstraint.apply(line);
+                return parsedUniqueConstraint == null ? UNKNOWN_LINE
+                    : ClassifiedLine.builder().type(LineType.UNIQUE_KEY)
+                        .uniqueConstraint(parsedUniqueConstraint).build();
+            case KEY:
+                return KEY_LINE;
+            case END:
+                return END_LINE;
+            default:
+                return UNKNOWN_LINE;
+        }
+    }
+
+    /**
+     * Parses a whole create table statement in one forward pass.
+     * The statement is split into its definitions at the commas between the outer parentheses, ignoring commas inside
+     * nested parentheses or quotes, so a definition may span several lines.
+     * @param statement The create table statement
+     * @return the assembled {@link Table} or null if the statement does not start a create table block
+     */
+    Table parseTable(CharSequence statement) {
+        int create = MySqlLineClassifier.indexOf(statement, CREATE_TABLE, 0);
+        if (create == MySqlLineClassifier.NO_MATCH) {
+            return null;
+        }
+        int open = openingParenthesis(statement, create);
+        if (open == MySqlLineClassifier.NO_MATCH) {
+            return null;
+        }
+        Table header = table.apply(CharBuffer.wrap(statement, create, open + 1));
+        if (header == null || header.getName().isEmpty()) {
+            return null;
+        }
+
+        TableAssembler assembler = new TableAssembler(header.getName());
+        int start = open + 1;
+        int depth = 0;
+        for (int index = start; index < statement.length(); index++) {
+            char c = statement.charAt(index);
+            if (MySqlLineClassifier.isQuote(c)) {
+                index = MySqlLineClassifier.quoteEnd(statement, index) - 1;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                if (depth == 0) {
+                    assembler.add(classify(definition(statement, start, index)));
+                    return assembler.build();
+                }
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                assembler.add(classify(definition(statement, start, index + 1)));
+                start = index + 1;
+            }
+        }
+        assembler.add(classify(definition(statement, start, statement.length())));
+        return assembler.build();
+    }
+
+    private static int openingParenthesis(CharSequence statement, int from) {
+        for (int index = from; index < statement.length(); index++) {
+            char c = statement.charAt(index);
+            if (MySqlLineClassifier.isQuote(c)) {
+                index = MySqlLineClassifier.quoteEnd(statement, index) - 1;
+            } else if (c == '(') {
+                return index;
+            }
+        }
+        return MySqlLineClassifier.NO_MATCH;
+    }
+
+    private static CharSequence definition(CharSequence statement, int start, int end) {
+        int trimmed = end;
+        while (trimmed > start && Character.isWhitespace(statement.charAt(trimmed - 1))) {
+            trimmed--;
+        }
+        return CharBuffer.wrap(statement, start, trimmed);
+    }
+}
@@ -0,0 +1,125 @@
+package com.alexander.diagrams.db;
+
+/**
+ * Decides which kind of definition a line of a MySQL create table statement holds by looking at its leading token,
+ * so that a parser only needs to run the one conversion that can match instead of trying each in turn.
+ * Also holds the character level helpers shared by the MySQL parsers.
+ */
+final class MySqlLineClassifier {
+
+    private static final String CREATE_TABLE = "CREATE TABLE";
+    private static final String CONSTRAINT = "CONSTRAINT";
+    private static final String PRIMARY_KEY = "PRIMARY KEY";
+    private static final String UNIQUE_KEY = "UNIQUE KEY";
+    private static final String KEY = "KEY";
+    private static final char BACKTICK = '`';
+
+    static final int NO_MATCH = -1;
+
+    private MySqlLineClassifier() {
+    }
+
+    /**
+     * Classifies a line by its leading token, ignoring any leading whitespace.
+     * @param line The line to classify
+     * @return the {@link LineType} of the line, {@link LineType#UNKNOWN} if the leading token is not recognised
+     */
+    static LineType lineType(CharSequence line) {
+        int start = skipWhitespace(line, 0);
+        if (start == line.length()) {
+            return LineType.UNKNOWN;
+        }
+        switch (line.charAt(start)) {
+            case '`':
+                return LineType.COLUMN;
+            case ')':
+                return LineType.END;
+            case 'C':
+                if (startsWith(line, start, CONSTRAINT)) {
+                    return LineType.FOREIGN_KEY;
+                }
+                return startsWith(line, start, CREATE_TABLE) ? LineType.TABLE : LineType.UNKNOWN;
+            case 'P':
+                return startsWith(line, start, PRIMARY_KEY) ? LineType.PRIMARY_KEY : LineType.UNKNOWN;
+            case 'U':
+                return startsWith(line, start, UNIQUE_KEY) ? LineType.UNIQUE_KEY : LineType.UNKNOWN;
+            case 'K':
+                return startsWith(line, start, KEY) ? LineType.KEY : LineType.UNKNOWN;
+            default:
+                return LineType.UNKNOWN;
+        }
+    }
+
+    static int skipWhitespace(CharSequence line, int from) {
+        int index = from;
+        while (index < line.length() && Character.isWhitespace(line.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Checks for a keyword at an offset that is followed by whitespace or the end of the line, so that KEY does not
+     * match an identifier such as KEYS.
+     */
+    static boolean startsWith(CharSequence line, int offset, String keyword) {
+        int end = offset + keyword.length();
+        if (end > line.length()) {
+            return false;
+        }
+        for (int i = 0; i < keyword.length(); i++) {
+            if (line.charAt(offset + i) != keyword.charAt(i)) {
+                return false;
+            }
+        }
+        return end == line.length() || Character.isWhitespace(line.charAt(end));
+    }
+
+    /**
+     * Finds the index just past the quote that closes the one at the given index, allowing for doubled and backslash
+     * escaped quotes.
+     */
+    static int quoteEnd(CharSequence line, int open) {
+        char quote = line.charAt(open);
+        for (int index = open + 1; index < line.length(); index++) {
+            char c = line.charAt(index);
+            if (c == '\\' && quote != BACKTICK) {
+                index++;
+            } else if (c == quote) {
+                if (index + 1 < line.length() && line.charAt(index + 1) == quote) {
+                    index++;
+                } else {
+                    return index + 1;
+                }
+            }
+        }
+        return line.length();
+    }
+
+    static boolean isQuote(char c) {
+        return c == '\'' || c == '"' || c == BACKTICK;
+    }
+
+    /**
+     * Finds the first occurrence of a keyword at or after an index.
+     * @return the index of the keyword or {@link #NO_MATCH}
+     */
+    static int indexOf(CharSequence text, String keyword, int from) {
+        int last = text.length() - keyword.length();
+        for (int index = Math.max(from, 0); index <= last; index++) {
+            if (text.charAt(index) == keyword.charAt(0) && regionMatches(text, index, keyword)) {
+                return index;
+            }
+        }
+        return NO_MATCH;
+    }
+
+    private static boolean regionMatches(CharSequence text, int offset, String keyword) {
+        for (int i = 1; i < keyword.length(); i++) {
+            if (text.charAt(offset + i) != keyword.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
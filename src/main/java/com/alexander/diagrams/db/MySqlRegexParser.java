@@ -5,24 +5,50 @@ import com.alexander.diagrams.model.ForeignKey;
 import com.alexander.diagrams.model.PrimaryKey;
 import com.alexander.diagrams.model.Table;
 import com.alexander.diagrams.model.UniqueConstraint;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+/**
+ * Parses MySQL describe table statements by matching each line against a regular expression.
+ * It is thread safe, the compiled {@link Pattern}s are immutable and each conversion creates its own {@link Matcher}.
+ * Matched identifiers are read from the line into the parser's own {@link SymbolTable} rather than with
+ * {@link Matcher#group}, default values are rarely repeated so are taken from the group.
+ */
 public class MySqlRegexParser implements DatabaseSyntaxParser {
 
+    /**
+     * Bump this whenever a change to the parser, or to the classes it shares with the other parser, can change the
+     * tables it parses.
+     */
+    public static final String VERSION = "1";
+
     private static final String MYSQL_NAME_REGEX = "[a-zA-Z0-9\\-_]{0,64}";
 
-    private static final String CREATE_TABLE_REGEX = ".*CREATE TABLE `(?<tablename>[a-zA-Z_\\-]*)` \\(";
+    private static final String CREATE_TABLE_REGEX = ".*CREATE TABLE `(?<tablename>[a-zA-Z0-9_$\\-]*)` \\(";
     private static final String TABLE_NAME_GROUP = "tablename";
     private static final Pattern CREATE_TABLE_PATTERN = Pattern.compile(CREATE_TABLE_REGEX);
 
+    private final SymbolTable symbols = new SymbolTable(SymbolTable.DEFAULT_CAPACITY);
+    private final MySqlDefinitionParser definitions = MySqlDefinitionParser.builder()
+        .table(this::table)
+        .column(this::column)
+        .primaryKey(this::primaryKey)
+        .foreignKey(this::foreignKey)
+        .uniqueConstraint(this::uniqueConstraint)
+        .build();
+
     @Override
     public Table toTable(String line) {
+        return table(line);
+    }
+
+    private Table table(CharSequence line) {
         String tableName = "";
         Matcher matcher = CREATE_TABLE_PATTERN.matcher(line);
         if (matcher.matches()) {
-            tableName = matcher.group(TABLE_NAME_GROUP);
+            tableName = symbol(matcher, line, TABLE_NAME_GROUP);
         }
         return Table.builder().name(tableName).build();
     }
@@ -55,14 +81,18 @@ public class MySqlRegexParser implements DatabaseSyntaxParser {
 
     @Override
     public Column toColumn(String line) {
+        return column(line);
+    }
+
+    private Column column(CharSequence line) {
         Matcher matcher = COLUMN_PATTERN.matcher(line);
         if (matcher.matches()) {
             return Column.builder()
-                    .name(matcher.group(COLUMN_NAME_GROUP))
-                    .type(matcher.group(DATATYPE_GROUP))
-                    .scale(matcher.group(SCALE_GROUP))
-                    .autoIncrement(matcher.group(AUTO_INCREMENT_GROUP) != null)
-                    .notNull(matcher.group(NOT_NULL_GROUP) != null)
+                    .name(symbol(matcher, line, COLUMN_NAME_GROUP))
+                    .type(symbol(matcher, line, DATATYPE_GROUP))
+                    .scale(symbol(matcher, line, SCALE_GROUP))
+                    .autoIncrement(matcher.start(AUTO_INCREMENT_GROUP) >= 0)
+                    .notNull(matcher.start(NOT_NULL_GROUP) >= 0)
                     .defaultValue(matcher.group(DEFAULT_GROUP))
                     .build();
         }
@@ -85,12 +115,16 @@ public class MySqlRegexParser implements DatabaseSyntaxParser {
      * @return {@link ForeignKey}
      */
     public ForeignKey toForeignKey(String line) {
+        return foreignKey(line);
+    }
+
+    private ForeignKey foreignKey(CharSequence line) {
         Matcher matcher = FOREIGN_KEY_PATTERN.matcher(line);
         if (matcher.matches()) {
             return ForeignKey.builder()
-                    .foreignKeyName(matcher.group(FOREIGN_KEY_NAME_GROUP))
-                    .sourceTable(matcher.group(SOURCE_TABLE_GROUP))
-                    .sourceColumn(matcher.group(SOURCE_COLUMN_GROUP))
+                    .foreignKeyName(symbol(matcher, line, FOREIGN_KEY_NAME_GROUP))
+                    .sourceTable(symbol(matcher, line, SOURCE_TABLE_GROUP))
+                    .sourceColumn(symbol(matcher, line, SOURCE_COLUMN_GROUP))
                     .build();
         }
         return null;
@@ -107,12 +141,24 @@ public class MySqlRegexParser implements DatabaseSyntaxParser {
      * @return {@link PrimaryKey}
      */
     public PrimaryKey toPrimaryKey(String line) {
+        return primaryKey(line);
+    }
+
+    private PrimaryKey primaryKey(CharSequence line) {
         Matcher matcher = PRIMARY_KEY_PATTERN.matcher(line);
         if (matcher.matches()) {
-            String group = matcher.group(PRIMARY_KEY_GROUP);
-            String key = group.replace("`", "");
+            List<String> keyNames = new ArrayList<>();
+            int end = matcher.end(PRIMARY_KEY_GROUP);
+            for (int index = matcher.start(PRIMARY_KEY_GROUP); index < end; index++) {
+                int nameEnd = index + 1;
+                while (line.charAt(nameEnd) != '`') {
+                    nameEnd++;
+                }
+                keyNames.add(symbols.intern(line, index + 1, nameEnd));
+                index = nameEnd + 1;
+            }
             return PrimaryKey.builder()
-                    .keyName(List.of(key.split(",")))
+                    .keyName(List.copyOf(keyNames))
                     .build();
         }
         return null;
@@ -128,11 +174,53 @@ public class MySqlRegexParser implements DatabaseSyntaxParser {
      * @return {@link UniqueConstraint}
      */
     public UniqueConstraint toUniqueConstraint(String line) {
+        return uniqueConstraint(line);
+    }
+
+    private UniqueConstraint uniqueConstraint(CharSequence line) {
         Matcher matcher = UNIQUE_CONSTRAINT_PATTERN.matcher(line);
         if (matcher.matches()) {
             return UniqueConstraint.builder()
-                .indexName(matcher.group(UNIQUE_CONSTRAINT_GROUP)).build();
+                .indexName(symbol(matcher, line, UNIQUE_CONSTRAINT_GROUP)).build();
         }
         return null;
     }
+
+    /**
+     * Classifies a line of a describe table statement by its leading token so that only the one relevant pattern is
+     * matched against it.
+     * @param line The line to classify
+     * @return {@link ClassifiedLine}, of type {@link LineType#UNKNOWN} when the matching pattern does not match
+     */
+    @Override
+    public ClassifiedLine classify(String line) {
+        return definitions.classify(line);
+    }
+
+    /**
+     * Parses a whole create table statement, matching each definition as a region of the statement rather than as a
+     * separate line.
+     * Definitions are matched with the same patterns as the line methods so each must still fit on a single line.
+     * @param createStatement The create table statement to parse
+     * @return {@link Table} with its columns flagged as primary or foreign keys, or null if it is not a create table
+     *         statement
+     */
+    @Override
+    public Table parseTable(CharSequence createStatement) {
+        return definitions.parseTable(createStatement);
+    }
+
+    @Override
+    public String getVersion() {
+        return VERSION;
+    }
+
+    /**
+     * Reads a matched group as its canonical String.
+     * @return the String or null if the group did not take part in the match
+     */
+    private String symbol(Matcher matcher, CharSequence line, String group) {
+        int start = matcher.start(group);
+        return start < 0 ? null : symbols.intern(line, start, matcher.end(group));
+    }
 }
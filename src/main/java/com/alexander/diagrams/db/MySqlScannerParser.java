@@ -0,0 +1,400 @@
+package com.alexander.diagrams.db;
+
+import com.alexander.diagrams.model.Column;
+import com.alexander.diagrams.model.ForeignKey;
+import com.alexander.diagrams.model.PrimaryKey;
+import com.alexander.diagrams.model.Table;
+import com.alexander.diagrams.model.UniqueConstraint;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parses MySQL describe table statements by walking each line character by character instead of matching regular
+ * expressions.
+ * Each conversion reads the line left to right once, keeping track of its position with a plain index, so no
+ * {@link java.util.regex.Matcher} is created and no Strings are allocated for the parts of a line that are discarded,
+ * such as ON DELETE clauses, COMMENT attributes or the ENGINE and CHARSET trailer.
+ * It accepts everything the {@link MySqlRegexParser} does and is more lenient about the rest: any data type, any
+ * DEFAULT value, attributes in any order and a missing trailing comma.
+ * Identifiers and types are read straight from the line into the parser's own {@link SymbolTable}, default values are
+ * copied out of the line as they are rarely repeated.
+ * It is thread safe, a conversion only keeps its position in local variables.
+ */
+public class MySqlScannerParser implements DatabaseSyntaxParser {
+
+    /**
+     * Bump this whenever a change to the parser, or to the classes it shares with the other parser, can change the
+     * tables it parses.
+     */
+    public static final String VERSION = "1";
+
+    private static final int NO_MATCH = MySqlLineClassifier.NO_MATCH;
+    private static final char BACKTICK = '`';
+    private static final char OPEN = '(';
+    private static final char CLOSE = ')';
+    private static final char COMMA = ',';
+
+    private static final String CREATE_TABLE = "CREATE TABLE";
+    private static final String CONSTRAINT = "CONSTRAINT";
+    private static final String FOREIGN_KEY = "FOREIGN KEY";
+    private static final String REFERENCES = "REFERENCES";
+    private static final String PRIMARY_KEY = "PRIMARY KEY";
+    private static final String UNIQUE_KEY = "UNIQUE KEY";
+    private static final String NOT_NULL = "NOT NULL";
+    private static final String AUTO_INCREMENT = "AUTO_INCREMENT";
+    private static final String DEFAULT = "DEFAULT";
+
+    private final SymbolTable symbols = new SymbolTable(SymbolTable.DEFAULT_CAPACITY);
+    private final MySqlDefinitionParser definitions = MySqlDefinitionParser.builder()
+        .table(this::table)
+        .column(this::column)
+        .primaryKey(this::primaryKey)
+        .foreignKey(this::foreignKey)
+        .uniqueConstraint(this::uniqueConstraint)
+        .build();
+
+    @Override
+    public Table toTable(String line) {
+        return table(line);
+    }
+
+    private Table table(CharSequence line) {
+        String tableName = "";
+        int index = MySqlLineClassifier.indexOf(line, CREATE_TABLE, 0);
+        if (index != NO_MATCH) {
+            int nameStart = skipWhitespace(line, index + CREATE_TABLE.length());
+            int nameEnd = identifierEnd(line, nameStart);
+            if (nameEnd != NO_MATCH && at(line, skipWhitespace(line, nameEnd + 1), OPEN)) {
+                tableName = symbol(line, nameStart + 1, nameEnd);
+            }
+        }
+        return Table.builder().name(tableName).build();
+    }
+
+    /**
+     * Converts a column definition from a describe table statement into a Column object.
+     * NOT NULL, AUTO_INCREMENT and DEFAULT are read in any order, every other attribute is skipped.
+     * @param line The String to convert into a Column object.
+     * @return {@link Column} or null if the line is not a column definition
+     */
+    @Override
+    public Column toColumn(String line) {
+        return column(line);
+    }
+
+    private Column column(CharSequence line) {
+        int nameStart = skipWhitespace(line, 0);
+        int nameEnd = identifierEnd(line, nameStart);
+        if (nameEnd == NO_MATCH) {
+            return null;
+        }
+        int typeStart = skipWhitespace(line, nameEnd + 1);
+        int typeEnd = lettersEnd(line, typeStart);
+        if (typeEnd == typeStart) {
+            return null;
+        }
+        Column.ColumnBuilder column = Column.builder()
+            .name(symbol(line, nameStart + 1, nameEnd))
+            .type(symbol(line, typeStart, typeEnd));
+
+        int index = skipWhitespace(line, typeEnd);
+        if (at(line, index, OPEN)) {
+            int scaleEnd = closingParenthesis(line, index);
+            if (scaleEnd == NO_MATCH) {
+                return null;
+            }
+            column.scale(symbol(line, index + 1, scaleEnd));
+            index = scaleEnd + 1;
+        }
+
+        for (index = skipWhitespace(line, index); index < line.length(); index = skipWhitespace(line, index)) {
+            if (keywordAt(line, index, NOT_NULL)) {
+                column.notNull(true);
+                index += NOT_NULL.length();
+            } else if (keywordAt(line, index, AUTO_INCREMENT)) {
+                column.autoIncrement(true);
+                index += AUTO_INCREMENT.length();
+            } else if (keywordAt(line, index, DEFAULT)) {
+                int valueStart = skipWhitespace(line, index + DEFAULT.length());
+                index = tokenEnd(line, valueStart);
+                column.defaultValue(line.subSequence(valueStart, index).toString());
+            } else {
+                index = tokenEnd(line, index);
+            }
+        }
+        return column.build();
+    }
+
+    /**
+     * Converts a String representing a primary key constraint from a describe table statement into a PrimaryKey object.
+     * @param line The String to convert into a PrimaryKey object.
+     * @return {@link PrimaryKey} or null if the line is not a primary key definition
+     */
+    @Override
+    public PrimaryKey toPrimaryKey(String line) {
+        return primaryKey(line);
+    }
+
+    private PrimaryKey primaryKey(CharSequence line) {
+        int index = skipWhitespace(line, 0);
+        if (!keywordAt(line, index, PRIMARY_KEY)) {
+            return null;
+        }
+        List<String> keyNames = identifierList(line, skipWhitespace(line, index + PRIMARY_KEY.length()));
+        if (keyNames == null) {
+            return null;
+        }
+        return PrimaryKey.builder()
+            .keyName(keyNames)
+            .build();
+    }
+
+    /**
+     * Converts a String representing a foreign key constraint from a describe table statement into a ForeignKey object.
+     * Only single column foreign keys can be represented, the referential actions that follow are not read.
+     * @param line The String to convert into a ForeignKey object.
+     * @return {@link ForeignKey} or null if the line is not a single column foreign key constraint
+     */
+    @Override
+    public ForeignKey toForeignKey(String line) {
+        return foreignKey(line);
+    }
+
+    private ForeignKey foreignKey(CharSequence line) {
+        int index = skipWhitespace(line, 0);
+        if (!keywordAt(line, index, CONSTRAINT)) {
+            return null;
+        }
+        int constraintEnd = identifierEnd(line, skipWhitespace(line, index + CONSTRAINT.length()));
+        if (constraintEnd == NO_MATCH) {
+            return null;
+        }
+        index = skipWhitespace(line, constraintEnd + 1);
+        if (!keywordAt(line, index, FOREIGN_KEY)) {
+            return null;
+        }
+        int columnStart = parenthesisedStart(line, skipWhitespace(line, index + FOREIGN_KEY.length()));
+        int columnEnd = identifierEnd(line, columnStart);
+        int columnClose = parenthesisedEnd(line, columnEnd);
+        if (columnClose == NO_MATCH) {
+            return null;
+        }
+        index = skipWhitespace(line, columnClose + 1);
+        if (!keywordAt(line, index, REFERENCES)) {
+            return null;
+        }
+        int tableStart = skipWhitespace(line, index + REFERENCES.length());
+        int tableEnd = identifierEnd(line, tableStart);
+        if (tableEnd == NO_MATCH) {
+            return null;
+        }
+        int sourceColumnStart = parenthesisedStart(line, skipWhitespace(line, tableEnd + 1));
+        int sourceColumnEnd = identifierEnd(line, sourceColumnStart);
+        if (parenthesisedEnd(line, sourceColumnEnd) == NO_MATCH) {
+            return null;
+        }
+        return ForeignKey.builder()
+            .foreignKeyName(symbol(line, columnStart + 1, columnEnd))
+            .sourceTable(symbol(line, tableStart + 1, tableEnd))
+            .sourceColumn(symbol(line, sourceColumnStart + 1, sourceColumnEnd))
+            .build();
+    }
+
+    /**
+     * Convert a string representing a describe table unique key into an object.
+     * @param line The line to parse
+     * @return {@link UniqueConstraint} or null if the line is not a unique key definition
+     */
+    @Override
+    public UniqueConstraint toUniqueConstraint(String line) {
+        return uniqueConstraint(line);
+    }
+
+    private UniqueConstraint uniqueConstraint(CharSequence line) {
+        int index = skipWhitespace(line, 0);
+        if (!keywordAt(line, index, UNIQUE_KEY)) {
+            return null;
+        }
+        int nameStart = skipWhitespace(line, index + UNIQUE_KEY.length());
+        int nameEnd = identifierEnd(line, nameStart);
+        if (nameEnd == NO_MATCH) {
+            return null;
+        }
+        List<String> columnNames = identifierList(line, skipWhitespace(line, nameEnd + 1));
+        if (columnNames == null) {
+            return null;
+        }
+        return UniqueConstraint.builder()
+            .indexName(symbol(line, nameStart + 1, nameEnd))
+            .columnNames(columnNames)
+            .build();
+    }
+
+    @Override
+    public ClassifiedLine classify(String line) {
+        return definitions.classify(line);
+    }
+
+    /**
+     * Parses a whole create table statement in one forward pass over the buffer.
+     * Definitions may span several lines, as whitespace between tokens is never significant to the scanner.
+     * @param createStatement The create table statement to parse
+     * @return {@link Table} with its columns flagged as primary or foreign keys, or null if it is not a create table
+     *         statement
+     */
+    @Override
+    public Table parseTable(CharSequence createStatement) {
+        return definitions.parseTable(createStatement);
+    }
+
+    @Override
+    public String getVersion() {
+        return VERSION;
+    }
+
+    /**
+     * Reads a parenthesised, comma separated list of quoted identifiers such as (`a`,`b`).
+     * @return the unquoted identifiers or null if the list is malformed
+     */
+    private List<String> identifierList(CharSequence line, int open) {
+        if (!at(line, open, OPEN)) {
+            return null;
+        }
+        List<String> names = new ArrayList<>();
+        int index = open;
+        do {
+            int nameStart = skipWhitespace(line, index + 1);
+            int nameEnd = identifierEnd(line, nameStart);
+            if (nameEnd == NO_MATCH) {
+                return null;
+            }
+            names.add(symbol(line, nameStart + 1, nameEnd));
+            index = skipWhitespace(line, nameEnd + 1);
+        } while (at(line, index, COMMA));
+        return at(line, index, CLOSE) ? List.copyOf(names) : null;
+    }
+
+    /**
+     * Finds the start of the single identifier enclosed by the parenthesis at the given index, as in (`a`).
+     * @return the index following the parenthesis and any whitespace or {@link #NO_MATCH}
+     */
+    private static int parenthesisedStart(CharSequence line, int open) {
+        return at(line, open, OPEN) ? skipWhitespace(line, open + 1) : NO_MATCH;
+    }
+
+    /**
+     * Finds the parenthesis closing a single enclosed identifier, as in (`a`).
+     * @param nameEnd the index of the closing backtick of the identifier
+     * @return the index of the closing parenthesis or {@link #NO_MATCH}
+     */
+    private static int parenthesisedEnd(CharSequence line, int nameEnd) {
+        if (nameEnd == NO_MATCH) {
+            return NO_MATCH;
+        }
+        int close = skipWhitespace(line, nameEnd + 1);
+        return at(line, close, CLOSE) ? close : NO_MATCH;
+    }
+
+    /**
+     * Finds the end of a backtick quoted identifier.
+     * @param start the index of the opening backtick
+     * @return the index of the closing backtick or {@link #NO_MATCH} if there is no non-empty quoted identifier
+     */
+    static int identifierEnd(CharSequence line, int start) {
+        if (!at(line, start, BACKTICK)) {
+            return NO_MATCH;
+        }
+        for (int index = start + 1; index < line.length(); index++) {
+            if (line.charAt(index) == BACKTICK) {
+                return index == start + 1 ? NO_MATCH : index;
+            }
+        }
+        return NO_MATCH;
+    }
+
+    /**
+     * Finds the parenthesis that closes the one at the given index, ignoring any inside quoted strings.
+     * @return the index of the closing parenthesis or {@link #NO_MATCH}
+     */
+    static int closingParenthesis(CharSequence line, int open) {
+        int depth = 0;
+        for (int index = open; index < line.length(); index++) {
+            char c = line.charAt(index);
+            if (MySqlLineClassifier.isQuote(c)) {
+                index = MySqlLineClassifier.quoteEnd(line, index) - 1;
+            } else if (c == OPEN) {
+                depth++;
+            } else if (c == CLOSE && --depth == 0) {
+                return index;
+            }
+        }
+        return NO_MATCH;
+    }
+
+    /**
+     * Finds the index just past the token starting at the given index: a quoted string, a parenthesised group, a single
+     * comma or a run of characters up to the next whitespace, comma or parenthesis.
+     */
+    static int tokenEnd(CharSequence line, int start) {
+        if (start >= line.length()) {
+            return start;
+        }
+        char c = line.charAt(start);
+        if (MySqlLineClassifier.isQuote(c)) {
+            return MySqlLineClassifier.quoteEnd(line, start);
+        }
+        if (c == OPEN) {
+            int close = closingParenthesis(line, start);
+            return close == NO_MATCH ? line.length() : close + 1;
+        }
+        if (c == COMMA || c == CLOSE) {
+            return start + 1;
+        }
+        int index = start;
+        while (index < line.length() && !isDelimiter(line.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    private static boolean isDelimiter(char c) {
+        return Character.isWhitespace(c) || c == COMMA || c == OPEN || c == CLOSE;
+    }
+
+    private String symbol(CharSequence line, int start, int end) {
+        return symbols.intern(line, start, end);
+    }
+
+    static int lettersEnd(CharSequence line, int start) {
+        int index = start;
+        while (index < line.length() && Character.isLetter(line.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    static int skipWhitespace(CharSequence line, int from) {
+        return MySqlLineClassifier.skipWhitespace(line, from);
+    }
+
+    static boolean at(CharSequence line, int index, char c) {
+        return index >= 0 && index < line.length() && line.charAt(index) == c;
+    }
+
+    /**
+     * Checks for a keyword at an index that ends at a delimiter or the end of the line, so that DEFAULT does not match
+     * the start of an identifier such as DEFAULTS.
+     */
+    static boolean keywordAt(CharSequence line, int index, String keyword) {
+        int end = index + keyword.length();
+        if (end > line.length()) {
+            return false;
+        }
+        for (int i = 0; i < keyword.length(); i++) {
+            if (line.charAt(index + i) != keyword.charAt(i)) {
+                return false;
+            }
+        }
+        return end == line.length() || isDelimiter(line.charAt(end));
+    }
+}
@@ -0,0 +1,18 @@
+package com.alexander.diagrams.db;
+
+import com.alexander.diagrams.model.Table;
+import java.util.List;
+
+/**
+ * Loads a whole database schema straight into model objects, without producing create table statements for a
+ * {@link DatabaseSyntaxParser} to parse.
+ */
+public interface SchemaLoader {
+
+    /**
+     * Loads every table in the schema.
+     * @return the {@link Table}s with their columns, keys and column key flags set, in the order the database lists
+     *     them
+     */
+    List<Table> load();
+}
@@ -0,0 +1,327 @@
+package com.alexander.diagrams.db;
+
+import com.alexander.diagrams.model.Column;
+import com.alexander.diagrams.model.ForeignKey;
+import com.alexander.diagrams.model.PrimaryKey;
+import com.alexander.diagrams.model.Table;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import lombok.Builder;
+
+/**
+ * A compact, versioned binary snapshot of a schema, so a schema that was loaded or parsed once can be reloaded in
+ * milliseconds to render further diagrams from it.
+ * Every distinct identifier is written once to a string table and referenced by its index, lengths and counts are
+ * written as varints and the boolean attributes of a column are packed into a single byte of flags.
+ * A snapshot is loaded with a single read of the whole file, or by memory mapping it.
+ */
+@SuppressFBWarnings(value = {"PATH_TRAVERSAL_IN", "RCN_REDUNDANT_NULLCHECK_OF_NONNULL_VALUE"},
+    justification = "PATH_TRAVERSAL_IN: the snapshot file is configured by the caller. "
+        + "RCN_REDUNDANT_NULLCHECK_OF_NONNULL_VALUE: https://github.com/spotbugs/spotbugs/issues/259")
+public class SchemaSnapshot implements SchemaLoader {
+
+    private static final int MAGIC = 0x44445353;
+    private static final int FORMAT_VERSION = 1;
+    private static final int NULL_STRING = 0;
+    private static final String TEMP_EXT = ".tmp";
+
+    private static final int NOT_NULL = 1;
+    private static final int NOT_DEFAULT = 1 << 1;
+    private static final int PRIMARY = 1 << 2;
+    private static final int FOREIGN = 1 << 3;
+    private static final int AUTO_INCREMENT = 1 << 4;
+
+    private final Path snapshotFile;
+    private final boolean memoryMapped;
+
+    /**
+     * A snapshot of a schema kept in a file.
+     * @param snapshotFile the path of the snapshot file
+     * @param memoryMapped (optional) when true the file is memory mapped and decoded straight from the mapping instead
+     *                     of being read into memory first, defaults to false
+     */
+    @Builder
+    public SchemaSnapshot(String snapshotFile, Boolean memoryMapped) {
+        this.snapshotFile = Path.of(Optional.ofNullable(snapshotFile).orElseThrow(
+            () -> new IllegalArgumentException("The provided snapshot file is null")));
+        this.memoryMapped = Optional.ofNullable(memoryMapped).orElse(false);
+    }
+
+    /**
+     * Loads the tables saved in the snapshot file.
+     * Lists that were null when the snapshot was saved are loaded as empty lists.
+     * @return the {@link Table}s in the order they were saved
+     */
+    @Override
+    public List<Table> load() {
+        try {
+            return read(memoryMapped ? map() : ByteBuffer.wrap(Files.readAllBytes(snapshotFile)));
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to load the schema snapshot " + snapshotFile, e);
+        }
+    }
+
+    /**
+     * Saves the tables to the snapshot file, replacing any previous snapshot. The snapshot is written to a temporary
+     * file and moved into place, so a concurrent load sees either the previous snapshot or the new one.
+     * @param tables the {@link Table}s to save
+     */
+    public void save(List<Table> tables) {
+        Path directory = Optional.ofNullable(snapshotFile.toAbsolutePath().getParent()).orElse(Path.of("."));
+        try {
+            Path temp = Files.createTempFile(directory, snapshotFile.getFileName().toString(), TEMP_EXT);
+            try {
+                try (OutputStream output = Files.newOutputStream(temp)) {
+                    write(tables, output);
+                }
+                Files.move(temp, snapshotFile, StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to save the schema snapshot " + snapshotFile, e);
+        }
+    }
+
+    private ByteBuffer map() throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshotFile, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /**
+     * Writes the tables in the snapshot format, buffering the output.
+     * @param tables the {@link Table}s to write
+     * @param output the stream to write to, flushed but not closed
+     * @throws IOException if the stream cannot be written to
+     */
+    static void write(List<Table> tables, OutputStream output) throws IOException {
+        Map<String, Integer> ids = new HashMap<>();
+        List<String> strings = new ArrayList<>();
+        for (Table table : tables) {
+            intern(ids, strings, table.getName());
+            for (Column column : columns(table)) {
+                intern(ids, strings, column.getName());
+                intern(ids, strings, column.getType());
+                intern(ids, strings, column.getScale());
+                intern(ids, strings, column.getDefaultValue());
+            }
+            for (ForeignKey foreignKey : foreignKeys(table)) {
+                intern(ids, strings, foreignKey.getForeignKeyName());
+                intern(ids, strings, foreignKey.getSourceTable());
+                intern(ids, strings, foreignKey.getSourceColumn());
+            }
+            for (PrimaryKey primaryKey : primaryKeys(table)) {
+                for (String keyName : primaryKey.getKeyName()) {
+                    intern(ids, strings, keyName);
+                }
+            }
+        }
+
+        OutputStream buffered = new BufferedOutputStream(output);
+        writeInt(buffered, MAGIC);
+        writeVarint(buffered, FORMAT_VERSION);
+        writeVarint(buffered, strings.size());
+        for (String string : strings) {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            writeVarint(buffered, bytes.length);
+            buffered.write(bytes);
+        }
+        writeVarint(buffered, tables.size());
+        for (Table table : tables) {
+            writeString(buffered, ids, table.getName());
+            List<Column> columns = columns(table);
+            writeVarint(buffered, columns.size());
+            for (Column column : columns) {
+                writeString(buffered, ids, column.getName());
+                writeString(buffered, ids, column.getType());
+                writeString(buffered, ids, column.getScale());
+                writeString(buffered, ids, column.getDefaultValue());
+                buffered.write((column.isNotNull() ? NOT_NULL : 0)
+                    | (column.isNotDefault() ? NOT_DEFAULT : 0)
+                    | (column.isPrimary() ? PRIMARY : 0)
+                    | (column.isForeign() ? FOREIGN : 0)
+                    | (column.isAutoIncrement() ? AUTO_INCREMENT : 0));
+            }
+            List<ForeignKey> foreignKeys = foreignKeys(table);
+            writeVarint(buffered, foreignKeys.size());
+            for (ForeignKey foreignKey : foreignKeys) {
+                writeString(buffered, ids, foreignKey.getForeignKeyName());
+                writeString(buffered, ids, foreignKey.getSourceTable());
+                writeString(buffered, ids, foreignKey.getSourceColumn());
+            }
+            List<PrimaryKey> primaryKeys = primaryKeys(table);
+            writeVarint(buffered, primaryKeys.size());
+            for (PrimaryKey primaryKey : primaryKeys) {
+                writeVarint(buffered, primaryKey.getKeyName().size());
+                for (String keyName : primaryKey.getKeyName()) {
+                    writeString(buffered, ids, keyName);
+                }
+            }
+        }
+        buffered.flush();
+    }
+
+    /**
+     * Reads tables written in the snapshot format.
+     * @param buffer the whole snapshot, read from its position
+     * @return the {@link Table}s in the order they were written
+     * @throws IOException if the buffer does not hold a snapshot of this format version or is truncated
+     */
+    static List<Table> read(ByteBuffer buffer) throws IOException {
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a schema snapshot");
+            }
+            int version = readVarint(buffer);
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unsupported schema snapshot version " + version + ", expected "
+                    + FORMAT_VERSION);
+            }
+            String[] strings = new String[readVarint(buffer)];
+            for (int i = 0; i < strings.length; i++) {
+                strings[i] = readUtf8(buffer, readVarint(buffer));
+            }
+            int tableCount = readVarint(buffer);
+            List<Table> tables = new ArrayList<>(tableCount);
+            for (int t = 0; t < tableCount; t++) {
+                String name = readString(buffer, strings);
+                int columnCount = readVarint(buffer);
+                List<Column> columns = new ArrayList<>(columnCount);
+                for (int i = 0; i < columnCount; i++) {
+                    Column.ColumnBuilder column = Column.builder()
+                        .name(readString(buffer, strings))
+                        .type(readString(buffer, strings))
+                        .scale(readString(buffer, strings))
+                        .defaultValue(readString(buffer, strings));
+                    int flags = buffer.get();
+                    columns.add(column
+                        .notNull((flags & NOT_NULL) != 0)
+                        .notDefault((flags & NOT_DEFAULT) != 0)
+                        .primary((flags & PRIMARY) != 0)
+                        .foreign((flags & FOREIGN) != 0)
+                        .autoIncrement((flags & AUTO_INCREMENT) != 0)
+                        .build());
+                }
+                int foreignKeyCount = readVarint(buffer);
+                List<ForeignKey> foreignKeys = new ArrayList<>(foreignKeyCount);
+                for (int i = 0; i < foreignKeyCount; i++) {
+                    foreignKeys.add(ForeignKey.builder()
+                        .foreignKeyName(readString(buffer, strings))
+                        .sourceTable(readString(buffer, strings))
+                        .sourceColumn(readString(buffer, strings))
+                        .build());
+                }
+                int primaryKeyCount = readVarint(buffer);
+                List<PrimaryKey> primaryKeys = new ArrayList<>(primaryKeyCount);
+                for (int i = 0; i < primaryKeyCount; i++) {
+                    int keyNameCount = readVarint(buffer);
+                    List<String> keyNames = new ArrayList<>(keyNameCount);
+                    for (int j = 0; j < keyNameCount; j++) {
+                        keyNames.add(readString(buffer, strings));
+                    }
+                    primaryKeys.add(PrimaryKey.builder().keyName(keyNames).build());
+                }
+                tables.add(Table.builder()
+                    .name(name)
+                    .columns(columns)
+                    .foreignKeys(foreignKeys)
+                    .primaryKeys(primaryKeys)
+                    .build());
+            }
+            return tables;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("The schema snapshot is truncated or corrupt", e);
+        }
+    }
+
+    private static List<Column> columns(Table table) {
+        return Optional.ofNullable(table.getColumns()).orElse(List.of());
+    }
+
+    private static List<ForeignKey> foreignKeys(Table table) {
+        return Optional.ofNullable(table.getForeignKeys()).orElse(List.of());
+    }
+
+    private static List<PrimaryKey> primaryKeys(Table table) {
+        return Optional.ofNullable(table.getPrimaryKeys()).orElse(List.of());
+    }
+
+    private static void intern(Map<String, Integer> ids, List<String> strings, String value) {
+        if (value != null && !ids.containsKey(value)) {
+            ids.put(value, strings.size());
+            strings.add(value);
+        }
+    }
+
+    private static void writeString(OutputStream output, Map<String, Integer> ids, String value) throws IOException {
+        writeVarint(output, value == null ? NULL_STRING : ids.get(value) + 1);
+    }
+
+    private static String readString(ByteBuffer buffer, String[] strings) {
+        int id = readVarint(buffer);
+        return id == NULL_STRING ? null : strings[id - 1];
+    }
+
+    private static void writeInt(OutputStream output, int value) throws IOException {
+        output.write(value >>> 24);
+        output.write(value >>> 16);
+        output.write(value >>> 8);
+        output.write(value);
+    }
+
+    /**
+     * Writes a non negative int in 7 bit groups, least significant first, with the high bit set on every byte but the
+     * last, so small counts and indexes take a single byte.
+     */
+    private static void writeVarint(OutputStream output, int value) throws IOException {
+        int remaining = value;
+        while ((remaining & ~0x7F) != 0) {
+            output.write((remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+        output.write(remaining);
+    }
+
+    private static int readVarint(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+            byte next = buffer.get();
+            value |= (next & 0x7F) << shift;
+            if (next >= 0) {
+                return value;
+            }
+        }
+        throw new IndexOutOfBoundsException("A varint is longer than 5 bytes");
+    }
+
+    private static String readUtf8(ByteBuffer buffer, int length) {
+        if (length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        if (buffer.hasArray()) {
+            int start = buffer.arrayOffset() + buffer.position();
+            buffer.position(buffer.position() + length);
+            return new String(buffer.array(), start, length, StandardCharsets.UTF_8);
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,107 @@
+package com.alexander.diagrams.db;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Canonicalises the identifiers read by the parsers, so that a name repeated across tables, such as a column type,
+ * an id column or a table referenced by many foreign keys, is held by the model as one String.
+ * An identifier is looked up from the characters of the line it is read from, so a String is only created the first
+ * time a name is seen.
+ * The table is a fixed size open addressing hash table of Strings. Lookups are plain volatile reads and a new name is
+ * claimed with a compare and set, so no thread ever waits for another. The table never grows: when the slots a name
+ * would occupy are taken it is returned as a new, uninterned String, bounding the memory held by the table.
+ * Each parser holds its own table, so the names it interned are released along with the parser rather than pinned for
+ * the life of the JVM.
+ */
+final class SymbolTable {
+
+    /** The number of slots in a parser's table, 16,384. */
+    static final int DEFAULT_CAPACITY = 1 << 14;
+
+    private static final int MAX_PROBES = 8;
+    private static final int MAX_LENGTH = 64;
+
+    private final AtomicReferenceArray<String> symbols;
+    private final int mask;
+
+    /**
+     * Creates an empty symbol table.
+     * @param capacity the number of slots, a power of two
+     */
+    SymbolTable(int capacity) {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("The capacity must be a power of two, not " + capacity);
+        }
+        this.symbols = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Finds the canonical String for the characters between start and end.
+     * Text longer than an identifier is not interned.
+     * @param text the text holding the identifier
+     * @param start the index of the first character
+     * @param end the index after the last character
+     * @return the canonical String or a new String if the table has no room for it
+     */
+    String intern(CharSequence text, int start, int end) {
+        return intern(text, start, end, null);
+    }
+
+    /**
+     * Finds the canonical String for a String.
+     * @param text the identifier, may be null
+     * @return the canonical String, the given one if the table has no room for it, or null
+     */
+    String intern(String text) {
+        return text == null ? null : intern(text, 0, text.length(), text);
+    }
+
+    /**
+     * Looks up the characters between start and end, claiming a slot for them if they are new.
+     * @param whole the String to add when the text is already a String holding just the identifier, otherwise null
+     */
+    private String intern(CharSequence text, int start, int end, String whole) {
+        int length = end - start;
+        if (length > MAX_LENGTH) {
+            return whole != null ? whole : text.subSequence(start, end).toString();
+        }
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + text.charAt(i);
+        }
+        int slot = (hash ^ hash >>> 16) & mask;
+        String created = null;
+        for (int probe = 0; probe < MAX_PROBES; probe++, slot = slot + 1 & mask) {
+            String symbol = symbols.get(slot);
+            if (symbol == null) {
+                if (created == null) {
+                    created = whole != null ? whole : text.subSequence(start, end).toString();
+                }
+                if (symbols.compareAndSet(slot, null, created)) {
+                    return created;
+                }
+                symbol = symbols.get(slot);
+            }
+            if (matches(symbol, text, start, length)) {
+                return symbol;
+            }
+        }
+        if (created != null) {
+            return created;
+        }
+        return whole != null ? whole : text.subSequence(start, end).toString();
+    }
+
+    private static boolean matches(String symbol, CharSequence text, int start, int length) {
+        if (symbol.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (symbol.charAt(i) != text.charAt(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,95 @@
+package com.alexander.diagrams.db;
+
+import com.alexander.diagrams.model.Column;
+import com.alexander.diagrams.model.ForeignKey;
+import com.alexander.diagrams.model.PrimaryKey;
+import com.alexander.diagrams.model.Table;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Collects the classified definitions, or loaded metadata, of a single table and assembles them into a {@link Table},
+ * marking the columns named by its primary and foreign keys.
+ */
+final class TableAssembler {
+
+    private final String name;
+    private final List<Column> columns = new ArrayList<>();
+    private final List<ForeignKey> foreignKeys = new ArrayList<>();
+    private final List<PrimaryKey> primaryKeys = new ArrayList<>();
+
+    /**
+     * Starts assembling a table.
+     * @param name the name of the table
+     */
+    TableAssembler(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Adds the column or key of a classified line, lines of any other type are ignored.
+     * @param line the classified line of a create table statement
+     */
+    void add(ClassifiedLine line) {
+        switch (line.getType()) {
+            case COLUMN:
+                addColumn(line.getColumn());
+                break;
+            case FOREIGN_KEY:
+                addForeignKey(line.getForeignKey());
+                break;
+            case PRIMARY_KEY:
+                addPrimaryKey(line.getPrimaryKey());
+                break;
+            default:
+                break;
+        }
+    }
+
+    void addColumn(Column column) {
+        columns.add(column);
+    }
+
+    void addForeignKey(ForeignKey foreignKey) {
+        foreignKeys.add(foreignKey);
+    }
+
+    void addPrimaryKey(PrimaryKey primaryKey) {
+        primaryKeys.add(primaryKey);
+    }
+
+    /**
+     * Builds the table, key membership is resolved with hash lookups and only the key columns are copied to set their
+     * flags.
+     * @return {@link Table}
+     */
+    Table build() {
+        Set<String> foreignNames = new HashSet<>();
+        for (ForeignKey foreignKey : foreignKeys) {
+            foreignNames.add(foreignKey.getForeignKeyName());
+        }
+        Set<String> primaryNames = new HashSet<>();
+        for (PrimaryKey primaryKey : primaryKeys) {
+            primaryNames.addAll(primaryKey.getKeyName());
+        }
+
+        List<Column> flagged = new ArrayList<>(columns.size());
+        for (Column column : columns) {
+            boolean primary = primaryNames.contains(column.getName());
+            boolean foreign = foreignNames.contains(column.getName());
+            if (primary == column.isPrimary() && foreign == column.isForeign()) {
+                flagged.add(column);
+            } else {
+                flagged.add(column.toBuilder().primary(primary).foreign(foreign).build());
+            }
+        }
+        return Table.builder()
+            .name(name)
+            .columns(flagged)
+            .foreignKeys(foreignKeys)
+            .primaryKeys(primaryKeys)
+            .build();
+    }
+}
@@ -1,9 +1,42 @@
 package com.alexander.diagrams.diagram;
 
+import com.alexander.diagrams.model.Schema;
 import com.alexander.diagrams.model.Table;
+import java.util.ArrayList;
 import java.util.List;
 
 public interface DiagramProducer {
 
     void generateDiagram(List<Table> tables);
+
+    /**
+     * Creates a diagram of a schema whose indexes are already built.
+     * Producers that look tables or relationships up override this, by default the tables are passed to
+     * {@link #generateDiagram(List)}.
+     * @param schema the tables and their indexes
+     */
+    default void generateDiagram(Schema schema) {
+        generateDiagram(schema.getTables());
+    }
+
+    /**
+     * Starts a diagram that is given its tables one at a time.
+     * Producers that can render a table on its own override this, by default the tables are collected and passed to
+     * {@link #generateDiagram(List)} once the diagram is completed.
+     * @return an {@link IncrementalDiagram} to add the tables to
+     */
+    default IncrementalDiagram startDiagram() {
+        List<Table> tables = new ArrayList<>();
+        return new IncrementalDiagram() {
+            @Override
+            public void add(Table table) {
+                tables.add(table);
+            }
+
+            @Override
+            public void complete() {
+                generateDiagram(tables);
+            }
+        };
+    }
 }
@@ -0,0 +1,31 @@
+package com.alexander.diagrams.diagram;
+
+import com.alexander.diagrams.model.Table;
+
+/**
+ * A diagram that is built up one table at a time, so a producer can render each table as soon as it has been parsed
+ * instead of waiting for the whole schema.
+ * Obtained from {@link DiagramProducer#startDiagram()}, it is not thread safe and is meant to be fed by a single
+ * thread.
+ */
+public interface IncrementalDiagram {
+
+    /**
+     * Adds the next table to the diagram.
+     * @param table the {@link Table} to add, tables appear in the diagram in the order they are added
+     */
+    void add(Table table);
+
+    /**
+     * Completes the diagram once every table has been added, e.g. adding the relationships between the tables and
+     * writing the diagram out.
+     */
+    void complete();
+
+    /**
+     * Abandons a diagram that will not be completed, e.g. because a table could not be parsed, releasing anything
+     * the diagram holds open. Nothing is held by default.
+     */
+    default void abandon() {
+    }
+}
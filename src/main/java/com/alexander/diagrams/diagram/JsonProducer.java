@@ -0,0 +1,230 @@
+package com.alexander.diagrams.diagram;
+
+import com.alexander.diagrams.model.Column;
+import com.alexander.diagrams.model.ForeignKey;
+import com.alexander.diagrams.model.PrimaryKey;
+import com.alexander.diagrams.model.Table;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Optional;
+import lombok.Builder;
+import org.apache.commons.io.FilenameUtils;
+
+/**
+ * Exports the schema model as JSON instead of drawing a diagram, for other tools to consume.
+ * The JSON is streamed out one table at a time with a {@link JsonGenerator}, no tree of the document is built, so
+ * exporting via {@link #startDiagram()} from a pipelined generator holds no more than the table being written.
+ * The document is an object with a tables array, each table has its name, columns, foreignKeys and primaryKeys named
+ * after the model's properties, null values are left out.
+ */
+@SuppressFBWarnings(value = {"WEAK_FILENAMEUTILS", "PATH_TRAVERSAL_OUT", "EI_EXPOSE_REP2"},
+    justification = "WEAK_FILENAMEUTILS: Null byte injection is fixed in Java 7u40 and higher. "
+        + "PATH_TRAVERSAL_OUT: FilenameUtils.getName() strips the path from the filename preventing path traversal. "
+        + "EI_EXPOSE_REP2: the output stream is provided to be written to.")
+public class JsonProducer implements DiagramProducer {
+
+    private static final String TABLES = "tables";
+    private static final String NAME = "name";
+    private static final String COLUMNS = "columns";
+    private static final String TYPE = "type";
+    private static final String SCALE = "scale";
+    private static final String DEFAULT_VALUE = "defaultValue";
+    private static final String NOT_NULL = "notNull";
+    private static final String NOT_DEFAULT = "notDefault";
+    private static final String PRIMARY = "primary";
+    private static final String FOREIGN = "foreign";
+    private static final String AUTO_INCREMENT = "autoIncrement";
+    private static final String FOREIGN_KEYS = "foreignKeys";
+    private static final String FOREIGN_KEY_NAME = "foreignKeyName";
+    private static final String SOURCE_TABLE = "sourceTable";
+    private static final String SOURCE_COLUMN = "sourceColumn";
+    private static final String PRIMARY_KEYS = "primaryKeys";
+    private static final String KEY_NAME = "keyName";
+
+    private static final String JSON_EXT = ".json";
+    private static final String TEMP_EXT = ".tmp";
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    private final String filename;
+    private final OutputStream outputStream;
+
+    /**
+     * Creates a producer that writes the tables as JSON.
+     * @param filename the name of the output file without its .json extension, location relative to executing code,
+     *                 ignored when an outputStream is provided
+     * @param outputStream (optional) a stream to write the JSON to instead of a file, it is flushed but not closed
+     */
+    @Builder
+    public JsonProducer(String filename, OutputStream outputStream) {
+        if (filename == null && outputStream == null) {
+            throw new IllegalArgumentException("A filename or an output stream is required to export JSON");
+        }
+        this.filename = filename;
+        this.outputStream = outputStream;
+    }
+
+    /**
+     * Writes the tables as a JSON document.
+     * @param tables a List of tables
+     */
+    @Override
+    public void generateDiagram(List<Table> tables) {
+        IncrementalDiagram diagram = startDiagram();
+        for (Table table : tables) {
+            diagram.add(table);
+        }
+        diagram.complete();
+    }
+
+    /**
+     * Starts the JSON document, each table is written out as soon as it is added and the document is closed when it
+     * is completed.
+     * The .json file is written to a temporary file beside it and moved into place once the document is complete, so
+     * an export that fails or is abandoned part way never leaves a truncated file behind.
+     * @return {@link IncrementalDiagram}
+     */
+    @Override
+    public IncrementalDiagram startDiagram() {
+        Path file = outputStream == null ? Path.of(FilenameUtils.getName(filename + JSON_EXT)) : null;
+        Path temp = file == null ? null : createTemp(file);
+        JsonGenerator generator = open(temp);
+        return new IncrementalDiagram() {
+            @Override
+            public void add(Table table) {
+                try {
+                    writeTable(generator, table);
+                } catch (IOException e) {
+                    abandon();
+                    throw new RuntimeException("Unable to write table " + table.getName() + " as JSON", e);
+                } catch (RuntimeException e) {
+                    abandon();
+                    throw e;
+                }
+            }
+
+            @Override
+            public void complete() {
+                try {
+                    generator.writeEndArray();
+                    generator.writeEndObject();
+                    generator.close();
+                    if (temp != null) {
+                        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    }
+                } catch (IOException e) {
+                    abandon();
+                    throw new RuntimeException("Unable to complete the JSON export", e);
+                }
+            }
+
+            @Override
+            public void abandon() {
+                close(generator, temp);
+            }
+        };
+    }
+
+    private static Path createTemp(Path file) {
+        try {
+            return Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), TEMP_EXT);
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to start the JSON export " + file, e);
+        }
+    }
+
+    private JsonGenerator open(Path temp) {
+        JsonGenerator generator = null;
+        try {
+            if (temp == null) {
+                generator = FACTORY.createGenerator(outputStream, JsonEncoding.UTF8)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            } else {
+                generator = FACTORY.createGenerator(Files.newOutputStream(temp), JsonEncoding.UTF8);
+            }
+            // An abandoned export is left unterminated rather than closed as if it were complete
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+            generator.writeStartObject();
+            generator.writeArrayFieldStart(TABLES);
+            return generator;
+        } catch (IOException e) {
+            close(generator, temp);
+            throw new RuntimeException("Unable to start the JSON export " + Optional.ofNullable(filename).orElse(""),
+                e);
+        }
+    }
+
+    /**
+     * Closes the generator and removes the temporary file of an export that will not be completed.
+     */
+    private static void close(JsonGenerator generator, Path temp) {
+        try {
+            if (generator != null) {
+                generator.close();
+            }
+        } catch (IOException e) {
+            // the export is being discarded
+        }
+        try {
+            if (temp != null) {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            // a temporary file that cannot be removed is left behind
+        }
+    }
+
+    private static void writeTable(JsonGenerator generator, Table table) throws IOException {
+        generator.writeStartObject();
+        writeString(generator, NAME, table.getName());
+        generator.writeArrayFieldStart(COLUMNS);
+        for (Column column : Optional.ofNullable(table.getColumns()).orElse(List.of())) {
+            generator.writeStartObject();
+            writeString(generator, NAME, column.getName());
+            writeString(generator, TYPE, column.getType());
+            writeString(generator, SCALE, column.getScale());
+            writeString(generator, DEFAULT_VALUE, column.getDefaultValue());
+            generator.writeBooleanField(NOT_NULL, column.isNotNull());
+            generator.writeBooleanField(NOT_DEFAULT, column.isNotDefault());
+            generator.writeBooleanField(PRIMARY, column.isPrimary());
+            generator.writeBooleanField(FOREIGN, column.isForeign());
+            generator.writeBooleanField(AUTO_INCREMENT, column.isAutoIncrement());
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+        generator.writeArrayFieldStart(FOREIGN_KEYS);
+        for (ForeignKey foreignKey : Optional.ofNullable(table.getForeignKeys()).orElse(List.of())) {
+            generator.writeStartObject();
+            writeString(generator, FOREIGN_KEY_NAME, foreignKey.getForeignKeyName());
+            writeString(generator, SOURCE_TABLE, foreignKey.getSourceTable());
+            writeString(generator, SOURCE_COLUMN, foreignKey.getSourceColumn());
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+        generator.writeArrayFieldStart(PRIMARY_KEYS);
+        for (PrimaryKey primaryKey : Optional.ofNullable(table.getPrimaryKeys()).orElse(List.of())) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart(KEY_NAME);
+            for (String keyName : primaryKey.getKeyName()) {
+                generator.writeString(keyName);
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+    private static void writeString(JsonGenerator generator, String field, String value) throws IOException {
+        if (value != null) {
+            generator.writeStringField(field, value);
+        }
+    }
+}
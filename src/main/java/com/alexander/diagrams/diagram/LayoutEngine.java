@@ -0,0 +1,29 @@
+package com.alexander.diagrams.diagram;
+
+/**
+ * The engine PlantUML lays out the diagram with.
+ * GRAPHVIZ runs the Graphviz dot executable for each render, it has to be installed.
+ * SMETANA uses PlantUML's Java port of the dot layout, it runs on the rendering thread without an external process or
+ * Graphviz installed, but the layout can differ from dot's on larger diagrams.
+ */
+public enum LayoutEngine {
+
+    GRAPHVIZ {
+        @Override
+        String getPragma() {
+            return null;
+        }
+    }, SMETANA {
+        @Override
+        String getPragma() {
+            return "!pragma layout smetana";
+        }
+    };
+
+    /**
+     * The pragma line that selects the engine in the diagram source.
+     * @return the pragma, or null when no pragma is needed
+     */
+    abstract String getPragma();
+
+}
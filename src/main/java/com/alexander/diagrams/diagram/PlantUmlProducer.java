@@ -2,40 +2,45 @@ package com.alexander.diagrams.diagram;
 
 import com.alexander.diagrams.model.Column;
 import com.alexander.diagrams.model.ForeignKey;
+import com.alexander.diagrams.model.Schema;
 import com.alexander.diagrams.model.Table;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
-import java.io.BufferedWriter;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.LinkedList;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
-import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.Set;
 import lombok.Builder;
 import net.sourceforge.plantuml.FileFormatOption;
 import net.sourceforge.plantuml.SourceStringReader;
-import org.apache.commons.io.Charsets;
+import net.sourceforge.plantuml.cucadiagram.dot.GraphvizUtils;
 import org.apache.commons.io.FilenameUtils;
 
 import static java.util.Objects.nonNull;
-import static java.util.stream.Collectors.joining;
 
 @Builder
-@SuppressFBWarnings(value = {"WEAK_FILENAMEUTILS", "PATH_TRAVERSAL_OUT", "UPM_UNCALLED_PRIVATE_METHOD"},
+@SuppressFBWarnings(
+    value = {"WEAK_FILENAMEUTILS", "PATH_TRAVERSAL_OUT", "UPM_UNCALLED_PRIVATE_METHOD", "EI_EXPOSE_REP2"},
     justification = "WEAK_FILENAMEUTILS: Null byte injection is fixed in Java 7u40 and higher https://bugs.java.com/bugdatabase/view_bug.do?bug_id=8014846. "
         + "PATH_TRAVERSAL_OUT FilenameUtils.getName() strips out the path from the filename preventing path traversal,"
         + " the file will be written to a location relative to the running code."
-        + "UPM_UNCALLED_PRIVATE_METHOD: Lombok default reflective calls.")
+        + "UPM_UNCALLED_PRIVATE_METHOD: Lombok default reflective calls. "
+        + "EI_EXPOSE_REP2: the render cache is shared between producers on purpose, the output formats are copied "
+        + "before they are used.")
 /*
  * Class to create a PlantUML diagram.
  * @param title The diagram title
  * @param filename The name of the output file, location relative to executing code
+ * @param outputFileFormat the format of the image, PNG by default
+ * @param outputFileFormats (optional) the formats to render the image in, each from the same diagram source,
+ *                          overrides outputFileFormat when not empty
  * @param showOrphanForeignKeys toggles whether or not to show foreign key relationships that don't have a table
  *                              known to the producer, these orphan relationships will often point to an empty
  *                              table.
@@ -43,6 +48,10 @@ import static java.util.stream.Collectors.joining;
  *                          4096x4096 (16,777,216) pixels.
  * @param generatePlantUmlFile boolean, defaults to false. Indicates if a plantuml file should be generated
  * using the filename parameter
+ * @param layoutEngine the engine to lay out the diagram with, GRAPHVIZ by default runs the dot executable, SMETANA
+ *                     lays it out in the JVM without Graphviz installed
+ * @param renderCache (optional) a {@link RenderCache} to copy the image from when the diagram source, format and limit
+ *                    size have been rendered before, instead of rendering it again
 */
 public class PlantUmlProducer implements DiagramProducer {
 
@@ -50,179 +59,402 @@ public class PlantUmlProducer implements DiagramProducer {
     private final String filename;
     @Builder.Default
     private final OutputFileFormat outputFileFormat = OutputFileFormat.PNG;
+    private final Set<OutputFileFormat> outputFileFormats;
     @Builder.Default
     private final boolean showOrphanForeignKeys = false;
     @Builder.Default
     private final int plantUmlLimitSize = 4096;
     @Builder.Default
     private final boolean generatePlantUmlFile = false;
+    @Builder.Default
+    private final LayoutEngine layoutEngine = LayoutEngine.GRAPHVIZ;
+    private final RenderCache renderCache;
 
     /** File extension strings. */
     private static final String PLANTUML_EXT = ".puml";
     private static final String PNG_EXT = ".png";
     private static final String SVG_EXT = ".svg";
+    private static final String TEMP_EXT = ".tmp";
     /** Diagram related values. */
-    private static final String PLANTUML_LIMIT_SIZE_KEY = "PLANTUML_LIMIT_SIZE";
     private static final String START = "@startuml";
     private static final String END = "@enduml";
-    private static final String TITLE = "Title: %s";
+    private static final String TITLE = "Title: ";
 
     /**
      * Creates a diagram based on the constructor args from the input table data.
      * @param tables a List of tables
      */
     public void generateDiagram(List<Table> tables) {
-        StringBuilder diagramSource = new StringBuilder();
-        diagramSource.append(START).append(NEWLINE);
-        diagramSource.append(String.format(TITLE, title)).append(NEWLINE);
-        for (Table table : tables) {
-            diagramSource.append(tableFunction(table));
+        generateDiagram(Schema.of(tables));
+    }
+
+    /**
+     * Creates a diagram of a schema, its relationships are resolved with the schema's table index.
+     * @param schema the tables and their indexes
+     */
+    @Override
+    public void generateDiagram(Schema schema) {
+        PlantUmlWriter diagramSource = startSource();
+        try {
+            for (Table table : schema.getTables()) {
+                appendTable(diagramSource, table);
+            }
+        } catch (IOException | RuntimeException e) {
+            diagramSource.abandon();
+            throw writeFailure(e);
         }
+        completeSource(diagramSource, schema);
+    }
 
-        Map<String, Table> tableMap = toMap(tables);
-        diagramSource.append(
-            tables.stream().map(table -> buildForeignKeys(table, tableMap))
-                .filter(string -> !string.trim().isEmpty())
-                .collect(joining("", "", NEWLINE))
-        );
-        diagramSource.append(END).append(NEWLINE);
+    /**
+     * Starts a diagram that renders the class of each table as soon as it is added, writing it straight out to the
+     * .puml file. Only the name and foreign keys of each table are kept until the diagram is completed, to draw the
+     * relationships between them.
+     * @return {@link IncrementalDiagram}
+     */
+    @Override
+    public IncrementalDiagram startDiagram() {
+        PlantUmlWriter diagramSource = startSource();
+        List<Table> relationships = new ArrayList<>();
+        Set<String> names = new HashSet<>();
+        return new IncrementalDiagram() {
+            @Override
+            public void add(Table table) {
+                if (!names.add(table.getName())) {
+                    throw new IllegalStateException("Duplicate table " + table.getName());
+                }
+                try {
+                    appendTable(diagramSource, table);
+                } catch (IOException e) {
+                    throw writeFailure(e);
+                }
+                relationships.add(Table.builder()
+                    .name(table.getName())
+                    .foreignKeys(table.getForeignKeys())
+                    .build());
+            }
+
+            @Override
+            public void complete() {
+                completeSource(diagramSource, Schema.of(relationships));
+            }
+
+            @Override
+            public void abandon() {
+                diagramSource.abandon();
+            }
+        };
+    }
+
+    /**
+     * Opens the .puml file, or standard out when no file is generated, and writes the start of the diagram and the
+     * layout engine pragma to it.
+     */
+    private PlantUmlWriter startSource() {
+        PlantUmlWriter diagramSource = openPlantUml();
+        try {
+            diagramSource.append(START).append(NEWLINE);
+            if (layoutEngine.getPragma() != null) {
+                diagramSource.append(layoutEngine.getPragma()).append(NEWLINE);
+            }
+            diagramSource.append(TITLE).append(title).append(NEWLINE);
+        } catch (IOException e) {
+            diagramSource.abandon();
+            throw writeFailure(e);
+        }
+        return diagramSource;
+    }
 
-        generatePlantUml(diagramSource);
+    private void completeSource(PlantUmlWriter diagramSource, Schema schema) {
+        CharSequence source;
+        try {
+            for (Table table : schema.getTables()) {
+                appendRelationships(diagramSource, table, schema);
+            }
+            diagramSource.append(NEWLINE);
+            diagramSource.append(END).append(NEWLINE);
+            source = diagramSource.finish();
+        } catch (IOException | RuntimeException e) {
+            diagramSource.abandon();
+            throw writeFailure(e);
+        }
 
-        System.setProperty(PLANTUML_LIMIT_SIZE_KEY, "" + plantUmlLimitSize);
+        generateDiagramFile(source);
+    }
 
-        generateDiagramFile(diagramSource);
+    private PlantUmlWriter openPlantUml() {
+        if (!generatePlantUmlFile) {
+            return PlantUmlWriter.toStandardOut();
+        }
+        Optional.ofNullable(filename)
+            .orElseThrow(() ->
+                new RuntimeException("A filename is required to generate a " + PLANTUML_EXT + " file."));
+        try {
+            return PlantUmlWriter.toFile(Path.of(filename + PLANTUML_EXT));
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to create plantuml file for filename: " + filename, e);
+        }
     }
 
-    Map<String, Table> toMap(List<Table> tables) {
-        return tables.stream().collect(Collectors.toMap(Table::getName, Function.identity()));
+    private RuntimeException writeFailure(Exception e) {
+        if (e instanceof RuntimeException) {
+            return (RuntimeException) e;
+        }
+        return new RuntimeException("Unable to create plantuml file for filename: " + filename, e);
     }
 
     private static final String NEWLINE = "\n";
-    private static final String TAB = "\t";
-    private static final String SPACE = " ";
+    private static final char NEWLINE_CHAR = '\n';
+    private static final char TAB = '\t';
+    private static final char SPACE = ' ';
     private static final String FIELD = "{field}";
     private static final String RIGHT_BRACE = "}";
     protected static final String COLOUR = "#FFAAAA";
-    private static final String TABLE = "class %s << (T," + COLOUR + ") >> {";
+    private static final String TABLE_START = "class ";
+    private static final String TABLE_END = " << (T," + COLOUR + ") >> {";
     private static final String FOREIGN_KEY = "<<FK>>";
     private static final String PRIMARY_KEY = "<<PK>>";
+    private static final String BOLD_START = "<b>";
+    private static final String BOLD_END = "</b>";
+    private static final String COLUMN_SEPARATOR = "::";
+    private static final String RELATIONSHIP = " -- ";
 
     protected String tableFunction(Table table) {
-        StringBuilder builder = new StringBuilder();
-        builder.append(String.format(TABLE, table.getName())).append(NEWLINE);
-        builder.append(buildColumns(table));
-        builder.append(RIGHT_BRACE).append(NEWLINE);
-        return builder.toString();
+        return toText(out -> appendTable(out, table));
+    }
+
+    /**
+     * Writes the class of a table with one field per column.
+     * @param out where to write the class
+     * @param table the table
+     * @throws IOException if the class cannot be written
+     */
+    protected void appendTable(Appendable out, Table table) throws IOException {
+        out.append(TABLE_START).append(table.getName()).append(TABLE_END).append(NEWLINE_CHAR);
+        appendColumns(out, table);
+        out.append(RIGHT_BRACE).append(NEWLINE_CHAR);
     }
 
     protected String buildColumns(Table table) {
-        return Optional.ofNullable(table.getColumns())
-                .orElseGet(() -> new LinkedList<>())
-                .stream()
-                .filter(column -> nonNull(column))
-                .map(this::buildColumn)
-                .collect(joining(NEWLINE, "", NEWLINE));
+        return toText(out -> appendColumns(out, table));
+    }
+
+    /**
+     * Writes a field for each column followed by a newline, or a single newline when there are no columns.
+     * @param out where to write the fields
+     * @param table the table
+     * @throws IOException if the fields cannot be written
+     */
+    protected void appendColumns(Appendable out, Table table) throws IOException {
+        boolean written = false;
+        for (Column column : Optional.ofNullable(table.getColumns()).orElse(List.of())) {
+            if (nonNull(column)) {
+                appendColumn(out, column);
+                out.append(NEWLINE_CHAR);
+                written = true;
+            }
+        }
+        if (!written) {
+            out.append(NEWLINE_CHAR);
+        }
     }
 
     protected String buildColumn(Column column) {
-        StringBuilder builder = new StringBuilder();
+        return toText(out -> appendColumn(out, column));
+    }
 
-        builder.append(TAB)
+    /**
+     * Writes the field of a column, e.g. {field} &lt;b&gt;id&lt;/b&gt; int(11) &lt;&lt;PK&gt;&gt;.
+     * @param out where to write the field
+     * @param column the column
+     * @throws IOException if the field cannot be written
+     */
+    protected void appendColumn(Appendable out, Column column) throws IOException {
+        out.append(TAB)
             .append(FIELD)
-            .append(set(bold(column.getName())))
-            .append(setType(column));
+            .append(SPACE).append(BOLD_START).append(column.getName()).append(BOLD_END);
+        appendType(out, column);
 
         if (column.isForeign()) {
-            builder.append(set(FOREIGN_KEY));
+            out.append(SPACE).append(FOREIGN_KEY);
         }
 
         if (column.isPrimary()) {
-            builder.append(set(PRIMARY_KEY));
+            out.append(SPACE).append(PRIMARY_KEY);
         }
-        return builder.toString();
     }
 
-    String set(String value) {
-        if (value == null) {
-            return "";
-        } else {
-            return SPACE + value;
+    String setType(Column column) {
+        return toText(out -> appendType(out, column));
+    }
+
+    private static void appendType(Appendable out, Column column) throws IOException {
+        if (column.getType() != null) {
+            out.append(SPACE).append(column.getType());
+            if (column.getScale() != null) {
+                out.append('(').append(column.getScale()).append(')');
+            }
         }
     }
 
-    String bold(String value) {
-        return "<b>" + value + "</b>";
+    protected String buildForeignKeys(Table table, Schema schema) {
+        return toText(out -> appendForeignKeys(out, table, schema));
     }
 
-    String setType(Column column) {
-        if (column.getType() != null) {
-            if (column.getScale() == null) {
-                return SPACE + column.getType();
-            } else {
-                return SPACE + column.getType() + "(" + column.getScale() + ")";
-            }
-        } else {
-            return "";
+    /**
+     * Writes a relationship line for each foreign key to a table in the schema, or to any table when orphan foreign
+     * keys are shown, followed by a newline; or a single newline when there are none.
+     * @param out where to write the relationships
+     * @param table the table declaring the foreign keys
+     * @param schema the schema the source tables are looked up in
+     * @throws IOException if the relationships cannot be written
+     */
+    protected void appendForeignKeys(Appendable out, Table table, Schema schema) throws IOException {
+        if (!appendRelationships(out, table, schema)) {
+            out.append(NEWLINE_CHAR);
         }
     }
 
-    protected String buildForeignKeys(Table table, Map<String, Table> tableMap) {
-        return Optional.ofNullable(table.getForeignKeys())
-                .orElseGet(() -> new LinkedList<>())
-                .stream()
-                .filter(foreignKey -> nonNull(foreignKey))
-                .filter(foreignKey -> nonNull(tableMap.get(foreignKey.getSourceTable())) || showOrphanForeignKeys)
-                .map(fk -> buildForeignKey(fk, table))
-                .collect(joining(NEWLINE, "", NEWLINE));
+    /**
+     * Writes a relationship line, followed by a newline, for each foreign key of a table that is shown.
+     * @return whether any relationship was written
+     */
+    private boolean appendRelationships(Appendable out, Table table, Schema schema) throws IOException {
+        boolean written = false;
+        for (ForeignKey foreignKey : Optional.ofNullable(table.getForeignKeys()).orElse(List.of())) {
+            if (nonNull(foreignKey) && (schema.hasTable(foreignKey.getSourceTable()) || showOrphanForeignKeys)) {
+                appendForeignKey(out, foreignKey, table);
+                out.append(NEWLINE_CHAR);
+                written = true;
+            }
+        }
+        return written;
     }
 
     protected String buildForeignKey(ForeignKey foreignKey, Table table) {
-        StringBuilder builder = new StringBuilder();
-        builder.append(table.getName() + "::" + foreignKey.getForeignKeyName()
-            + " -- " + foreignKey.getSourceTable() + "::" + foreignKey.getSourceColumn());
-        return builder.toString();
+        return toText(out -> appendForeignKey(out, foreignKey, table));
+    }
+
+    /**
+     * Writes the relationship of a foreign key, e.g. products::owner_id -- people::id.
+     * @param out where to write the relationship
+     * @param foreignKey the foreign key
+     * @param table the table declaring the foreign key
+     * @throws IOException if the relationship cannot be written
+     */
+    protected void appendForeignKey(Appendable out, ForeignKey foreignKey, Table table) throws IOException {
+        out.append(table.getName()).append(COLUMN_SEPARATOR).append(foreignKey.getForeignKeyName())
+            .append(RELATIONSHIP)
+            .append(foreignKey.getSourceTable()).append(COLUMN_SEPARATOR).append(foreignKey.getSourceColumn());
+    }
+
+    /**
+     * Writes a complete diagram source to the .puml file when generatePlantUmlFile is set, otherwise to standard out.
+     * @param diagramSource the diagram source
+     */
+    protected void generatePlantUml(CharSequence diagramSource) {
+        PlantUmlWriter writer = openPlantUml();
+        try {
+            writer.append(diagramSource);
+            writer.finish();
+        } catch (IOException e) {
+            writer.abandon();
+            throw writeFailure(e);
+        }
+    }
+
+    /**
+     * Renders the diagram source into an image for each output format. The source is parsed once and every format
+     * is drawn from the same parsed diagram, one after another as a parsed diagram is not safe to draw from several
+     * threads at once. Formats found in the render cache are copied and the source is not parsed at all when every
+     * format is a hit.
+     * The plantUmlLimitSize is set for the rendering thread alone rather than as the PLANTUML_LIMIT_SIZE system
+     * property, so producers with different limits can render at the same time.
+     * @param diagramSource the diagram source
+     */
+    protected void generateDiagramFile(CharSequence diagramSource) {
+        GraphvizUtils.setLocalImageLimit(plantUmlLimitSize);
+        try {
+            renderDiagramFiles(diagramSource);
+        } finally {
+            GraphvizUtils.removeLocalLimitSize();
+        }
     }
 
-    protected void generatePlantUml(StringBuilder diagramSource) {
-        if (generatePlantUmlFile) {
+    private void renderDiagramFiles(CharSequence diagramSource) {
+        SourceStringReader reader = null;
+        for (OutputFileFormat format : outputFileFormats()) {
+            String suffix = format.getPlantUmlFormat().getFileSuffix();
             Optional.ofNullable(filename)
                 .orElseThrow(() ->
-                    new RuntimeException("A filename is required to generate a " + PLANTUML_EXT + " file."));
-            try {
-                Path file = Path.of(filename + PLANTUML_EXT);
-                BufferedWriter writer = Files
-                    .newBufferedWriter(file, Charsets.toCharset("UTF-8"));
-                try {
-                    writer.write(diagramSource.toString());
-                } finally {
-                    writer.close();
+                    new RuntimeException("A filename is required to generate a " + suffix + " file."));
+
+            Path outputFile = Paths.get(FilenameUtils.getName(filename + suffix));
+            String key = null;
+            if (renderCache != null) {
+                key = renderCache.key(diagramSource, format, plantUmlLimitSize);
+                if (renderCache.copyTo(key, outputFile)) {
+                    continue;
                 }
+            }
+
+            if (reader == null) {
+                reader = new SourceStringReader(diagramSource.toString());
+            }
+            try {
+                renderDiagramFile(reader, format, outputFile);
             } catch (IOException e) {
-                throw new RuntimeException("Unable to create plantuml file for filename: " + filename, e);
+                e.printStackTrace();
+                continue;
+            }
+            if (renderCache != null) {
+                renderCache.store(key, outputFile);
             }
-        } else {
-            System.out.println(diagramSource.toString());
         }
     }
 
-    protected void generateDiagramFile(StringBuilder diagramSource) {
-        generateDiagramFile(diagramSource, outputFileFormat);
+    private Set<OutputFileFormat> outputFileFormats() {
+        if (outputFileFormats == null || outputFileFormats.isEmpty()) {
+            return EnumSet.of(outputFileFormat);
+        }
+        return EnumSet.copyOf(outputFileFormats);
     }
 
-    private void generateDiagramFile(StringBuilder diagramSource, OutputFileFormat format) {
-        String suffix = format.getPlantUmlFormat().getFileSuffix();
-        Optional.ofNullable(filename)
-            .orElseThrow(() ->
-                new RuntimeException("A filename is required to generate a " + suffix + " file."));
-
-        SourceStringReader reader = new SourceStringReader(diagramSource.toString());
-        String outputFile = FilenameUtils.getName(filename + suffix);
+    /**
+     * Renders the image to a temporary file beside the output file and moves it into place, so a render that fails
+     * part way never leaves a truncated image behind.
+     */
+    private static void renderDiagramFile(SourceStringReader reader, OutputFileFormat format, Path outputFile)
+        throws IOException {
+        Path temp = Files.createTempFile(outputFile.toAbsolutePath().getParent(), outputFile.getFileName().toString(),
+            TEMP_EXT);
+        try {
+            try (OutputStream os = Files.newOutputStream(temp)) {
+                reader.outputImage(os, new FileFormatOption(format.getPlantUmlFormat()));
+            }
+            Files.move(temp, outputFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
 
-        try (OutputStream os = new FileOutputStream(Paths.get(outputFile).toString())) {
-            reader.outputImage(os, new FileFormatOption(format.getPlantUmlFormat()));
+    /**
+     * Writes to a String, for the String returning forms of the emitting methods.
+     */
+    private static String toText(TextWriter writer) {
+        StringBuilder text = new StringBuilder();
+        try {
+            writer.write(text);
         } catch (IOException e) {
-            e.printStackTrace();
+            throw new IllegalStateException("A StringBuilder does not throw IOException", e);
         }
+        return text.toString();
+    }
+
+    /**
+     * Writes text to an {@link Appendable}.
+     */
+    private interface TextWriter {
+        void write(Appendable out) throws IOException;
     }
 }
@@ -0,0 +1,128 @@
+package com.alexander.diagrams.diagram;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Collects the PlantUML source of a diagram for rendering while writing it out as it is appended, so the .puml file
+ * is written in the same pass that builds the source rather than from a copy of it afterwards.
+ * The .puml file is written to a temporary file beside it and moved into place once the source is finished, so a
+ * diagram that fails part way never leaves a truncated file behind.
+ * It is not thread safe.
+ */
+@SuppressFBWarnings(value = "PATH_TRAVERSAL_IN", justification = "The .puml file is named by the producer's caller.")
+final class PlantUmlWriter implements Appendable {
+
+    private static final String TEMP_EXT = ".tmp";
+    private static final char NEWLINE = '\n';
+
+    private final StringBuilder source = new StringBuilder();
+    private final Writer out;
+    private final Path file;
+    private final Path temp;
+
+    private PlantUmlWriter(Writer out, Path file, Path temp) {
+        this.out = out;
+        this.file = file;
+        this.temp = temp;
+    }
+
+    /**
+     * Starts a source that is also written to a file.
+     * @param file the .puml file to write
+     * @return {@link PlantUmlWriter}
+     * @throws IOException if the temporary file cannot be created
+     */
+    static PlantUmlWriter toFile(Path file) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(directory, file.getFileName().toString(), TEMP_EXT);
+        try {
+            return new PlantUmlWriter(Files.newBufferedWriter(temp, StandardCharsets.UTF_8), file, temp);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    /**
+     * Starts a source that is also printed to standard out, standard out is flushed but never closed.
+     * The printed source is followed by a blank line to separate it from any later output, the line is not part of
+     * the source.
+     * @return {@link PlantUmlWriter}
+     */
+    static PlantUmlWriter toStandardOut() {
+        return new PlantUmlWriter(new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8)),
+            null, null);
+    }
+
+    @Override
+    public PlantUmlWriter append(CharSequence text) throws IOException {
+        source.append(text);
+        out.append(text);
+        return this;
+    }
+
+    @Override
+    public PlantUmlWriter append(CharSequence text, int start, int end) throws IOException {
+        source.append(text, start, end);
+        out.append(text, start, end);
+        return this;
+    }
+
+    @Override
+    public PlantUmlWriter append(char c) throws IOException {
+        source.append(c);
+        out.append(c);
+        return this;
+    }
+
+    /**
+     * Finishes writing the source out, moving the .puml file into place.
+     * @return the whole source for rendering
+     * @throws IOException if the source cannot be written out
+     */
+    CharSequence finish() throws IOException {
+        if (file == null) {
+            out.append(NEWLINE);
+            out.flush();
+            return source;
+        }
+        try {
+            out.close();
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            abandon();
+            throw e;
+        }
+        return source;
+    }
+
+    /**
+     * Stops writing the source out without finishing it, removing the temporary .puml file.
+     */
+    void abandon() {
+        try {
+            if (file == null) {
+                out.flush();
+            } else {
+                out.close();
+            }
+        } catch (IOException e) {
+            // the source is being discarded
+        }
+        if (temp != null) {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException e) {
+                // left for the operating system to clean up
+            }
+        }
+    }
+}
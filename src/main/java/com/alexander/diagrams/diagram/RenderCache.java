@@ -0,0 +1,129 @@
+package com.alexander.diagrams.diagram;
+
+import com.alexander.diagrams.cache.DiskCache;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.Builder;
+import net.sourceforge.plantuml.version.Version;
+
+/**
+ * An on disk cache of the images rendered by the {@link PlantUmlProducer}, so a diagram whose source has not changed
+ * since the last run is copied from the cache instead of being laid out and drawn by PlantUML again.
+ * Each image is stored in a file named by the SHA-256 hash of the PlantUML version, the output format, the limit size
+ * and the diagram source, so a change to any of them is a miss rather than a stale hit.
+ * The entries are kept in a {@link DiskCache}, so the directory can be shared by several processes and is bounded to
+ * maxEntries.
+ */
+public class RenderCache {
+
+    private static final String ENTRY_EXT = ".render";
+    private static final int DEFAULT_MAX_ENTRIES = 1_000;
+    private static final int DIGEST_BUFFER_SIZE = 8192;
+
+    private final DiskCache cache;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Creates a cache of rendered diagrams.
+     * @param cacheDirectory the directory to keep the rendered images in, created if it does not exist
+     * @param maxEntries (optional) the number of images to keep before evicting the least recently used, defaults to
+     *                   1,000
+     */
+    @Builder
+    public RenderCache(String cacheDirectory, Integer maxEntries) {
+        this.cache = new DiskCache(Optional.ofNullable(cacheDirectory).orElseThrow(
+            () -> new IllegalArgumentException("The provided cache directory is null")), ENTRY_EXT,
+            Optional.ofNullable(maxEntries).orElse(DEFAULT_MAX_ENTRIES));
+    }
+
+    /**
+     * Copies the cached image for a key to the output file, replacing it.
+     * @param key the key of the rendered diagram, see {@link #key(CharSequence, OutputFileFormat, int)}
+     * @param output the image file to write
+     * @return true if the image was cached and copied, false on a miss
+     */
+    public boolean copyTo(String key, Path output) {
+        if (cache.copyTo(key, output)) {
+            hits.incrementAndGet();
+            return true;
+        }
+        misses.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Stores a rendered image under its key, an image already stored by another process is replaced with the same
+     * image.
+     * @param key the key of the rendered diagram, see {@link #key(CharSequence, OutputFileFormat, int)}
+     * @param rendered the image file PlantUML rendered
+     */
+    public void store(String key, Path rendered) {
+        cache.store(key, output -> Files.copy(rendered, output));
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Removes the least recently used entries until at most maxEntries remain, along with any temporary files left
+     * behind by a process that stopped part way through a write.
+     */
+    public void evict() {
+        cache.evict();
+    }
+
+    /**
+     * Hashes everything that decides the rendered image. The source is encoded a buffer at a time so that a large
+     * diagram is not copied into a String or a byte array just to be hashed.
+     * @param diagramSource the PlantUML source of the diagram
+     * @param format the output format of the image
+     * @param limitSize the PLANTUML_LIMIT_SIZE the image is rendered with
+     * @return the hex encoded SHA-256 hash
+     */
+    public String key(CharSequence diagramSource, OutputFileFormat format, int limitSize) {
+        MessageDigest digest = DiskCache.digest();
+        digest.update(Version.versionString().getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(format.name().getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(Integer.toString(limitSize).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+
+        CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        CharBuffer chars = CharBuffer.wrap(diagramSource);
+        ByteBuffer bytes = ByteBuffer.allocate(DIGEST_BUFFER_SIZE);
+        CoderResult result;
+        do {
+            result = encoder.encode(chars, bytes, true);
+            update(digest, bytes);
+        } while (result.isOverflow());
+        do {
+            result = encoder.flush(bytes);
+            update(digest, bytes);
+        } while (result.isOverflow());
+        return DiskCache.key(digest);
+    }
+
+    private static void update(MessageDigest digest, ByteBuffer bytes) {
+        bytes.flip();
+        digest.update(bytes);
+        bytes.clear();
+    }
+}
@@ -2,25 +2,32 @@ package com.alexander.diagrams.generator;
 
 import com.alexander.diagrams.db.DatabaseSyntaxParser;
 import com.alexander.diagrams.diagram.DiagramProducer;
-import com.alexander.diagrams.model.Column;
-import com.alexander.diagrams.model.ForeignKey;
-import com.alexander.diagrams.model.PrimaryKey;
+import com.alexander.diagrams.model.Schema;
 import com.alexander.diagrams.model.Table;
 import com.alexander.diagrams.source.Source;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.regex.Pattern;
 import lombok.Builder;
 
 import static java.util.stream.Collectors.toList;
 
-@Builder
 public class DatabaseEntityRelationshipGenerator implements Generator {
 
+    private static final Pattern CREATE_TABLE_PATTERN = Pattern.compile("CREATE\\s+(TEMPORARY\\s+)?TABLE",
+        Pattern.CASE_INSENSITIVE);
+
     private final DatabaseSyntaxParser parser;
     private final DiagramProducer producer;
     private final Source source;
+    private final Executor executor;
+    private final Integer queueDepth;
+    private volatile List<StageCounters> stageCounters = List.of();
 
     /**
      * Class responsible for converting database describe statements into objects and then into diagrams.
@@ -30,19 +37,46 @@ public class DatabaseEntityRelationshipGenerator implements Generator {
      */
     public DatabaseEntityRelationshipGenerator(DatabaseSyntaxParser parser,
                                                DiagramProducer producer,Source source) {
+        this(parser, producer, source, null, null);
+    }
+
+    /**
+     * Class responsible for converting database describe statements into objects and then into diagrams.
+     * @param parser The {@link DatabaseSyntaxParser} to parse the database information from the Source, it is shared by
+     *               every parse so must be thread safe when an executor is provided
+     * @param producer The {@link DiagramProducer} to convert the parsed database objects into a diagram
+     * @param source The {@link Source} of database information
+     * @param executor (optional) an {@link Executor}, e.g. a {@link java.util.concurrent.ForkJoinPool}, to parse each
+     *                 table on while the source is still being read, defaults to parsing on the calling thread
+     * @param queueDepth (optional) runs the source, parse and render stages concurrently, connected by queues holding
+     *                   at most this many statements or tables, defaults to running each stage to completion in turn
+     */
+    @Builder
+    public DatabaseEntityRelationshipGenerator(DatabaseSyntaxParser parser, DiagramProducer producer, Source source,
+                                               Executor executor, Integer queueDepth) {
+        if (queueDepth != null && queueDepth < 1) {
+            throw new IllegalArgumentException("The queue depth must be at least 1 but was " + queueDepth);
+        }
         this.parser = parser;
         this.producer = producer;
         this.source = source;
+        this.executor = executor;
+        this.queueDepth = queueDepth;
     }
 
     /**
      * Generate a diagram using the provided {@link Source}.
+     * The tables are passed to the producer in the order the source returned their statements, whether or not they
+     * were parsed in parallel.
      */
     public void generate() {
-        List<Optional<Table>> tables = new LinkedList<>();
-        while (source.hasNext()) {
-            tables.add(toTable(source.next()));
+        if (queueDepth != null) {
+            Pipeline pipeline = new Pipeline(source, this::toTable, executor, queueDepth);
+            stageCounters = pipeline.counters();
+            pipeline.run(producer.startDiagram());
+            return;
         }
+        List<Optional<Table>> tables = executor == null ? parse() : parseInParallel();
         toDiagram(tables.stream()
             .filter(table -> table.isPresent())
             .map(table -> table.get())
@@ -50,97 +84,69 @@ public class DatabaseEntityRelationshipGenerator implements Generator {
     }
 
     /**
-     * Convert a list of lines representing a database create statement into a Table object.
-      * @param lines The List of Strings to convert to a table.
-     * @return {@link Table}
+     * The counters of the source, parse and render stages of the last pipelined {@link #generate()}, they are updated
+     * while it runs.
+     * @return the {@link StageCounters} of each stage, empty unless a queueDepth was provided
      */
-    Optional<Table> toTable(List<String> lines) {
-        Optional<Table> table = lines
-                .stream()
-                .limit(1)
-                .map(s -> parser.toTable(s))
-                .filter(Objects::nonNull)
-                .findFirst();
-        table = addColumns(lines, table);
-        table = addForeignKey(lines, table);
-        table = addPrimaryKey(lines, table);
-        return table;
-    }
-
-    Optional<Table> addColumns(List<String> lines, Optional<Table> table) {
-        table.ifPresent(t -> t.setColumns(
-                lines.stream()
-                        .map(s -> parser.toColumn(s))
-                        .filter(Objects::nonNull)
-                        .collect(toList())
-        ));
-        return table;
-    }
-
-    Optional<Table> addForeignKey(List<String> lines, Optional<Table> table) {
-        List<ForeignKey> foreignKeys = lines.stream()
-            .map(s -> parser.toForeignKey(s))
-            .filter(Objects::nonNull)
-            .collect(toList());
-
-        table.ifPresent(t -> t.setForeignKeys(foreignKeys));
-
-        //Mark columns as foreign keys
-        List<String> names = foreignKeys.stream().map(key -> key.getForeignKeyName()).collect(toList());
-        List<Column> columns = table.orElse(Table.builder().build())
-            .getColumns().stream().map(column -> mapForeignKey(column, names)).collect(toList());
-        table.ifPresent(t -> t.setColumns(columns));
-        return table;
+    public List<StageCounters> getStageCounters() {
+        return stageCounters;
     }
 
-    private Column mapForeignKey(Column column, List<String> keyNames) {
-        boolean isForeign = keyNames.contains(column.getName());
-        return Column.builder()
-            .name(column.getName())
-            .scale(column.getScale())
-            .type(column.getType())
-            .autoIncrement(column.isAutoIncrement())
-            .notDefault(column.isNotDefault())
-            .defaultValue(column.getDefaultValue())
-            .primary(column.isPrimary())
-            .notNull(column.isNotNull())
-            .foreign(isForeign)
-            .build();
+    private List<Optional<Table>> parse() {
+        List<Optional<Table>> tables = new LinkedList<>();
+        while (source.hasNext()) {
+            tables.add(toTable(source.nextStatement()));
+        }
+        return tables;
     }
 
-    Optional<Table> addPrimaryKey(List<String> lines, Optional<Table> table) {
-        List<PrimaryKey> primaryKeys = lines.stream()
-            .map(s -> parser.toPrimaryKey(s))
-            .filter(Objects::nonNull)
-            .collect(toList());
-
-        table.ifPresent(t -> t.setPrimaryKeys(primaryKeys));
-
-        //Mark columns as primary keys
-        List<String> names = primaryKeys.stream().flatMap(key -> key.getKeyName().stream()).collect(toList());
-        List<Column> columns = table.orElse(Table.builder().build())
-            .getColumns().stream().map(column -> mapPrimaryKey(column, names)).collect(toList());
-        table.ifPresent(t -> t.setColumns(columns));
-        return table;
+    /**
+     * Reads the source on the calling thread and submits the parse of each statement to the executor as it is read,
+     * then collects the results in submission order so the diagram does not depend on which parse finished first.
+     * A failed parse is rethrown as is when it is a RuntimeException.
+     */
+    private List<Optional<Table>> parseInParallel() {
+        List<CompletableFuture<Optional<Table>>> parses = new ArrayList<>();
+        while (source.hasNext()) {
+            CharSequence statement = source.nextStatement();
+            parses.add(CompletableFuture.supplyAsync(() -> toTable(statement), executor));
+        }
+        List<Optional<Table>> tables = new ArrayList<>(parses.size());
+        for (CompletableFuture<Optional<Table>> parse : parses) {
+            try {
+                tables.add(parse.join());
+            } catch (CompletionException e) {
+                parses.forEach(pending -> pending.cancel(false));
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new RuntimeException("Unable to parse a create table statement", e.getCause());
+            }
+        }
+        return tables;
     }
 
-    private Column mapPrimaryKey(Column column, List<String> keyNames) {
-        boolean isPrimary = keyNames.contains(column.getName());
-        return Column.builder()
-            .name(column.getName())
-            .scale(column.getScale())
-            .type(column.getType())
-            .autoIncrement(column.isAutoIncrement())
-            .notDefault(column.isNotDefault())
-            .defaultValue(column.getDefaultValue())
-            .primary(isPrimary)
-            .notNull(column.isNotNull())
-            .foreign(column.isForeign())
-            .build();
+    /**
+     * Convert a create table statement into a Table object in a single pass of the parser.
+     * Statements that are not create table statements, such as the create view statements of a database source, are
+     * skipped; a create table statement the parser cannot read fails the diagram rather than leaving the table out.
+     * @param createStatement The create table statement to convert to a table.
+     * @return {@link Table}, or empty if the statement is not a create table statement
+     */
+    Optional<Table> toTable(CharSequence createStatement) {
+        if (createStatement == null) {
+            return Optional.empty();
+        }
+        Table table = parser.parseTable(createStatement);
+        if (table == null && CREATE_TABLE_PATTERN.matcher(createStatement).find()) {
+            throw new RuntimeException("Unable to parse create table statement: " + firstLine(createStatement));
+        }
+        return Optional.ofNullable(table);
     }
 
     /**
-     * Converts a parsed list of tables into a diagram using the provided {@link DiagramProducer}.
+     * Converts a parsed list of tables into a diagram using the provided {@link DiagramProducer}, indexing them as a
+     * {@link Schema} once.
      * @param tables a list of {@link Table}s to convert into a diagram
      * @throws Exception catch-all Exception handling
      */
@@ -148,9 +154,18 @@ public class DatabaseEntityRelationshipGenerator implements Generator {
         Optional.ofNullable(tables)
             .orElseThrow(() -> new RuntimeException("Unable to convert null Table list to a diagram"));
         if (tables.size() > 0) {
-            producer.generateDiagram(tables);
+            producer.generateDiagram(Schema.of(tables));
         } else {
             throw new RuntimeException("Unable to convert empty Table list to a diagram");
         }
     }
+
+    private static CharSequence firstLine(CharSequence statement) {
+        for (int index = 0; index < statement.length(); index++) {
+            if (statement.charAt(index) == '\n') {
+                return statement.subSequence(0, index);
+            }
+        }
+        return statement;
+    }
 }
@@ -0,0 +1,240 @@
+package com.alexander.diagrams.generator;
+
+import com.alexander.diagrams.diagram.IncrementalDiagram;
+import com.alexander.diagrams.model.Table;
+import com.alexander.diagrams.source.Source;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Runs the source, parse and render stages of a generator concurrently, connected by bounded queues.
+ * The source is read on one thread and the statements are parsed on another, or on an executor when one is given, while
+ * the calling thread renders the tables. A stage that gets ahead blocks on the full queue after it, so at most
+ * {@code depth} statements and {@code depth} tables are held between the stages whatever the size of the schema.
+ * The tables are rendered in the order the source returned their statements, parses on an executor are queued in
+ * submission order and rendered once complete.
+ */
+final class Pipeline {
+
+    private static final String SOURCE = "source";
+    private static final String PARSE = "parse";
+    private static final String RENDER = "render";
+    private static final Optional<CharSequence> NO_MORE_STATEMENTS = Optional.empty();
+    private static final CompletableFuture<Optional<Table>> NO_MORE_TABLES =
+        CompletableFuture.completedFuture(Optional.empty());
+
+    private final Source source;
+    private final Function<CharSequence, Optional<Table>> parser;
+    private final Executor executor;
+    private final BlockingQueue<Optional<CharSequence>> statements;
+    private final BlockingQueue<CompletableFuture<Optional<Table>>> tables;
+    private final StageCounters sourceCounters = new StageCounters(SOURCE);
+    private final StageCounters parseCounters = new StageCounters(PARSE);
+    private final StageCounters renderCounters = new StageCounters(RENDER);
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    Pipeline(Source source, Function<CharSequence, Optional<Table>> parser, Executor executor, int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("The pipeline queue depth must be at least 1 but was " + depth);
+        }
+        this.source = source;
+        this.parser = parser;
+        this.executor = executor;
+        this.statements = new ArrayBlockingQueue<>(depth);
+        this.tables = new ArrayBlockingQueue<>(depth);
+    }
+
+    /**
+     * The counters of each stage in pipeline order, they are updated while the pipeline runs.
+     * @return the source, parse and render {@link StageCounters}
+     */
+    List<StageCounters> counters() {
+        return List.of(sourceCounters, parseCounters, renderCounters);
+    }
+
+    /**
+     * Runs every stage until the source is exhausted, adding each table to the diagram on the calling thread, then
+     * completes the diagram.
+     * A failure in any stage stops the others, abandons the diagram and is rethrown here, as is when it is a
+     * RuntimeException or an Error. A stage always queues its end marker, even when it fails with an Error, so the
+     * stages after it never wait for a statement or table that will not come.
+     * @param diagram the {@link IncrementalDiagram} to render the tables into
+     */
+    void run(IncrementalDiagram diagram) {
+        Thread reader = stage(SOURCE, this::read);
+        Thread parse = stage(PARSE, this::parse);
+        reader.start();
+        parse.start();
+        int rendered;
+        try {
+            rendered = render(diagram);
+        } catch (RuntimeException | Error e) {
+            diagram.abandon();
+            throw e;
+        } finally {
+            reader.interrupt();
+            parse.interrupt();
+            join(reader);
+            join(parse);
+        }
+        if (rendered == 0) {
+            diagram.abandon();
+            throw new RuntimeException("Unable to convert empty Table list to a diagram");
+        }
+        long start = System.nanoTime();
+        diagram.complete();
+        renderCounters.busy(System.nanoTime() - start);
+    }
+
+    private Thread stage(String name, Runnable body) {
+        Thread thread = new Thread(body, "pipeline-" + name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private void read() {
+        try {
+            while (source.hasNext()) {
+                long start = System.nanoTime();
+                CharSequence statement = source.nextStatement();
+                long read = System.nanoTime();
+                sourceCounters.busy(read - start);
+                if (statement != null) {
+                    statements.put(Optional.of(statement));
+                    sourceCounters.item();
+                    sourceCounters.waited(System.nanoTime() - read);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Throwable e) {
+            failure.compareAndSet(null, e);
+        } finally {
+            end(statements, NO_MORE_STATEMENTS);
+        }
+    }
+
+    private void parse() {
+        try {
+            while (true) {
+                long start = System.nanoTime();
+                Optional<CharSequence> statement = statements.take();
+                long taken = System.nanoTime();
+                parseCounters.waited(taken - start);
+                if (statement.isEmpty()) {
+                    break;
+                }
+                CompletableFuture<Optional<Table>> table = executor == null ? parseNow(statement.get())
+                    : CompletableFuture.supplyAsync(() -> timedParse(statement.get()), executor);
+                long parsed = System.nanoTime();
+                tables.put(table);
+                parseCounters.waited(System.nanoTime() - parsed);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Throwable e) {
+            failure.compareAndSet(null, e);
+        } finally {
+            end(tables, NO_MORE_TABLES);
+        }
+    }
+
+    /**
+     * Queues the end marker of a stage, unless the stage was interrupted because the pipeline is already stopping.
+     */
+    private static <T> void end(BlockingQueue<T> queue, T endMarker) {
+        try {
+            queue.put(endMarker);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private CompletableFuture<Optional<Table>> parseNow(CharSequence statement) {
+        try {
+            return CompletableFuture.completedFuture(timedParse(statement));
+        } catch (Throwable e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private Optional<Table> timedParse(CharSequence statement) {
+        long start = System.nanoTime();
+        try {
+            return parser.apply(statement);
+        } finally {
+            parseCounters.busy(System.nanoTime() - start);
+            parseCounters.item();
+        }
+    }
+
+    private int render(IncrementalDiagram diagram) {
+        int rendered = 0;
+        while (true) {
+            long start = System.nanoTime();
+            CompletableFuture<Optional<Table>> next = take();
+            Optional<Table> table = join(next);
+            long taken = System.nanoTime();
+            renderCounters.waited(taken - start);
+            if (next == NO_MORE_TABLES) {
+                break;
+            }
+            if (table.isPresent()) {
+                diagram.add(table.get());
+                renderCounters.item();
+                rendered++;
+            }
+            renderCounters.busy(System.nanoTime() - taken);
+        }
+        if (failure.get() != null) {
+            throw rethrow(failure.get());
+        }
+        return rendered;
+    }
+
+    private CompletableFuture<Optional<Table>> take() {
+        try {
+            return tables.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a parsed table", e);
+        }
+    }
+
+    private static Optional<Table> join(CompletableFuture<Optional<Table>> table) {
+        try {
+            return table.join();
+        } catch (CompletionException e) {
+            throw rethrow(e.getCause());
+        }
+    }
+
+    private static void join(Thread stage) {
+        try {
+            stage.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Rethrows a stage failure as is when it is a RuntimeException or an Error.
+     * @return the failure wrapped in a RuntimeException when it is neither, for the caller to throw
+     */
+    private static RuntimeException rethrow(Throwable failure) {
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        if (failure instanceof RuntimeException) {
+            return (RuntimeException) failure;
+        }
+        return new RuntimeException("Unable to parse a create table statement", failure);
+    }
+}
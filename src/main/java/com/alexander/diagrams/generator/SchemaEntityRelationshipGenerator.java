@@ -0,0 +1,42 @@
+package com.alexander.diagrams.generator;
+
+import com.alexander.diagrams.db.SchemaLoader;
+import com.alexander.diagrams.diagram.DiagramProducer;
+import com.alexander.diagrams.model.Schema;
+import com.alexander.diagrams.model.Table;
+import java.util.List;
+import java.util.Optional;
+import lombok.Builder;
+
+/**
+ * Generates a diagram from a schema loaded straight into model objects by a {@link SchemaLoader}, there are no create
+ * table statements to parse.
+ */
+@Builder
+public class SchemaEntityRelationshipGenerator implements Generator {
+
+    private final SchemaLoader loader;
+    private final DiagramProducer producer;
+
+    /**
+     * Class responsible for loading a database schema and converting it into a diagram.
+     * @param loader The {@link SchemaLoader} to load the database tables from
+     * @param producer The {@link DiagramProducer} to convert the loaded database objects into a diagram
+     */
+    public SchemaEntityRelationshipGenerator(SchemaLoader loader, DiagramProducer producer) {
+        this.loader = loader;
+        this.producer = producer;
+    }
+
+    /**
+     * Generate a diagram using the provided {@link SchemaLoader}.
+     */
+    public void generate() {
+        List<Table> tables = Optional.ofNullable(loader.load())
+            .orElseThrow(() -> new RuntimeException("Unable to convert null Table list to a diagram"));
+        if (tables.isEmpty()) {
+            throw new RuntimeException("Unable to convert empty Table list to a diagram");
+        }
+        producer.generateDiagram(Schema.of(tables));
+    }
+}
@@ -0,0 +1,76 @@
+package com.alexander.diagrams.generator;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the work done by one stage of a pipelined generator, so the stage holding back the others can be found.
+ * The bottleneck is the stage that is busy most of the time, the stages either side of it spend theirs waiting on the
+ * queues to and from it.
+ */
+public final class StageCounters {
+
+    private final String name;
+    private final AtomicLong items = new AtomicLong();
+    private final AtomicLong busyNanos = new AtomicLong();
+    private final AtomicLong waitNanos = new AtomicLong();
+
+    StageCounters(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * The number of statements or tables the stage has handed on so far.
+     * @return the number of items
+     */
+    public long getItems() {
+        return items.get();
+    }
+
+    /**
+     * The time the stage has spent working on its items, summed over every thread it runs on.
+     * @return the busy time in nanoseconds
+     */
+    public long getBusyNanos() {
+        return busyNanos.get();
+    }
+
+    /**
+     * The time the stage has spent blocked on an empty queue before it or a full queue after it.
+     * @return the waiting time in nanoseconds
+     */
+    public long getWaitNanos() {
+        return waitNanos.get();
+    }
+
+    /**
+     * The rate the stage could keep up if it never had to wait.
+     * @return the items per second of busy time, or 0 before the stage has done any work
+     */
+    public double getThroughput() {
+        long busy = getBusyNanos();
+        return busy == 0 ? 0 : getItems() * (double) TimeUnit.SECONDS.toNanos(1) / busy;
+    }
+
+    void item() {
+        items.incrementAndGet();
+    }
+
+    void busy(long nanos) {
+        busyNanos.addAndGet(nanos);
+    }
+
+    void waited(long nanos) {
+        waitNanos.addAndGet(nanos);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d items, %.1f items/s, busy %dms, waiting %dms", name, getItems(), getThroughput(),
+            TimeUnit.NANOSECONDS.toMillis(getBusyNanos()), TimeUnit.NANOSECONDS.toMillis(getWaitNanos()));
+    }
+}
@@ -3,7 +3,7 @@ package com.alexander.diagrams.model;
 import lombok.Builder;
 import lombok.Getter;
 
-@Builder
+@Builder(toBuilder = true)
 @Getter
 public class Column {
 
@@ -0,0 +1,156 @@
+package com.alexander.diagrams.model;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * An immutable {@link Column} that packs the five column booleans into a single flags int, shares its
+ * {@link DataType} with every other column of the same type and holds the size parsed into a precision and scale,
+ * e.g. 10 and 2 for decimal(10,2).
+ * Sizes that are not numbers, such as the values of an enum, are kept as written in the arguments instead.
+ */
+@Getter
+public final class CompactColumn {
+
+    public static final int NOT_NULL = 1;
+    public static final int NOT_DEFAULT = 1 << 1;
+    public static final int PRIMARY = 1 << 2;
+    public static final int FOREIGN = 1 << 3;
+    public static final int AUTO_INCREMENT = 1 << 4;
+    /** The precision or scale of a column that has none. */
+    public static final int NO_SIZE = -1;
+
+    private final String name;
+    private final DataType type;
+    private final int precision;
+    private final int scale;
+    private final String arguments;
+    private final int flags;
+    private final String defaultValue;
+
+    /**
+     * Creates a compact column.
+     * @param name the column name
+     * @param type the data type
+     * @param precision (optional) the precision or length, e.g. 255 for varchar(255), defaults to {@link #NO_SIZE}
+     * @param scale (optional) the number of decimal places, e.g. 2 for decimal(10,2), defaults to {@link #NO_SIZE}
+     * @param arguments (optional) the type arguments as written when they are not a precision and scale
+     * @param flags the {@link #NOT_NULL}, {@link #NOT_DEFAULT}, {@link #PRIMARY}, {@link #FOREIGN} and
+     *              {@link #AUTO_INCREMENT} flags that are set
+     * @param defaultValue (optional) the default value
+     */
+    @Builder
+    public CompactColumn(String name, DataType type, Integer precision, Integer scale, String arguments, int flags,
+                         String defaultValue) {
+        this.name = name;
+        this.type = type;
+        this.precision = precision == null ? NO_SIZE : precision;
+        this.scale = scale == null ? NO_SIZE : scale;
+        this.arguments = arguments;
+        this.flags = flags;
+        this.defaultValue = defaultValue;
+    }
+
+    /**
+     * Packs a {@link Column}, parsing its scale into a precision and scale where it is one or two numbers.
+     * @param column the column to pack
+     * @return the {@link CompactColumn}
+     */
+    public static CompactColumn of(Column column) {
+        CompactColumnBuilder compact = CompactColumn.builder()
+            .name(column.getName())
+            .type(DataType.of(column.getType()))
+            .flags(flag(column.isNotNull(), NOT_NULL)
+                | flag(column.isNotDefault(), NOT_DEFAULT)
+                | flag(column.isPrimary(), PRIMARY)
+                | flag(column.isForeign(), FOREIGN)
+                | flag(column.isAutoIncrement(), AUTO_INCREMENT))
+            .defaultValue(column.getDefaultValue());
+        String size = column.getScale();
+        if (size == null) {
+            return compact.build();
+        }
+        int comma = size.indexOf(',');
+        int precision = number(size, 0, comma < 0 ? size.length() : comma);
+        int scale = comma < 0 ? NO_SIZE : number(size, comma + 1, size.length());
+        if (precision == NO_SIZE || comma >= 0 && scale == NO_SIZE) {
+            return compact.arguments(size).build();
+        }
+        return compact.precision(precision).scale(scale).build();
+    }
+
+    /**
+     * Unpacks this column into a {@link Column}, with the scale written the way it was parsed.
+     * @return the {@link Column}
+     */
+    public Column toColumn() {
+        return Column.builder()
+            .name(name)
+            .type(type == null ? null : type.getName())
+            .scale(getSize())
+            .notNull(isNotNull())
+            .notDefault(isNotDefault())
+            .primary(isPrimary())
+            .foreign(isForeign())
+            .autoIncrement(isAutoIncrement())
+            .defaultValue(defaultValue)
+            .build();
+    }
+
+    /**
+     * The size as written in the column type, e.g. 10,2 for decimal(10,2).
+     * @return the precision and scale, the arguments, or null if the column type has neither
+     */
+    public String getSize() {
+        if (arguments != null) {
+            return arguments;
+        }
+        if (precision == NO_SIZE) {
+            return null;
+        }
+        return scale == NO_SIZE ? Integer.toString(precision) : precision + "," + scale;
+    }
+
+    public boolean isNotNull() {
+        return (flags & NOT_NULL) != 0;
+    }
+
+    public boolean isNotDefault() {
+        return (flags & NOT_DEFAULT) != 0;
+    }
+
+    public boolean isPrimary() {
+        return (flags & PRIMARY) != 0;
+    }
+
+    public boolean isForeign() {
+        return (flags & FOREIGN) != 0;
+    }
+
+    public boolean isAutoIncrement() {
+        return (flags & AUTO_INCREMENT) != 0;
+    }
+
+    private static int flag(boolean set, int flag) {
+        return set ? flag : 0;
+    }
+
+    /**
+     * Parses a plain decimal number, without signs, spaces or leading zeros so that writing it back gives the same
+     * text.
+     */
+    private static int number(String text, int start, int end) {
+        if (end <= start || end - start > 9 || text.charAt(start) == '0' && end - start > 1) {
+            return NO_SIZE;
+        }
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return NO_SIZE;
+            }
+            value = value * 10 + c - '0';
+        }
+        return value;
+    }
+}
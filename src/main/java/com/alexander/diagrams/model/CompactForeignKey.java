@@ -0,0 +1,38 @@
+package com.alexander.diagrams.model;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * An immutable {@link ForeignKey}.
+ */
+@Builder
+@Getter
+public final class CompactForeignKey {
+
+    private final String foreignKeyName;
+    private final String sourceTable;
+    private final String sourceColumn;
+
+    /**
+     * Copies a {@link ForeignKey}.
+     * @param foreignKey the foreign key to copy
+     * @return the {@link CompactForeignKey}
+     */
+    public static CompactForeignKey of(ForeignKey foreignKey) {
+        return new CompactForeignKey(foreignKey.getForeignKeyName(), foreignKey.getSourceTable(),
+            foreignKey.getSourceColumn());
+    }
+
+    /**
+     * Copies this foreign key into a {@link ForeignKey}.
+     * @return the {@link ForeignKey}
+     */
+    public ForeignKey toForeignKey() {
+        return ForeignKey.builder()
+            .foreignKeyName(foreignKeyName)
+            .sourceTable(sourceTable)
+            .sourceColumn(sourceColumn)
+            .build();
+    }
+}
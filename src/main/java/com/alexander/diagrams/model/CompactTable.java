@@ -0,0 +1,125 @@
+package com.alexander.diagrams.model;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Optional;
+import lombok.Builder;
+
+/**
+ * An immutable {@link Table} held in arrays sized to fit, rather than in linked lists with a node per element.
+ * The lists it returns are read only views over those arrays.
+ * Use {@link #of(Table)} and {@link #toTable()} to convert from and to the mutable model. The generators, loaders and
+ * producers all work on {@link Table}, so the compact form is only an adapter for callers that hold a large schema in
+ * memory between diagrams.
+ */
+public final class CompactTable {
+
+    private static final CompactColumn[] NO_COLUMNS = new CompactColumn[0];
+    private static final CompactForeignKey[] NO_FOREIGN_KEYS = new CompactForeignKey[0];
+    private static final String[][] NO_PRIMARY_KEYS = new String[0][];
+    private static final String[] NO_KEY_NAMES = new String[0];
+
+    private final String name;
+    private final CompactColumn[] columns;
+    private final CompactForeignKey[] foreignKeys;
+    private final String[][] primaryKeys;
+
+    /**
+     * Creates a compact table, copying the lists into arrays.
+     * @param name the table name
+     * @param columns (optional) the columns in table order
+     * @param foreignKeys (optional) the foreign keys
+     * @param primaryKeys (optional) the key names of each primary key
+     */
+    @Builder
+    public CompactTable(String name, List<CompactColumn> columns, List<CompactForeignKey> foreignKeys,
+                        List<List<String>> primaryKeys) {
+        this.name = name;
+        this.columns = columns == null || columns.isEmpty() ? NO_COLUMNS : columns.toArray(NO_COLUMNS);
+        this.foreignKeys = foreignKeys == null || foreignKeys.isEmpty()
+            ? NO_FOREIGN_KEYS : foreignKeys.toArray(NO_FOREIGN_KEYS);
+        this.primaryKeys = primaryKeys == null || primaryKeys.isEmpty()
+            ? NO_PRIMARY_KEYS : primaryKeys.stream().map(keyNames -> keyNames.toArray(NO_KEY_NAMES))
+                .toArray(String[][]::new);
+    }
+
+    /**
+     * Packs a {@link Table}, a null list is packed as an empty one.
+     * @param table the table to pack
+     * @return the {@link CompactTable}
+     */
+    public static CompactTable of(Table table) {
+        List<CompactColumn> columns = new ArrayList<>();
+        for (Column column : Optional.ofNullable(table.getColumns()).orElse(List.of())) {
+            columns.add(CompactColumn.of(column));
+        }
+        List<CompactForeignKey> foreignKeys = new ArrayList<>();
+        for (ForeignKey foreignKey : Optional.ofNullable(table.getForeignKeys()).orElse(List.of())) {
+            foreignKeys.add(CompactForeignKey.of(foreignKey));
+        }
+        List<List<String>> primaryKeys = new ArrayList<>();
+        for (PrimaryKey primaryKey : Optional.ofNullable(table.getPrimaryKeys()).orElse(List.of())) {
+            primaryKeys.add(primaryKey.getKeyName());
+        }
+        return new CompactTable(table.getName(), columns, foreignKeys, primaryKeys);
+    }
+
+    /**
+     * Unpacks this table into a mutable {@link Table}.
+     * @return the {@link Table}
+     */
+    public Table toTable() {
+        List<Column> tableColumns = new LinkedList<>();
+        for (CompactColumn column : columns) {
+            tableColumns.add(column.toColumn());
+        }
+        List<ForeignKey> tableForeignKeys = new LinkedList<>();
+        for (CompactForeignKey foreignKey : foreignKeys) {
+            tableForeignKeys.add(foreignKey.toForeignKey());
+        }
+        List<PrimaryKey> tablePrimaryKeys = new LinkedList<>();
+        for (String[] keyNames : primaryKeys) {
+            tablePrimaryKeys.add(PrimaryKey.builder().keyName(new LinkedList<>(Arrays.asList(keyNames))).build());
+        }
+        return Table.builder()
+            .name(name)
+            .columns(tableColumns)
+            .foreignKeys(tableForeignKeys)
+            .primaryKeys(tablePrimaryKeys)
+            .build();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<CompactColumn> getColumns() {
+        return Collections.unmodifiableList(Arrays.asList(columns));
+    }
+
+    public List<CompactForeignKey> getForeignKeys() {
+        return Collections.unmodifiableList(Arrays.asList(foreignKeys));
+    }
+
+    /**
+     * The key names of each primary key.
+     * @return a read only list of read only key name lists
+     */
+    public List<List<String>> getPrimaryKeys() {
+        return new AbstractList<>() {
+            @Override
+            public List<String> get(int index) {
+                return Collections.unmodifiableList(Arrays.asList(primaryKeys[index]));
+            }
+
+            @Override
+            public int size() {
+                return primaryKeys.length;
+            }
+        };
+    }
+}
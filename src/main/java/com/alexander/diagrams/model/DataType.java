@@ -0,0 +1,43 @@
+package com.alexander.diagrams.model;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An interned column data type, e.g. int or varchar.
+ * A schema names the same handful of types thousands of times, so each distinct name is held once and shared by every
+ * {@link CompactColumn} that uses it; instances with the same name are the same instance and can be compared with ==.
+ * The name is kept as written so converting back to a {@link Column} is lossless.
+ */
+public final class DataType {
+
+    private static final Map<String, DataType> TYPES = new ConcurrentHashMap<>();
+
+    private final String name;
+
+    private DataType(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Finds the shared instance for a data type name, creating it the first time the name is seen.
+     * @param name the data type name as written in the schema
+     * @return the {@link DataType} or null if the name is null
+     */
+    public static DataType of(String name) {
+        if (name == null) {
+            return null;
+        }
+        DataType type = TYPES.get(name);
+        return type != null ? type : TYPES.computeIfAbsent(name, DataType::new);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
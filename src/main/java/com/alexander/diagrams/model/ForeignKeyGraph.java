@@ -0,0 +1,266 @@
+package com.alexander.diagrams.model;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The foreign keys of a {@link Schema} as a directed graph over dense int ids, for graph algorithms over large schemas.
+ * A table's id is its position in {@link Schema#getTables()} and each foreign key is an edge from the table declaring
+ * it to the source table it references. The edges are held in compressed sparse row form: the targets of every node
+ * sit in one int array, in table and foreign key order, indexed by an array of offsets per node, and the same again
+ * for the inbound edges. Foreign keys to a table that is not in the schema have no node to point to and are only
+ * counted, as orphans.
+ * Traversals take the arrays they fill from the caller, so they can be repeated without allocating.
+ */
+public final class ForeignKeyGraph {
+
+    /** The id returned for a table that is not in the graph. */
+    public static final int NO_TABLE = -1;
+    /** The depth of a table that a traversal did not reach. */
+    public static final int UNREACHED = -1;
+
+    /** Which edges a traversal follows. */
+    public enum Direction {
+        /** From a table to the tables it references. */
+        OUTBOUND,
+        /** From a table to the tables that reference it. */
+        INBOUND,
+        /** Both ways, treating the graph as undirected. */
+        BOTH
+    }
+
+    private final String[] names;
+    private final Map<String, Integer> ids;
+    private final int[] outOffsets;
+    private final int[] outTargets;
+    private final int[] inOffsets;
+    private final int[] inTargets;
+    private final int orphans;
+
+    private ForeignKeyGraph(Schema schema) {
+        List<Table> tables = schema.getTables();
+        int size = tables.size();
+        this.names = new String[size];
+        this.ids = new HashMap<>((int) (size / 0.75f) + 1);
+        for (int id = 0; id < size; id++) {
+            names[id] = tables.get(id).getName();
+            ids.put(names[id], id);
+        }
+
+        List<Relationship> relationships = schema.getRelationships();
+        int[] sources = new int[relationships.size()];
+        int[] targets = new int[relationships.size()];
+        int edges = 0;
+        for (Relationship relationship : relationships) {
+            Integer target = ids.get(relationship.getForeignKey().getSourceTable());
+            if (target != null) {
+                sources[edges] = ids.get(relationship.getTable());
+                targets[edges] = target;
+                edges++;
+            }
+        }
+        this.orphans = relationships.size() - edges;
+        this.outOffsets = new int[size + 1];
+        this.outTargets = new int[edges];
+        this.inOffsets = new int[size + 1];
+        this.inTargets = new int[edges];
+        fill(sources, targets, edges, outOffsets, outTargets);
+        fill(targets, sources, edges, inOffsets, inTargets);
+    }
+
+    /**
+     * Builds the graph of a schema's foreign keys.
+     * @param schema the schema
+     * @return {@link ForeignKeyGraph}
+     */
+    public static ForeignKeyGraph of(Schema schema) {
+        return new ForeignKeyGraph(schema);
+    }
+
+    /**
+     * Lays the edges out by node, keeping the order they were given in for each node.
+     */
+    private static void fill(int[] from, int[] to, int edges, int[] offsets, int[] targets) {
+        for (int edge = 0; edge < edges; edge++) {
+            offsets[from[edge] + 1]++;
+        }
+        for (int node = 1; node < offsets.length; node++) {
+            offsets[node] += offsets[node - 1];
+        }
+        int[] next = Arrays.copyOf(offsets, offsets.length - 1);
+        for (int edge = 0; edge < edges; edge++) {
+            targets[next[from[edge]]++] = to[edge];
+        }
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * Finds the id of a table.
+     * @param name the table name
+     * @return the id or {@link #NO_TABLE} if the table is not in the graph
+     */
+    public int id(String name) {
+        Integer id = ids.get(name);
+        return id == null ? NO_TABLE : id;
+    }
+
+    public String name(int id) {
+        return names[id];
+    }
+
+    public int edgeCount() {
+        return outTargets.length;
+    }
+
+    /**
+     * The number of foreign keys that reference a table missing from the schema.
+     * @return the orphan count
+     */
+    public int orphanCount() {
+        return orphans;
+    }
+
+    public int outDegree(int id) {
+        return outOffsets[id + 1] - outOffsets[id];
+    }
+
+    /**
+     * The table referenced by one of a table's foreign keys.
+     * @param id the table id
+     * @param index the index of the edge, below {@link #outDegree(int)}
+     * @return the id of the referenced table
+     */
+    public int outbound(int id, int index) {
+        return outTargets[outOffsets[id] + index];
+    }
+
+    public int inDegree(int id) {
+        return inOffsets[id + 1] - inOffsets[id];
+    }
+
+    /**
+     * A table that references the given one.
+     * @param id the table id
+     * @param index the index of the edge, below {@link #inDegree(int)}
+     * @return the id of the referencing table
+     */
+    public int inbound(int id, int index) {
+        return inTargets[inOffsets[id] + index];
+    }
+
+    /**
+     * Visits the tables reachable from a start table breadth first, nearest first.
+     * @param start the id of the table to start from, at depth 0
+     * @param direction the edges to follow
+     * @param maxDepth the furthest depth to visit, e.g. 0 for only the start table or 1 for the start table and its
+     *                 neighbours, {@link Integer#MAX_VALUE} for no limit
+     * @param order filled with the ids of the visited tables in the order they were reached, at least {@link #size()}
+     *              long
+     * @param depth filled with the depth of every table, {@link #UNREACHED} for those not visited, at least
+     *              {@link #size()} long
+     * @return the number of tables visited, the length of order that was filled
+     * @throws IllegalArgumentException if maxDepth is negative
+     */
+    public int breadthFirst(int start, Direction direction, int maxDepth, int[] order, int[] depth) {
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException("The max depth must be at least 0 but was " + maxDepth);
+        }
+        Arrays.fill(depth, 0, size(), UNREACHED);
+        depth[start] = 0;
+        order[0] = start;
+        int visited = 1;
+        for (int head = 0; head < visited; head++) {
+            int node = order[head];
+            if (depth[node] == maxDepth) {
+                break;
+            }
+            if (direction != Direction.INBOUND) {
+                visited = visit(node, outOffsets, outTargets, order, depth, visited);
+            }
+            if (direction != Direction.OUTBOUND) {
+                visited = visit(node, inOffsets, inTargets, order, depth, visited);
+            }
+        }
+        return visited;
+    }
+
+    /**
+     * Visits the tables reachable from a start table breadth first, allocating the result.
+     * @param start the id of the table to start from
+     * @param direction the edges to follow
+     * @param maxDepth the furthest depth to visit, {@link Integer#MAX_VALUE} for no limit
+     * @return the ids of the visited tables, nearest first
+     * @throws IllegalArgumentException if maxDepth is negative
+     */
+    public int[] breadthFirst(int start, Direction direction, int maxDepth) {
+        int[] order = new int[size()];
+        return Arrays.copyOf(order, breadthFirst(start, direction, maxDepth, order, new int[size()]));
+    }
+
+    private static int visit(int node, int[] offsets, int[] targets, int[] order, int[] depth, int visited) {
+        int queued = visited;
+        for (int edge = offsets[node]; edge < offsets[node + 1]; edge++) {
+            int target = targets[edge];
+            if (depth[target] == UNREACHED) {
+                depth[target] = depth[node] + 1;
+                order[queued++] = target;
+            }
+        }
+        return queued;
+    }
+
+    /**
+     * Labels the weakly connected components of the graph, the groups of tables linked by foreign keys in either
+     * direction. Components are numbered from 0 in the order of their lowest table id.
+     * @param labels filled with the component of every table, at least {@link #size()} long
+     * @param queue working space for the traversal, at least {@link #size()} long
+     * @return the number of components
+     */
+    public int components(int[] labels, int[] queue) {
+        Arrays.fill(labels, 0, size(), UNREACHED);
+        int components = 0;
+        for (int root = 0; root < size(); root++) {
+            if (labels[root] != UNREACHED) {
+                continue;
+            }
+            labels[root] = components;
+            queue[0] = root;
+            int queued = 1;
+            for (int head = 0; head < queued; head++) {
+                int node = queue[head];
+                queued = label(node, outOffsets, outTargets, labels, components, queue, queued);
+                queued = label(node, inOffsets, inTargets, labels, components, queue, queued);
+            }
+            components++;
+        }
+        return components;
+    }
+
+    /**
+     * Labels the weakly connected components of the graph, allocating the result.
+     * @return the component of every table, indexed by table id
+     */
+    public int[] components() {
+        int[] labels = new int[size()];
+        components(labels, new int[size()]);
+        return labels;
+    }
+
+    private static int label(int node, int[] offsets, int[] targets, int[] labels, int component, int[] queue,
+                             int queued) {
+        int next = queued;
+        for (int edge = offsets[node]; edge < offsets[node + 1]; edge++) {
+            int target = targets[edge];
+            if (labels[target] == UNREACHED) {
+                labels[target] = component;
+                queue[next++] = target;
+            }
+        }
+        return next;
+    }
+}
@@ -0,0 +1,17 @@
+package com.alexander.diagrams.model;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * A foreign key edge of a {@link Schema}, from the table that declares the {@link ForeignKey} to the source table it
+ * references.
+ */
+@Builder
+@Getter
+public final class Relationship {
+
+    /** The name of the table that declares the foreign key. */
+    private final String table;
+    private final ForeignKey foreignKey;
+}
@@ -0,0 +1,157 @@
+package com.alexander.diagrams.model;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The tables of a database together with hash indexes over them, built once when the schema is created so that
+ * producers and analyses look tables, columns and foreign key edges up in constant time instead of scanning lists.
+ * The indexes are: table name to table, table and column name to column, and the outbound and inbound
+ * {@link Relationship}s of each table. A relationship whose source table is not in the schema is an orphan, it is
+ * indexed as outbound from its table and inbound to the missing table name.
+ * The schema does not copy its tables, they should not be changed once it is created.
+ */
+@SuppressFBWarnings(value = "EI_EXPOSE_REP", justification = "The tables are shared with the schema, not copied.")
+public final class Schema {
+
+    private final List<Table> tables;
+    private final Map<String, Table> tablesByName;
+    private final Map<String, Map<String, Column>> columnsByTable;
+    private final Map<String, List<Relationship>> outbound;
+    private final Map<String, List<Relationship>> inbound;
+    private final List<Relationship> relationships;
+    private volatile ForeignKeyGraph foreignKeyGraph;
+
+    private Schema(List<Table> tables) {
+        this.tables = Collections.unmodifiableList(tables);
+        this.tablesByName = new HashMap<>(capacity(tables.size()));
+        this.columnsByTable = new HashMap<>(capacity(tables.size()));
+        this.outbound = new HashMap<>(capacity(tables.size()));
+        this.inbound = new HashMap<>();
+        List<Relationship> edges = new ArrayList<>();
+        for (Table table : tables) {
+            if (tablesByName.putIfAbsent(table.getName(), table) != null) {
+                throw new IllegalStateException("Duplicate table " + table.getName());
+            }
+            List<Column> columns = Optional.ofNullable(table.getColumns()).orElse(List.of());
+            Map<String, Column> columnsByName = new HashMap<>(capacity(columns.size()));
+            for (Column column : columns) {
+                if (column != null) {
+                    columnsByName.putIfAbsent(column.getName(), column);
+                }
+            }
+            columnsByTable.put(table.getName(), columnsByName);
+            List<Relationship> tableEdges = new ArrayList<>();
+            for (ForeignKey foreignKey : Optional.ofNullable(table.getForeignKeys()).orElse(List.of())) {
+                if (foreignKey != null) {
+                    Relationship relationship = Relationship.builder().table(table.getName()).foreignKey(foreignKey)
+                        .build();
+                    tableEdges.add(relationship);
+                    inbound.computeIfAbsent(foreignKey.getSourceTable(), name -> new ArrayList<>()).add(relationship);
+                }
+            }
+            outbound.put(table.getName(), Collections.unmodifiableList(tableEdges));
+            edges.addAll(tableEdges);
+        }
+        inbound.replaceAll((name, edgesIn) -> Collections.unmodifiableList(edgesIn));
+        this.relationships = Collections.unmodifiableList(edges);
+    }
+
+    /**
+     * Creates a schema from its tables, indexing them.
+     * @param tables the tables in the order they should be listed, each with a different name
+     * @return {@link Schema}
+     * @throws IllegalStateException if two tables have the same name
+     */
+    public static Schema of(List<Table> tables) {
+        return new Schema(new ArrayList<>(tables));
+    }
+
+    /**
+     * The tables in the order they were given.
+     * @return a read only list of tables
+     */
+    public List<Table> getTables() {
+        return tables;
+    }
+
+    /**
+     * Finds a table by its name.
+     * @param name the table name
+     * @return the {@link Table} or null if the schema has no table with that name
+     */
+    public Table getTable(String name) {
+        return tablesByName.get(name);
+    }
+
+    public boolean hasTable(String name) {
+        return tablesByName.containsKey(name);
+    }
+
+    /**
+     * Finds a column of a table by its name.
+     * @param table the table name
+     * @param column the column name
+     * @return the {@link Column} or null if the schema has no such table or the table has no such column
+     */
+    public Column getColumn(String table, String column) {
+        return columnsByTable.getOrDefault(table, Map.of()).get(column);
+    }
+
+    /**
+     * Every foreign key edge of the schema, grouped by table in table order.
+     * @return a read only list of {@link Relationship}s
+     */
+    public List<Relationship> getRelationships() {
+        return relationships;
+    }
+
+    /**
+     * The foreign keys a table declares.
+     * @param table the table name
+     * @return a read only list of {@link Relationship}s, empty if the table is not in the schema
+     */
+    public List<Relationship> getOutbound(String table) {
+        return outbound.getOrDefault(table, List.of());
+    }
+
+    /**
+     * The foreign keys that reference a table, whether or not the table is in the schema.
+     * @param table the source table name
+     * @return a read only list of {@link Relationship}s
+     */
+    public List<Relationship> getInbound(String table) {
+        return inbound.getOrDefault(table, List.of());
+    }
+
+    /**
+     * Checks whether a relationship references a table that is not in the schema.
+     * @param relationship the foreign key edge
+     * @return true if its source table is missing
+     */
+    public boolean isOrphan(Relationship relationship) {
+        return !hasTable(relationship.getForeignKey().getSourceTable());
+    }
+
+    /**
+     * The foreign keys as a graph over int table ids, built the first time it is asked for and then shared.
+     * @return {@link ForeignKeyGraph}
+     */
+    public ForeignKeyGraph getForeignKeyGraph() {
+        ForeignKeyGraph graph = foreignKeyGraph;
+        if (graph == null) {
+            graph = ForeignKeyGraph.of(this);
+            foreignKeyGraph = graph;
+        }
+        return graph;
+    }
+
+    private static int capacity(int size) {
+        return (int) (size / 0.75f) + 1;
+    }
+}
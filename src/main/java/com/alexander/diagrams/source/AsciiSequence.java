@@ -0,0 +1,71 @@
+package com.alexander.diagrams.source;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A CharSequence read straight out of a buffer of US-ASCII bytes, one byte per char, so a memory mapped file can be
+ * parsed in place instead of being decoded into a copy of it on the heap.
+ * It only reads the buffer with absolute gets, so it can be handed between threads once created.
+ */
+final class AsciiSequence implements CharSequence {
+
+    private static final long HIGH_BITS = 0x8080808080808080L;
+
+    private final ByteBuffer bytes;
+
+    private AsciiSequence(ByteBuffer bytes) {
+        this.bytes = bytes;
+    }
+
+    /**
+     * Views the remaining bytes as text without copying them when they are all US-ASCII, otherwise decodes them as
+     * UTF-8.
+     * @param bytes the text, e.g. a memory mapped file
+     * @return the text
+     */
+    static CharSequence of(ByteBuffer bytes) {
+        ByteBuffer text = bytes.slice();
+        return isAscii(text) ? new AsciiSequence(text) : StandardCharsets.UTF_8.decode(text);
+    }
+
+    private static boolean isAscii(ByteBuffer text) {
+        int index = 0;
+        for (; index + Long.BYTES <= text.limit(); index += Long.BYTES) {
+            if ((text.getLong(index) & HIGH_BITS) != 0) {
+                return false;
+            }
+        }
+        for (; index < text.limit(); index++) {
+            if (text.get(index) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int length() {
+        return bytes.limit();
+    }
+
+    @Override
+    public char charAt(int index) {
+        return (char) bytes.get(index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > length() || start > end) {
+            throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + length());
+        }
+        return new AsciiSequence(bytes.slice(start, end - start));
+    }
+
+    @Override
+    public String toString() {
+        byte[] text = new byte[length()];
+        bytes.get(0, text);
+        return new String(text, StandardCharsets.US_ASCII);
+    }
+}
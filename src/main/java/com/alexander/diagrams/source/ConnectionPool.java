@@ -0,0 +1,119 @@
+package com.alexander.diagrams.source;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * A minimal pool that keeps a bounded number of idle connections open, so a source reuses the same database session
+ * across tables instead of connecting for every query.
+ * Connections that fail are discarded rather than returned. Closing the pool closes the idle connections, the pool can
+ * still be used afterwards and will open new connections as needed.
+ * Safe for use from multiple threads.
+ */
+final class ConnectionPool implements AutoCloseable {
+
+    /**
+     * Opens a new connection when the pool has no idle connection to hand out.
+     */
+    @FunctionalInterface
+    interface ConnectionFactory {
+        Connection open() throws SQLException;
+    }
+
+    private final ConnectionFactory factory;
+    private final int maxIdle;
+    private final Deque<Connection> idle;
+
+    ConnectionPool(ConnectionFactory factory, int maxIdle) {
+        if (maxIdle < 1) {
+            throw new IllegalArgumentException("The connection pool size must be at least 1 but was " + maxIdle);
+        }
+        this.factory = factory;
+        this.maxIdle = maxIdle;
+        this.idle = new ArrayDeque<>(maxIdle);
+    }
+
+    /**
+     * Hands out an idle connection or opens a new one if none are idle.
+     * @return a connection that must be given back via {@link #release(Connection)} or {@link #discard(Connection,
+     *     SQLException)}
+     * @throws SQLException if a new connection cannot be opened
+     */
+    Connection borrow() throws SQLException {
+        Connection connection = pollIdle();
+        while (connection != null) {
+            if (!connection.isClosed()) {
+                return connection;
+            }
+            connection = pollIdle();
+        }
+        return factory.open();
+    }
+
+    /**
+     * Gives a healthy connection back to the pool, it is closed instead if the pool already holds enough idle
+     * connections.
+     * @param connection the connection that was borrowed
+     * @throws SQLException if the surplus connection cannot be closed
+     */
+    void release(Connection connection) throws SQLException {
+        if (!offerIdle(connection)) {
+            connection.close();
+        }
+    }
+
+    /**
+     * Closes a connection that failed so it is never handed out again.
+     * @param connection the connection that was borrowed
+     * @param cause the failure, any error while closing the connection is added to it as suppressed
+     */
+    void discard(Connection connection, SQLException cause) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    /**
+     * Closes all idle connections.
+     */
+    @Override
+    public void close() {
+        SQLException failure = null;
+        Connection connection = pollIdle();
+        while (connection != null) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+            connection = pollIdle();
+        }
+        if (failure != null) {
+            throw new RuntimeException("Unable to close pooled database connections", failure);
+        }
+    }
+
+    synchronized int idleCount() {
+        return idle.size();
+    }
+
+    private synchronized Connection pollIdle() {
+        return idle.pollFirst();
+    }
+
+    private synchronized boolean offerIdle(Connection connection) {
+        if (idle.size() >= maxIdle) {
+            return false;
+        }
+        idle.addFirst(connection);
+        return true;
+    }
+}
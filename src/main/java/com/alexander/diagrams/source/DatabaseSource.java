@@ -6,27 +6,47 @@ import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.Callable;
 import java.util.stream.Collectors;
+import javax.sql.DataSource;
 import lombok.Builder;
 
 @SuppressFBWarnings(value = {"RCN_REDUNDANT_NULLCHECK_OF_NONNULL_VALUE", "SQL_INJECTION_JDBC",
     "SQL_PREPARED_STATEMENT_GENERATED_FROM_NONCONSTANT_STRING", "EI_EXPOSE_REP2"},
-    justification = "https://github.com/spotbugs/spotbugs/issues/259, Table name is obtained from the DB itself not from user input")
-public class DatabaseSource implements Source {
+    justification = "https://github.com/spotbugs/spotbugs/issues/259, table names can be provided by the caller, "
+        + "every table name is quoted as an identifier by quote() before it is put in a query")
+public class DatabaseSource implements Source, AutoCloseable {
 
     private static final int SHOW_TABLES_COLUMN_INDEX = 1;
     private static final int DESCRIBE_TABLE_COLUMN_INDEX = 2;
+    private static final int DEFAULT_POOL_SIZE = 1;
+    private static final int FETCHES_PER_THREAD = 2;
     private Iterator<String> tableNamesIterator;
+    private ReadAhead<List<String>> fetches;
+    private final Deque<String> fetched = new ArrayDeque<>();
 
     private final String password;
     private final String username;
     private final String databaseUrl;
     private final String databaseName;
+    private final DataSource dataSource;
+    private final ConnectionPool pool;
+    private final int fetchThreads;
+    private final int batchSize;
 
     private static final String CONNECTION_STRING = "jdbc:mysql://%s/%s?useTimezone=true&serverTimezone=UTC";
+    private static final String ALLOW_MULTI_QUERIES = "&allowMultiQueries=true";
+    private static final String SHOW_CREATE_TABLE = "SHOW CREATE TABLE %s;";
+    private static final char BACKTICK = '`';
 
     /**
      * Creates a database source to read database create table statements.
@@ -37,13 +57,45 @@ public class DatabaseSource implements Source {
      * @param tableNames (optional) a {@link List} of Strings representing a specific set of table names to use as a
      *                   source instead of using the init() method to pull all possible table names from the database.
      */
-    @Builder
     public DatabaseSource(String password, String username, String databaseName, String databaseUrl,
                           List<String> tableNames) {
+        this(password, username, databaseName, databaseUrl, tableNames, null, null, null, null);
+    }
+
+    /**
+     * Creates a database source to read database create table statements over a reused set of connections.
+     * @param password the password for the account to use, ignored when a dataSource is provided
+     * @param username the username for the account to use, ignored when a dataSource is provided
+     * @param databaseName the name of the database schema to use, ignored when a dataSource is provided
+     * @param databaseUrl the host (and optional port) of the database server e.g. localhost or 127.0.0.1:3306,
+     *                    ignored when a dataSource is provided
+     * @param tableNames (optional) a {@link List} of Strings representing a specific set of table names to use as a
+     *                   source instead of using the init() method to pull all possible table names from the database.
+     * @param dataSource (optional) a {@link DataSource} to obtain connections from instead of the {@link DriverManager}
+     * @param poolSize (optional) the number of idle connections to keep open for reuse, defaults to 1 or the number
+     *                 of fetchThreads if greater
+     * @param fetchThreads (optional) the number of worker threads, each with its own connection, that fetch create
+     *                     table statements ahead of the consumer, defaults to 1 which fetches on the calling thread
+     * @param batchSize (optional) the number of SHOW CREATE TABLE statements to send in each round trip, defaults to 1.
+     *                  Batches are sent as a single multi-statement query, a provided dataSource must allow these
+     *                  e.g. allowMultiQueries=true for MySQL Connector/J
+     */
+    @Builder
+    public DatabaseSource(String password, String username, String databaseName, String databaseUrl,
+                          List<String> tableNames, DataSource dataSource, Integer poolSize, Integer fetchThreads,
+                          Integer batchSize) {
         this.password = password;
         this.username = username;
         this.databaseName = databaseName;
         this.databaseUrl = databaseUrl;
+        this.dataSource = dataSource;
+        this.fetchThreads = Optional.ofNullable(fetchThreads).orElse(1);
+        this.batchSize = Optional.ofNullable(batchSize).orElse(1);
+        if (this.batchSize < 1) {
+            throw new IllegalArgumentException("The batch size must be at least 1 but was " + this.batchSize);
+        }
+        this.pool = new ConnectionPool(this::getConnection,
+            Optional.ofNullable(poolSize).orElse(Math.max(DEFAULT_POOL_SIZE, this.fetchThreads)));
         if (tableNames != null) {
             this.tableNamesIterator = tableNames.iterator();
         }
@@ -51,7 +103,7 @@ public class DatabaseSource implements Source {
 
     private void init() {
         try {
-            Connection conn = getConnection();
+            Connection conn = pool.borrow();
             try (PreparedStatement listTablesStatement = conn.prepareStatement("SHOW TABLES;")) {
                 try (ResultSet listTablesResult = listTablesStatement.executeQuery()) {
                     List<String> tableNames = new LinkedList<>();
@@ -60,58 +112,206 @@ public class DatabaseSource implements Source {
                     }
                     tableNamesIterator = tableNames.iterator();
                 }
-            } finally {
-                conn.close();
+            } catch (SQLException e) {
+                pool.discard(conn, e);
+                throw e;
             }
+            pool.release(conn);
         } catch (SQLException e) {
             throw new RuntimeException("There was an issue listing the tables in the database", e);
         }
     }
 
+    /**
+     * Starts fetching batches of create table statements ahead of the consumer on the worker threads. At most two
+     * batches per thread are fetched or waiting to be read at any one time, so the workers wait for a slow consumer.
+     */
+    private void startFetching() {
+        Iterator<Callable<List<String>>> tasks = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return tableNamesIterator.hasNext();
+            }
+
+            @Override
+            public Callable<List<String>> next() {
+                List<String> batch = nextBatch();
+                return () -> getCreateStatements(batch);
+            }
+        };
+        fetches = new ReadAhead<>(ReadAhead.workers(fetchThreads, "database-source"), tasks,
+            fetchThreads * FETCHES_PER_THREAD);
+    }
+
+    private List<String> nextBatch() {
+        List<String> batch = new ArrayList<>(batchSize);
+        while (batch.size() < batchSize && tableNamesIterator.hasNext()) {
+            batch.add(tableNamesIterator.next());
+        }
+        return batch;
+    }
+
+    private boolean isBuffered() {
+        return fetches != null || batchSize > 1;
+    }
+
+    /**
+     * Checks for another table, once every table has been read the pooled connections are closed.
+     */
     @Override
     public boolean hasNext() {
         if (tableNamesIterator == null) {
             init();
         }
-        return tableNamesIterator.hasNext();
+        if (fetchThreads > 1 && fetches == null) {
+            startFetching();
+        }
+        if (fetched.isEmpty() && (fetches != null ? !fetches.hasNext() : !tableNamesIterator.hasNext())) {
+            close();
+            return false;
+        }
+        return true;
     }
 
     @Override
     public List<String> next() {
+        if (isBuffered()) {
+            return nextStatement().toString().lines().collect(Collectors.toList());
+        }
         String tableName = tableNamesIterator.next();
         return getDescribeTable(tableName);
     }
 
+    @Override
+    public CharSequence nextStatement() {
+        if (!isBuffered()) {
+            String tableName = tableNamesIterator.next();
+            return getCreateStatement(tableName);
+        }
+        if (fetched.isEmpty()) {
+            fetched.addAll(fetches != null ? fetches.next() : getCreateStatements(nextBatch()));
+        }
+        if (fetched.isEmpty()) {
+            throw new NoSuchElementException("There are no more tables to describe");
+        }
+        return fetched.remove();
+    }
+
+    /**
+     * Quotes a table name as a MySQL identifier, doubling any backtick in it, so that a name holding spaces, dashes,
+     * a reserved word or SQL of its own is only ever read as the name of a table.
+     * @param tableName the table name
+     * @return the quoted table name
+     */
+    static String quote(String tableName) {
+        StringBuilder quoted = new StringBuilder(tableName.length() + 2).append(BACKTICK);
+        for (int index = 0; index < tableName.length(); index++) {
+            char c = tableName.charAt(index);
+            if (c == BACKTICK) {
+                quoted.append(BACKTICK);
+            }
+            quoted.append(c);
+        }
+        return quoted.append(BACKTICK).toString();
+    }
+
     protected List<String> getDescribeTable(String tableName) {
-        String query = String.format("SHOW CREATE TABLE %s;", tableName);
+        return getCreateStatement(tableName).lines().collect(Collectors.toList());
+    }
+
+    /**
+     * Reads the create table statement of a table as a single block of text.
+     * @param tableName the table to describe
+     * @return the create table statement or an empty String if the table could not be described
+     */
+    protected String getCreateStatement(String tableName) {
+        String query = String.format(SHOW_CREATE_TABLE, quote(tableName));
+        try {
+            Connection conn = pool.borrow();
+            String createStatement;
+            try (PreparedStatement showCreateTableStatement = conn.prepareStatement(query)) {
+                try (ResultSet createTableResult = showCreateTableStatement.executeQuery()) {
+                    createStatement = createTableResult.next()
+                        ? createTableResult.getString(DESCRIBE_TABLE_COLUMN_INDEX)
+                        : "";
+                }
+            } catch (SQLException e) {
+                pool.discard(conn, e);
+                throw e;
+            }
+            pool.release(conn);
+            return createStatement;
+        } catch (SQLException e) {
+            throw new RuntimeException("Unable to describe table " + tableName, e);
+        }
+    }
+
+    /**
+     * Reads the create table statements of a batch of tables in a single multi-statement round trip.
+     * @param tableNames the tables to describe
+     * @return the create table statements in the same order as the table names, an empty String for any table that
+     *     could not be described
+     */
+    protected List<String> getCreateStatements(List<String> tableNames) {
+        if (tableNames.size() <= 1) {
+            return tableNames.stream().map(this::getCreateStatement).collect(Collectors.toList());
+        }
+        String query = tableNames.stream()
+            .map(tableName -> String.format(SHOW_CREATE_TABLE, quote(tableName)))
+            .collect(Collectors.joining(" "));
         try {
-            Connection conn = getConnection();
-            try {
-                PreparedStatement showCreateTableStatement = conn.prepareStatement(query);
-                try {
-                    ResultSet createTableResult = showCreateTableStatement.executeQuery();
-                    try {
-                        if (createTableResult.next()) {
-                            String describeBlock = createTableResult.getString(DESCRIBE_TABLE_COLUMN_INDEX);
-                            return describeBlock.lines().collect(Collectors.toList());
+            Connection conn = pool.borrow();
+            List<String> createStatements = new ArrayList<>(tableNames.size());
+            try (Statement showCreateTablesStatement = conn.createStatement()) {
+                boolean isResultSet = showCreateTablesStatement.execute(query);
+                while (isResultSet || showCreateTablesStatement.getUpdateCount() != -1) {
+                    if (isResultSet) {
+                        try (ResultSet createTableResult = showCreateTablesStatement.getResultSet()) {
+                            createStatements.add(createTableResult.next()
+                                ? createTableResult.getString(DESCRIBE_TABLE_COLUMN_INDEX)
+                                : "");
                         }
-                    } finally {
-                        createTableResult.close();
                     }
-                } finally {
-                    showCreateTableStatement.close();
+                    isResultSet = showCreateTablesStatement.getMoreResults();
+                }
+                if (createStatements.size() != tableNames.size()) {
+                    throw new SQLException("Expected " + tableNames.size() + " create table statements but received "
+                        + createStatements.size());
                 }
-            } finally {
-                conn.close();
+            } catch (SQLException e) {
+                pool.discard(conn, e);
+                throw e;
             }
+            pool.release(conn);
+            return createStatements;
         } catch (SQLException e) {
-            throw new RuntimeException("Unable to describe table " + tableName, e);
+            throw new RuntimeException("Unable to describe tables " + tableNames, e);
+        }
+    }
+
+    /**
+     * Stops any fetch workers and closes the pooled connections, only needed when the source is not read to the end.
+     * Without fetch workers the source can still be read afterwards, new connections are opened as needed.
+     */
+    @Override
+    public void close() {
+        if (fetches != null) {
+            fetches.close();
         }
-        return new LinkedList<>();
+        pool.close();
     }
 
+    /**
+     * Opens a new connection, either from the provided {@link DataSource} or via the {@link DriverManager}.
+     * Connections are reused via the source's pool rather than calling this for every query.
+     * @return a new database connection
+     * @throws SQLException if the connection cannot be opened
+     */
     protected Connection getConnection() throws SQLException {
-        return DriverManager
-            .getConnection(String.format(CONNECTION_STRING, databaseUrl, databaseName), username, password);
+        if (dataSource != null) {
+            return dataSource.getConnection();
+        }
+        return DriverManager.getConnection(String.format(CONNECTION_STRING, databaseUrl, databaseName)
+            + (batchSize > 1 ? ALLOW_MULTI_QUERIES : ""), username, password);
     }
 }
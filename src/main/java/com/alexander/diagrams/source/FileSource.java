@@ -2,25 +2,40 @@ package com.alexander.diagrams.source;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
 import lombok.Builder;
 
 /**
  * Sources database describe statements from a directory and optionally from a specific file.
+ * Files are returned in file name order, rather than the order the file system lists them in, so the same directory
+ * always produces the same diagram.
+ * Files can optionally be memory mapped and read ahead of the consumer on a number of worker threads, statements are
+ * still returned in file name order.
  */
 @SuppressFBWarnings(value = "RCN_REDUNDANT_NULLCHECK_WOULD_HAVE_BEEN_A_NPE", justification = "https://github.com/spotbugs/spotbugs/issues/756")
-public class FileSource implements Source {
+public class FileSource implements Source, AutoCloseable {
+
+    private static final int READ_AHEAD_PER_THREAD = 2;
 
     private final String directoryPath;
     private final String fileName;
+    private final boolean memoryMapped;
+    private final int readAheadThreads;
     private List<Path> files;
     private Iterator<Path> iterator;
+    private ReadAhead<CharSequence> readAhead;
 
     /**
      * A source that reads files from a directory, supports glob searching.
@@ -29,10 +44,27 @@ public class FileSource implements Source {
      * @param fileName A specific filename in the above directory to read, can be a glob or if not specified then *.sql
      *                 is used
      */
-    @Builder
     public FileSource(String directoryPath, String fileName) {
+        this(directoryPath, fileName, false, 0);
+    }
+
+    /**
+     * A source that reads files from a directory, supports glob searching, memory mapping and reading ahead.
+     * @param directoryPath The string representing a directory to search for .sql files containing describe statements
+     *                      to parse
+     * @param fileName A specific filename in the above directory to read, can be a glob or if not specified then *.sql
+     *                 is used
+     * @param memoryMapped (optional) when true each file is memory mapped and, when it is US-ASCII, parsed straight
+     *                     out of the mapping instead of being read through a stream and decoded, defaults to false
+     * @param readAheadThreads (optional) the number of worker threads that read and decode files ahead of the
+     *                         consumer, defaults to 0 which reads each file on the calling thread
+     */
+    @Builder
+    public FileSource(String directoryPath, String fileName, Boolean memoryMapped, Integer readAheadThreads) {
         this.directoryPath = directoryPath;
         this.fileName = fileName;
+        this.memoryMapped = Optional.ofNullable(memoryMapped).orElse(false);
+        this.readAheadThreads = Optional.ofNullable(readAheadThreads).orElse(0);
         init();
     }
 
@@ -42,23 +74,34 @@ public class FileSource implements Source {
 
         try (DirectoryStream<Path> dir = Files.newDirectoryStream(Path.of(directoryPath),
             Optional.ofNullable(fileName).orElse("*.sql"))) {
-            files = new LinkedList<>();
+            files = new ArrayList<>();
             for (Path file : dir) {
                 files.add(file);
             }
+            files.sort(Comparator.naturalOrder());
             iterator = files.iterator();
         } catch (IOException e) {
             throw new RuntimeException("There was an issue accessing directory" + directoryPath, e);
         }
+        if (readAheadThreads > 0) {
+            Iterator<Callable<CharSequence>> reads = files.stream()
+                .map(file -> (Callable<CharSequence>) () -> read(file))
+                .iterator();
+            readAhead = new ReadAhead<>(ReadAhead.workers(readAheadThreads, "file-source"), reads,
+                readAheadThreads * READ_AHEAD_PER_THREAD);
+        }
     }
 
     @Override
     public boolean hasNext() {
-        return iterator.hasNext();
+        return readAhead != null ? readAhead.hasNext() : iterator.hasNext();
     }
 
     @Override
     public List<String> next() {
+        if (readAhead != null || memoryMapped) {
+            return nextStatement().toString().lines().collect(Collectors.toList());
+        }
         Path file = iterator.next();
         try {
             return Files.readAllLines(file);
@@ -66,4 +109,39 @@ public class FileSource implements Source {
             throw new RuntimeException("Unable to read file " + file.toString(), e);
         }
     }
+
+    @Override
+    public CharSequence nextStatement() {
+        return readAhead != null ? readAhead.next() : read(iterator.next());
+    }
+
+    /**
+     * Stops any read ahead workers, only needed when the source is not read to the end.
+     */
+    @Override
+    public void close() {
+        if (readAhead != null) {
+            readAhead.close();
+        }
+    }
+
+    private CharSequence read(Path file) {
+        try {
+            return memoryMapped ? map(file) : Files.readString(file);
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to read file " + file.toString(), e);
+        }
+    }
+
+    /**
+     * Reads the file through a read only mapping, a US-ASCII file is parsed straight out of the mapping and only a file
+     * holding other characters is decoded onto the heap. The mapping is released along with the last statement using
+     * it.
+     */
+    private static CharSequence map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return AsciiSequence.of(mapped);
+        }
+    }
 }
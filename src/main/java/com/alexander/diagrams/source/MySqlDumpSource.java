@@ -0,0 +1,269 @@
+package com.alexander.diagrams.source;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import lombok.Builder;
+
+/**
+ * Sources create table statements from a single mysqldump file, with or without data.
+ * The dump is streamed through a fixed size buffer one statement at a time. Only CREATE TABLE statements are kept,
+ * every other statement (INSERT, SET, LOCK, DROP...) and every comment is skipped while scanning without being copied,
+ * so memory use stays flat regardless of the size of the dump.
+ */
+public class MySqlDumpSource implements Source, AutoCloseable {
+
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    private static final int MIN_BUFFER_SIZE = 64;
+    private static final int EOF = -1;
+    private static final String CREATE_TABLE = "CREATE TABLE ";
+    private static final String DELIMITER = "DELIMITER ";
+    private static final String DEFAULT_DELIMITER = ";";
+
+    private final Path file;
+    private final char[] buffer;
+    private int position;
+    private int limit;
+    private Reader reader;
+    private String delimiter = DEFAULT_DELIMITER;
+    private String pending;
+    private boolean finished;
+
+    /**
+     * A source that streams the CREATE TABLE statements out of a mysqldump file.
+     * @param filePath The path of the dump file to read
+     * @param bufferSize (optional) the number of characters to buffer from the file, defaults to 65536
+     */
+    @Builder
+    public MySqlDumpSource(String filePath, Integer bufferSize) {
+        Optional.ofNullable(filePath).orElseThrow(
+            () -> new IllegalArgumentException("The provided file path is null"));
+        this.file = Path.of(filePath);
+        if (!Files.isRegularFile(file)) {
+            throw new RuntimeException("Unable to read dump file " + filePath);
+        }
+        this.buffer = new char[Math.max(MIN_BUFFER_SIZE,
+            Optional.ofNullable(bufferSize).orElse(DEFAULT_BUFFER_SIZE))];
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (pending == null && !finished) {
+            try {
+                pending = readCreateTable();
+            } catch (IOException e) {
+                close();
+                throw new RuntimeException("There was an issue reading dump file " + file, e);
+            }
+        }
+        return pending != null;
+    }
+
+    @Override
+    public List<String> next() {
+        return nextStatement().toString().lines().collect(Collectors.toList());
+    }
+
+    @Override
+    public CharSequence nextStatement() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("There are no more create table statements in " + file);
+        }
+        String statement = pending;
+        pending = null;
+        return statement;
+    }
+
+    /**
+     * Closes the dump file, only needed when the source is not read to the end.
+     */
+    @Override
+    public void close() {
+        finished = true;
+        if (reader != null) {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                throw new RuntimeException("Unable to close dump file " + file, e);
+            } finally {
+                reader = null;
+            }
+        }
+    }
+
+    private String readCreateTable() throws IOException {
+        if (reader == null) {
+            reader = new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8);
+        }
+        while (skipWhitespaceAndComments()) {
+            if (lookingAt(CREATE_TABLE)) {
+                StringBuilder statement = new StringBuilder();
+                scanStatement(statement);
+                return statement.toString();
+            } else if (lookingAt(DELIMITER)) {
+                readDelimiter();
+            } else {
+                scanStatement(null);
+            }
+        }
+        close();
+        return null;
+    }
+
+    /**
+     * Skips whitespace and comments between statements. Conditional comments (/*!40101 ...) are skipped too as they
+     * never hold the create table statement of a base table.
+     * @return true if there is a statement to read, false at the end of the file
+     */
+    private boolean skipWhitespaceAndComments() throws IOException {
+        while (available(1)) {
+            char c = buffer[position];
+            if (Character.isWhitespace(c)) {
+                position++;
+            } else if (c == '#' || isLineCommentStart(c)) {
+                skipLine(null);
+            } else if (c == '/' && peek(1) == '*') {
+                position += 2;
+                skipBlockComment(null);
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads up to the end of the current statement, which is the next delimiter outside quotes and comments.
+     * @param statement the builder to copy the statement into, or null to skip it without copying
+     */
+    private void scanStatement(StringBuilder statement) throws IOException {
+        char first = delimiter.charAt(0);
+        while (available(1)) {
+            char c = buffer[position];
+            if (c == first && lookingAt(delimiter)) {
+                position += delimiter.length();
+                return;
+            }
+            position++;
+            append(statement, c);
+            if (c == '\'' || c == '"' || c == '`') {
+                skipQuoted(c, statement);
+            } else if (c == '#' || c == '-' && peek(0) == '-' && isWhitespaceOrEof(peek(1))) {
+                skipLine(statement);
+            } else if (c == '/' && peek(0) == '*') {
+                append(statement, buffer[position++]);
+                skipBlockComment(statement);
+            }
+        }
+    }
+
+    private void skipQuoted(char quote, StringBuilder statement) throws IOException {
+        while (available(1)) {
+            char c = buffer[position++];
+            append(statement, c);
+            if (c == '\\' && quote != '`' && available(1)) {
+                append(statement, buffer[position++]);
+            } else if (c == quote) {
+                return;
+            }
+        }
+    }
+
+    private void skipBlockComment(StringBuilder statement) throws IOException {
+        while (available(1)) {
+            char c = buffer[position++];
+            append(statement, c);
+            if (c == '*' && peek(0) == '/') {
+                append(statement, buffer[position++]);
+                return;
+            }
+        }
+    }
+
+    private void skipLine(StringBuilder statement) throws IOException {
+        while (available(1)) {
+            char c = buffer[position++];
+            append(statement, c);
+            if (c == '\n') {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Reads the new statement delimiter from a DELIMITER command, which ends at the end of its line.
+     */
+    private void readDelimiter() throws IOException {
+        position += DELIMITER.length();
+        StringBuilder newDelimiter = new StringBuilder();
+        while (available(1) && buffer[position] != '\n') {
+            char c = buffer[position++];
+            if (!Character.isWhitespace(c)) {
+                newDelimiter.append(c);
+            } else if (newDelimiter.length() > 0) {
+                skipLine(null);
+                break;
+            }
+        }
+        delimiter = newDelimiter.length() > 0 ? newDelimiter.toString() : DEFAULT_DELIMITER;
+    }
+
+    private boolean isLineCommentStart(char c) throws IOException {
+        return c == '-' && peek(1) == '-' && isWhitespaceOrEof(peek(2));
+    }
+
+    private static boolean isWhitespaceOrEof(int c) {
+        return c == EOF || Character.isWhitespace(c);
+    }
+
+    private static void append(StringBuilder statement, char c) {
+        if (statement != null) {
+            statement.append(c);
+        }
+    }
+
+    private boolean lookingAt(String keyword) throws IOException {
+        if (!available(keyword.length())) {
+            return false;
+        }
+        for (int i = 0; i < keyword.length(); i++) {
+            if (buffer[position + i] != keyword.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int peek(int offset) throws IOException {
+        return available(offset + 1) ? buffer[position + offset] : EOF;
+    }
+
+    /**
+     * Makes sure the buffer holds at least the given number of unread characters, moving the unread characters to the
+     * start of the buffer before refilling it from the file.
+     * @return false if the end of the file is reached first
+     */
+    private boolean available(int count) throws IOException {
+        if (limit - position >= count) {
+            return true;
+        }
+        System.arraycopy(buffer, position, buffer, 0, limit - position);
+        limit -= position;
+        position = 0;
+        while (limit < count) {
+            int read = reader.read(buffer, limit, buffer.length - limit);
+            if (read == EOF) {
+                return false;
+            }
+            limit += read;
+        }
+        return true;
+    }
+}
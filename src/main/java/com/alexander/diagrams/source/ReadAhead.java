@@ -0,0 +1,114 @@
+package com.alexander.diagrams.source;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs a sequence of tasks ahead of the consumer on an executor while handing back their results in submission order.
+ * At most {@code capacity} tasks are in flight or waiting to be consumed at any one time, so a slow consumer holds back
+ * the workers instead of letting results pile up in memory.
+ * The executor is shut down once the last result has been handed back or the read ahead is closed.
+ * @param <T> the type of result produced by each task
+ */
+final class ReadAhead<T> implements Iterator<T>, AutoCloseable {
+
+    private static final long CLOSE_TIMEOUT_SECONDS = 30;
+
+    private final ExecutorService executor;
+    private final Iterator<? extends Callable<T>> tasks;
+    private final int capacity;
+    private final Queue<Future<T>> pending;
+
+    ReadAhead(ExecutorService executor, Iterator<? extends Callable<T>> tasks, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The read ahead capacity must be at least 1 but was " + capacity);
+        }
+        this.executor = executor;
+        this.tasks = tasks;
+        this.capacity = capacity;
+        this.pending = new ArrayDeque<>(capacity);
+        fill();
+    }
+
+    /**
+     * Creates a fixed size pool of daemon threads, so an abandoned source cannot keep the JVM alive.
+     * @param threads the number of worker threads
+     * @param name the prefix for the worker thread names
+     * @return an executor to pass to a {@link ReadAhead}
+     */
+    static ExecutorService workers(int threads, String name) {
+        AtomicInteger count = new AtomicInteger();
+        ThreadFactory factory = runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newFixedThreadPool(threads, factory);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (pending.isEmpty()) {
+            executor.shutdown();
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("There are no more tasks to read ahead");
+        }
+        Future<T> result = pending.remove();
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new RuntimeException("Interrupted while waiting for a read ahead result", e);
+        } catch (ExecutionException e) {
+            close();
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException("A read ahead task failed", e.getCause());
+        } finally {
+            fill();
+        }
+    }
+
+    /**
+     * Cancels any outstanding tasks and stops the workers, waiting for tasks that are already running to finish so
+     * they no longer hold on to any resources once this returns.
+     */
+    @Override
+    public void close() {
+        pending.forEach(future -> future.cancel(true));
+        pending.clear();
+        executor.shutdownNow();
+        try {
+            if (!executor.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                throw new RuntimeException("Read ahead workers did not stop within " + CLOSE_TIMEOUT_SECONDS + "s");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void fill() {
+        while (pending.size() < capacity && tasks.hasNext() && !executor.isShutdown()) {
+            pending.add(executor.submit(tasks.next()));
+        }
+    }
+}
@@ -5,4 +5,12 @@ import java.util.List;
 
 public interface Source extends Iterator<List<String>> {
 
+    /**
+     * Returns the next create table statement as a single block of text rather than as a list of lines.
+     * Sources that hold the statement as one block override this to avoid splitting it into a String per line.
+     * @return the next create table statement
+     */
+    default CharSequence nextStatement() {
+        return String.join("\n", next());
+    }
 }
@@ -93,12 +93,14 @@ public class ArchitectureIT {
             .layer("Source").definedBy("..source..")
             .layer("Diagram").definedBy("..diagram..")
             .layer("Database").definedBy("..db..")
+            .layer("Cache").definedBy("..cache..")
 
             .whereLayer("Generator").mayNotBeAccessedByAnyLayer()
             .whereLayer("Source").mayOnlyBeAccessedByLayers("Generator")
             .whereLayer("Diagram").mayOnlyBeAccessedByLayers("Generator")
             .whereLayer("Database").mayOnlyBeAccessedByLayers("Generator")
             .whereLayer("Model").mayOnlyBeAccessedByLayers("Generator", "Diagram", "Database")
+            .whereLayer("Cache").mayOnlyBeAccessedByLayers("Diagram", "Database")
             .check(importedClasses);
     }
 
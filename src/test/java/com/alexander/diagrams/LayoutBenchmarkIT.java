@@ -0,0 +1,92 @@
+package com.alexander.diagrams;
+
+import com.alexander.diagrams.db.DatabaseSyntaxParser;
+import com.alexander.diagrams.db.MySqlScannerParser;
+import com.alexander.diagrams.diagram.LayoutEngine;
+import com.alexander.diagrams.diagram.PlantUmlProducer;
+import com.alexander.diagrams.generator.DatabaseEntityRelationshipGenerator;
+import com.alexander.diagrams.model.Schema;
+import com.alexander.diagrams.model.Table;
+import com.alexander.diagrams.source.FileSource;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import net.sourceforge.plantuml.cucadiagram.dot.GraphvizUtils;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Compares the time to render the pim and mononoth fixtures with each layout engine, the source is parsed once up
+ * front so only the diagram build and render is timed. The Graphviz runs are skipped when dot is not installed.
+ * It takes minutes, so it only runs when the benchmark system property is true.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class LayoutBenchmarkIT {
+
+    private static final int WARMUP_RENDERS = 3;
+    private static final int MEASURED_RENDERS = 10;
+
+    @MethodSource("fixturesAndEngines")
+    @ParameterizedTest
+    void benchmarkLayout(String system, LayoutEngine engine) throws Exception {
+        assumeTrue(engine != LayoutEngine.GRAPHVIZ || GraphvizUtils.getDotVersion() > 0,
+            "Graphviz dot is not installed");
+        Schema schema = Schema.of(load(system));
+        String filename = system + "-" + engine.name().toLowerCase();
+        PlantUmlProducer producer = PlantUmlProducer.builder()
+            .title(system)
+            .filename(filename)
+            .showOrphanForeignKeys(true)
+            .layoutEngine(engine)
+            .build();
+        Path png = Path.of(filename + ".png");
+
+        try {
+            for (int i = 0; i < WARMUP_RENDERS; i++) {
+                producer.generateDiagram(schema);
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < MEASURED_RENDERS; i++) {
+                producer.generateDiagram(schema);
+            }
+            long elapsed = System.nanoTime() - start;
+
+            assertTrue(Files.size(png) > 0);
+            System.out.printf("%-9s %-8s %d tables %8.1f ms/render%n", system, engine, schema.getTables().size(),
+                elapsed / 1_000_000.0 / MEASURED_RENDERS);
+        } finally {
+            Files.deleteIfExists(png);
+        }
+    }
+
+    private static Stream<Arguments> fixturesAndEngines() {
+        return Stream.of("pim", "mononoth")
+            .flatMap(system -> Stream.of(LayoutEngine.values()).map(engine -> Arguments.of(system, engine)));
+    }
+
+    private static List<Table> load(String system) throws IOException {
+        String packagePath = DatabaseEntityRelationshipGenerator.class.getPackageName().replace(".", File.separator);
+        DatabaseSyntaxParser parser = new MySqlScannerParser();
+        List<Table> tables = new ArrayList<>();
+        try (FileSource source = FileSource.builder()
+            .directoryPath(Path.of("src", "test", "resources", packagePath, system).toString())
+            .build()) {
+            while (source.hasNext()) {
+                Table table = parser.parseTable(source.nextStatement());
+                if (table != null) {
+                    tables.add(table);
+                }
+            }
+        }
+        return tables;
+    }
+}
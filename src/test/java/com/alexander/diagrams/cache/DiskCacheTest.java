@@ -0,0 +1,89 @@
+package com.alexander.diagrams.cache;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DiskCacheTest {
+
+    @TempDir
+    Path cacheDirectory;
+
+    @TempDir
+    Path outputDirectory;
+
+    @Test
+    void testKey_thenHexEncodedSha256() {
+        MessageDigest digest = DiskCache.digest();
+        digest.update("abc".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(DiskCache.key(digest))
+            .isEqualTo("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad");
+    }
+
+    @Test
+    void testRead_givenStored_thenContents() throws IOException {
+        DiskCache cache = cache(10);
+
+        assertNull(cache.read("key"));
+        cache.store("key", output -> output.write(new byte[] {1, 2, 3}));
+
+        assertArrayEquals(new byte[] {1, 2, 3}, cache.read("key"));
+        assertThat(files(cacheDirectory)).containsExactly(cacheDirectory.resolve("key.entry"));
+    }
+
+    @Test
+    void testStore_whenWriteFails_thenNoEntryOrTemporaryFileLeft() throws IOException {
+        DiskCache cache = cache(10);
+
+        assertThrows(RuntimeException.class, () -> cache.store("key", output -> {
+            output.write(1);
+            throw new IOException("disk full");
+        }));
+
+        assertThat(files(cacheDirectory)).isEmpty();
+    }
+
+    @Test
+    void testCopyTo_whenNotStored_thenOutputUntouched() throws IOException {
+        DiskCache cache = cache(10);
+        Path output = Files.write(outputDirectory.resolve("pim.png"), new byte[] {9});
+
+        assertFalse(cache.copyTo("key", output));
+        cache.store("key", out -> out.write(new byte[] {1}));
+        assertThat(output).hasBinaryContent(new byte[] {9});
+        assertTrue(cache.copyTo("key", output));
+
+        assertThat(output).hasBinaryContent(new byte[] {1});
+        assertThat(files(outputDirectory)).noneMatch(file -> file.toString().endsWith(".tmp"));
+    }
+
+    @Test
+    void testDiskCache_givenZeroMaxEntries() {
+        assertThrows(IllegalArgumentException.class, () -> cache(0));
+    }
+
+    private DiskCache cache(int maxEntries) {
+        return new DiskCache(cacheDirectory.toString(), ".entry", maxEntries);
+    }
+
+    private static List<Path> files(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.alexander.diagrams.db;
+
+import com.alexander.diagrams.model.Table;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class CachingSyntaxParserTest {
+
+    private static final String ATTRIBUTES = "CREATE TABLE `attributes` (\n"
+        + "  `attribute_id` int(11) NOT NULL AUTO_INCREMENT,\n"
+        + "  `name` varchar(255) DEFAULT NULL,\n"
+        + "  `attribute_type_id` int(11) NOT NULL,\n"
+        + "  PRIMARY KEY (`attribute_id`),\n"
+        + "  CONSTRAINT `fk_type` FOREIGN KEY (`attribute_type_id`) REFERENCES `attribute_types` (`id`)\n"
+        + ") ENGINE=InnoDB";
+
+    @TempDir
+    Path cacheDirectory;
+
+    private final DatabaseSyntaxParser delegate = spy(new MySqlScannerParser());
+
+    @Test
+    void testParseTable_thenSecondParseIsCached() {
+        CachingSyntaxParser parser = cachingParser(delegate, null);
+
+        Table parsed = parser.parseTable(ATTRIBUTES);
+        Table cached = parser.parseTable(ATTRIBUTES);
+
+        verify(delegate, times(1)).parseTable(ATTRIBUTES);
+        assertThat(cached).usingRecursiveComparison().isEqualTo(parsed);
+        assertThat(cached.getColumns().get(0).isPrimary()).isTrue();
+        assertThat(cached.getColumns().get(0).isAutoIncrement()).isTrue();
+        assertThat(cached.getColumns().get(1).getDefaultValue()).isEqualTo("NULL");
+        assertThat(cached.getColumns().get(2).isForeign()).isTrue();
+        assertEquals(1, parser.getHits());
+        assertEquals(1, parser.getMisses());
+    }
+
+    @Test
+    void testParseTable_givenNewProcess_thenCachedOnDisk() {
+        Table parsed = cachingParser(delegate, null).parseTable(ATTRIBUTES);
+
+        Table cached = cachingParser(delegate, null).parseTable(ATTRIBUTES);
+
+        verify(delegate, times(1)).parseTable(ATTRIBUTES);
+        assertThat(cached).usingRecursiveComparison().isEqualTo(parsed);
+    }
+
+    @Test
+    void testParseTable_givenChangedStatement_thenParsed() {
+        CachingSyntaxParser parser = cachingParser(delegate, null);
+        String changed = ATTRIBUTES.replace("varchar(255)", "varchar(128)");
+
+        parser.parseTable(ATTRIBUTES);
+        Table table = parser.parseTable(changed);
+
+        verify(delegate, times(1)).parseTable(changed);
+        assertThat(table.getColumns().get(1).getScale()).isEqualTo("128");
+    }
+
+    @Test
+    void testParseTable_givenNewParserVersion_thenParsed() {
+        CachingSyntaxParser.builder().parser(delegate).cacheDirectory(cacheDirectory.toString()).parserVersion("1")
+            .build().parseTable(ATTRIBUTES);
+
+        CachingSyntaxParser.builder().parser(delegate).cacheDirectory(cacheDirectory.toString()).parserVersion("2")
+            .build().parseTable(ATTRIBUTES);
+
+        verify(delegate, times(2)).parseTable(ATTRIBUTES);
+    }
+
+    @Test
+    void testParseTable_givenNewDelegateVersion_thenParsed() {
+        cachingParser(delegate, null).parseTable(ATTRIBUTES);
+        doReturn("next").when(delegate).getVersion();
+
+        cachingParser(delegate, null).parseTable(ATTRIBUTES);
+
+        verify(delegate, times(2)).parseTable(ATTRIBUTES);
+    }
+
+    @Test
+    void testGetVersion_thenDelegateVersion() {
+        assertEquals(MySqlScannerParser.VERSION, cachingParser(delegate, null).getVersion());
+    }
+
+    @Test
+    void testParseTable_whenNotACreateTableStatement_thenNotCached() throws IOException {
+        CachingSyntaxParser parser = cachingParser(delegate, null);
+
+        assertNull(parser.parseTable("DROP TABLE `attributes`"));
+        assertNull(parser.parseTable("DROP TABLE `attributes`"));
+
+        verify(delegate, times(2)).parseTable("DROP TABLE `attributes`");
+        assertThat(entries()).isEmpty();
+    }
+
+    @Test
+    void testParseTable_givenCorruptEntry_thenParsedAndRewritten() throws IOException {
+        CachingSyntaxParser parser = cachingParser(delegate, null);
+        Path entry = cacheDirectory.resolve(parser.key(ATTRIBUTES) + ".table");
+        Files.write(entry, new byte[] {1, 2, 3});
+
+        Table table = parser.parseTable(ATTRIBUTES);
+
+        assertThat(table.getName()).isEqualTo("attributes");
+        verify(delegate, times(1)).parseTable(ATTRIBUTES);
+        parser.parseTable(ATTRIBUTES);
+        verify(delegate, times(1)).parseTable(ATTRIBUTES);
+    }
+
+    @Test
+    void testParseTable_givenMaxEntries_thenLeastRecentlyUsedEvicted() throws IOException {
+        CachingSyntaxParser parser = cachingParser(delegate, 2);
+        String first = ATTRIBUTES.replace("attributes", "first");
+        String second = ATTRIBUTES.replace("attributes", "second");
+        String third = ATTRIBUTES.replace("attributes", "third");
+        parser.parseTable(first);
+        parser.parseTable(second);
+        Files.setLastModifiedTime(cacheDirectory.resolve(parser.key(first) + ".table"),
+            FileTime.from(Instant.now().minus(Duration.ofDays(1))));
+
+        parser.parseTable(third);
+
+        assertThat(entries()).hasSize(2);
+        parser.parseTable(second);
+        parser.parseTable(third);
+        parser.parseTable(first);
+        verify(delegate, times(1)).parseTable(second);
+        verify(delegate, times(1)).parseTable(third);
+        verify(delegate, times(2)).parseTable(first);
+    }
+
+    @Test
+    void testEvict_thenAbandonedTempFilesRemoved() throws IOException {
+        CachingSyntaxParser parser = cachingParser(delegate, null);
+        Path abandoned = Files.createFile(cacheDirectory.resolve("abandoned.tmp"));
+        Files.setLastModifiedTime(abandoned, FileTime.from(Instant.now().minus(Duration.ofDays(1))));
+        Path writing = Files.createFile(cacheDirectory.resolve("writing.tmp"));
+
+        parser.evict();
+
+        assertThat(abandoned).doesNotExist();
+        assertThat(writing).exists();
+    }
+
+    @Test
+    void testParseTable_whenSharedBetweenThreadsAndProcesses() throws Exception {
+        List<String> statements = Fixtures.statements();
+        MySqlScannerParser scanner = new MySqlScannerParser();
+        List<Table> expected = statements.stream().map(scanner::parseTable).collect(Collectors.toList());
+        List<CachingSyntaxParser> processes = List.of(cachingParser(scanner, null), cachingParser(scanner, null));
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Table>> parsed = new ArrayList<>();
+        try {
+            for (int round = 0; round < 10; round++) {
+                for (String statement : statements) {
+                    CachingSyntaxParser process = processes.get(parsed.size() % processes.size());
+                    parsed.add(executor.submit(() -> process.parseTable(statement)));
+                }
+            }
+            for (int i = 0; i < parsed.size(); i++) {
+                assertThat(parsed.get(i).get()).usingRecursiveComparison()
+                    .isEqualTo(expected.get(i % statements.size()));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(entries()).hasSize((int) expected.stream().filter(table -> table != null).count());
+        try (Stream<Path> files = Files.list(cacheDirectory)) {
+            assertThat(files.filter(file -> file.toString().endsWith(".tmp"))).isEmpty();
+        }
+    }
+
+    @Test
+    void testClassify_thenDelegated() {
+        CachingSyntaxParser parser = cachingParser(delegate, null);
+
+        ClassifiedLine line = parser.classify("  `id` int(11) NOT NULL,");
+
+        assertEquals(LineType.COLUMN, line.getType());
+        verify(delegate, times(1)).classify("  `id` int(11) NOT NULL,");
+    }
+
+    @Test
+    void testCachingSyntaxParser_givenNoParser() {
+        assertThrows(IllegalArgumentException.class,
+            () -> CachingSyntaxParser.builder().cacheDirectory(cacheDirectory.toString()).build());
+    }
+
+    @Test
+    void testCachingSyntaxParser_givenNoCacheDirectory() {
+        assertThrows(IllegalArgumentException.class, () -> CachingSyntaxParser.builder().parser(delegate).build());
+    }
+
+    @Test
+    void testCachingSyntaxParser_givenUnversionedParser_thenParserVersionRequired() {
+        DatabaseSyntaxParser unversioned = mock(DatabaseSyntaxParser.class);
+
+        assertThrows(IllegalArgumentException.class, () -> cachingParser(unversioned, null));
+        assertEquals(0, CachingSyntaxParser.builder().parser(unversioned).cacheDirectory(cacheDirectory.toString())
+            .parserVersion("1").build().getMisses());
+    }
+
+    @Test
+    void testCachingSyntaxParser_givenZeroMaxEntries() {
+        assertThrows(IllegalArgumentException.class, () -> cachingParser(delegate, 0));
+    }
+
+    private CachingSyntaxParser cachingParser(DatabaseSyntaxParser parser, Integer maxEntries) {
+        return CachingSyntaxParser.builder()
+            .parser(parser)
+            .cacheDirectory(cacheDirectory.toString())
+            .maxEntries(maxEntries)
+            .build();
+    }
+
+    private List<Path> entries() throws IOException {
+        try (Stream<Path> files = Files.list(cacheDirectory)) {
+            return files.filter(file -> file.toString().endsWith(".table")).collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.alexander.diagrams.db;
+
+import com.alexander.diagrams.model.Table;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The create table statements of the generator fixtures, shared by the parser, cache and loader tests.
+ */
+final class Fixtures {
+
+    static final Path DIRECTORY = Path.of("src", "test", "resources", "com", "alexander", "diagrams", "generator");
+
+    private Fixtures() {
+    }
+
+    /**
+     * The .sql fixture files in name order.
+     */
+    static List<Path> files() throws IOException {
+        try (Stream<Path> files = Files.walk(DIRECTORY)) {
+            return files.filter(file -> file.toString().endsWith(".sql"))
+                .sorted()
+                .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * The contents of each fixture file in name order.
+     */
+    static List<String> statements() throws IOException {
+        return files().stream().map(Fixtures::readString).collect(Collectors.toList());
+    }
+
+    /**
+     * The fixtures parsed by the {@link MySqlScannerParser}, leaving out any that are not create table statements.
+     */
+    static List<Table> tables() throws IOException {
+        MySqlScannerParser parser = new MySqlScannerParser();
+        return statements().stream()
+            .map(parser::parseTable)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+    }
+
+    private static String readString(Path file) {
+        try {
+            return Files.readString(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
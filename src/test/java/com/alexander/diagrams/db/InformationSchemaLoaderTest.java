@@ -0,0 +1,190 @@
+package com.alexander.diagrams.db;
+
+import ch.vorburger.exec.ManagedProcessException;
+import ch.vorburger.mariadb4j.DB;
+import ch.vorburger.mariadb4j.DBConfiguration;
+import ch.vorburger.mariadb4j.DBConfigurationBuilder;
+import com.alexander.diagrams.model.Column;
+import com.alexander.diagrams.model.ForeignKey;
+import com.alexander.diagrams.model.Table;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class InformationSchemaLoaderTest {
+
+    private static final int port = 3307;
+    private static final String rootUsername = "root";
+    private static final String rootPassword = "";
+    private static final String database = "loaderdatabase";
+    private static final String databaseUrl = "localhost:" + port;
+
+    private static DB db;
+    private static Connection conn;
+
+    @BeforeAll
+    static void setup() throws ManagedProcessException, SQLException {
+        DBConfiguration configuration = DBConfigurationBuilder.newBuilder()
+            .setPort(port)
+            .addArg("--user=root")
+            .build();
+        db = DB.newEmbeddedDB(configuration);
+        db.start();
+        db.createDB(database, rootUsername, rootPassword);
+        conn = DriverManager
+            .getConnection("jdbc:mysql://" + databaseUrl + "/" + database + "?useTimezone=true&serverTimezone=UTC",
+                rootUsername,
+                rootPassword);
+        for (String statement : List.of(
+            "CREATE TABLE attribute_types ("
+                + "attribute_type_id varchar(36) NOT NULL PRIMARY KEY,"
+                + "name varchar(255) DEFAULT NULL,"
+                + "position int(11) NOT NULL DEFAULT '0',"
+                + "UNIQUE(attribute_type_id)"
+                + ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 ROW_FORMAT=DYNAMIC",
+            "CREATE TABLE attributes ("
+                + "attribute_id int(11) NOT NULL AUTO_INCREMENT,"
+                + "attribute_type_id varchar(36) DEFAULT NULL,"
+                + "price decimal(10,2) NOT NULL,"
+                + "PRIMARY KEY (attribute_id, price),"
+                + "FOREIGN KEY (attribute_type_id) REFERENCES attribute_types (attribute_type_id)"
+                + ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 ROW_FORMAT=DYNAMIC",
+            "CREATE VIEW attribute_names AS SELECT name FROM attribute_types")) {
+            try (PreparedStatement create = conn.prepareStatement(statement)) {
+                create.execute();
+            }
+        }
+    }
+
+    @AfterAll
+    static void teardown() throws ManagedProcessException, SQLException {
+        conn.close();
+        db.stop();
+    }
+
+    @Test
+    void testLoad() {
+        List<Table> tables = loader().load();
+
+        assertThat(tables).extracting(Table::getName).containsExactlyInAnyOrder("attribute_types", "attributes");
+
+        Table attributes = table(tables, "attributes");
+        assertThat(attributes.getColumns()).extracting(Column::getName)
+            .containsExactly("attribute_id", "attribute_type_id", "price");
+        Column attributeId = attributes.getColumns().get(0);
+        assertEquals("int", attributeId.getType());
+        assertThat(attributeId.isAutoIncrement()).isTrue();
+        assertThat(attributeId.isNotNull()).isTrue();
+        assertThat(attributeId.isPrimary()).isTrue();
+        Column price = attributes.getColumns().get(2);
+        assertEquals("decimal", price.getType());
+        assertEquals("10,2", price.getScale());
+        assertThat(price.isPrimary()).isTrue();
+        Column attributeTypeId = attributes.getColumns().get(1);
+        assertThat(attributeTypeId.isForeign()).isTrue();
+        assertEquals("NULL", attributeTypeId.getDefaultValue());
+
+        assertThat(attributes.getPrimaryKeys()).hasSize(1);
+        assertThat(attributes.getPrimaryKeys().get(0).getKeyName()).containsExactly("attribute_id", "price");
+        assertThat(attributes.getForeignKeys()).hasSize(1);
+        ForeignKey foreignKey = attributes.getForeignKeys().get(0);
+        assertEquals("attribute_type_id", foreignKey.getForeignKeyName());
+        assertEquals("attribute_types", foreignKey.getSourceTable());
+        assertEquals("attribute_type_id", foreignKey.getSourceColumn());
+    }
+
+    @Test
+    void testLoad_thenMatchesParsedCreateTableStatements() throws SQLException {
+        DatabaseSyntaxParser parser = new MySqlScannerParser();
+        List<Table> loaded = loader().load();
+
+        for (Table table : loaded) {
+            try (PreparedStatement show = conn.prepareStatement("SHOW CREATE TABLE " + table.getName())) {
+                try (ResultSet result = show.executeQuery()) {
+                    result.next();
+                    assertThat(table)
+                        .usingRecursiveComparison()
+                        .isEqualTo(parser.parseTable(result.getString(2)));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testLoad_givenDataSource() throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(DriverManager.getConnection(
+            "jdbc:mysql://" + databaseUrl + "/" + database + "?useTimezone=true&serverTimezone=UTC",
+            rootUsername, rootPassword));
+
+        List<Table> tables = InformationSchemaLoader.builder()
+            .databaseName(database)
+            .dataSource(dataSource)
+            .build()
+            .load();
+
+        assertThat(tables).extracting(Table::getName).containsExactlyInAnyOrder("attribute_types", "attributes");
+    }
+
+    @Test
+    void testLoad_whenWrongUrl_thenThrowRuntimeException() {
+        InformationSchemaLoader loader = InformationSchemaLoader.builder()
+            .username(rootUsername)
+            .password(rootPassword)
+            .databaseName(database)
+            .databaseUrl("localhost:3399")
+            .build();
+        assertThrows(RuntimeException.class, loader::load);
+    }
+
+    @Test
+    void testBuild_givenNullDatabaseName() {
+        assertThrows(IllegalArgumentException.class, () -> InformationSchemaLoader.builder().build());
+    }
+
+    @Test
+    void testScale() {
+        assertEquals("36", InformationSchemaLoader.scale("varchar(36)"));
+        assertEquals("10,2", InformationSchemaLoader.scale("decimal(10,2) unsigned"));
+        assertNull(InformationSchemaLoader.scale("int"));
+        assertNull(InformationSchemaLoader.scale(null));
+    }
+
+    @Test
+    void testDefaultValue() {
+        assertEquals("NULL", InformationSchemaLoader.defaultValue(null, true, false));
+        assertNull(InformationSchemaLoader.defaultValue(null, false, false));
+        assertEquals("NULL", InformationSchemaLoader.defaultValue("NULL", true, true));
+        assertEquals("'0'", InformationSchemaLoader.defaultValue("0", false, false));
+        assertEquals("CURRENT_TIMESTAMP", InformationSchemaLoader.defaultValue("CURRENT_TIMESTAMP", false, false));
+        assertEquals("0", InformationSchemaLoader.defaultValue("0", false, true));
+        assertEquals("'abc'", InformationSchemaLoader.defaultValue("'abc'", false, true));
+    }
+
+    private static Table table(List<Table> tables, String name) {
+        return tables.stream().filter(table -> name.equals(table.getName())).findFirst().orElseThrow();
+    }
+
+    private InformationSchemaLoader loader() {
+        return InformationSchemaLoader.builder()
+            .username(rootUsername)
+            .password(rootPassword)
+            .databaseName(database)
+            .databaseUrl(databaseUrl)
+            .build();
+    }
+}
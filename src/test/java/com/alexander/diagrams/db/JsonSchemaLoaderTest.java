@@ -0,0 +1,113 @@
+package com.alexander.diagrams.db;
+
+import com.alexander.diagrams.diagram.JsonProducer;
+import com.alexander.diagrams.model.Table;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JsonSchemaLoaderTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testLoad_givenExportedFixtures_thenSameTables() throws IOException {
+        List<Table> tables = Fixtures.tables();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        JsonProducer.builder().outputStream(output).build().generateDiagram(tables);
+
+        List<Table> loaded = JsonSchemaLoader.builder()
+            .inputStream(new ByteArrayInputStream(output.toByteArray()))
+            .build()
+            .load();
+
+        assertThat(loaded).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(tables);
+    }
+
+    @Test
+    void testLoad_givenJsonFile() throws IOException {
+        Path file = directory.resolve("schema.json");
+        Files.writeString(file, "{\"tables\":[{\"name\":\"people\",\"columns\":[{\"name\":\"id\",\"type\":\"int\","
+            + "\"notNull\":true,\"primary\":true}],\"primaryKeys\":[{\"keyName\":[\"id\"]}]}]}");
+
+        List<Table> tables = JsonSchemaLoader.builder().jsonFile(file.toString()).build().load();
+
+        assertThat(tables).hasSize(1);
+        assertThat(tables.get(0).getName()).isEqualTo("people");
+        assertThat(tables.get(0).getColumns().get(0).isNotNull()).isTrue();
+        assertThat(tables.get(0).getColumns().get(0).isPrimary()).isTrue();
+        assertThat(tables.get(0).getColumns().get(0).isForeign()).isFalse();
+        assertThat(tables.get(0).getColumns().get(0).getScale()).isNull();
+        assertThat(tables.get(0).getForeignKeys()).isEmpty();
+        assertThat(tables.get(0).getPrimaryKeys().get(0).getKeyName()).containsExactly("id");
+    }
+
+    @Test
+    void testLoad_givenUnknownFields_thenSkipped() {
+        String json = "{\"version\":{\"major\":1},\"tables\":[{\"name\":\"people\",\"comment\":[1,{\"a\":2}],"
+            + "\"columns\":[{\"name\":\"id\",\"collation\":{\"name\":\"utf8\"}}],"
+            + "\"foreignKeys\":[{\"foreignKeyName\":\"id\",\"onDelete\":\"CASCADE\"}],"
+            + "\"primaryKeys\":[{\"constraint\":\"pk\",\"keyName\":[\"id\"]}]}],\"generated\":\"today\"}";
+
+        List<Table> tables = load(json);
+
+        assertThat(tables).hasSize(1);
+        assertThat(tables.get(0).getColumns().get(0).getName()).isEqualTo("id");
+        assertThat(tables.get(0).getForeignKeys().get(0).getForeignKeyName()).isEqualTo("id");
+        assertThat(tables.get(0).getPrimaryKeys().get(0).getKeyName()).containsExactly("id");
+    }
+
+    @Test
+    void testLoad_givenNoTables() {
+        assertThat(load("{\"tables\":[]}")).isEmpty();
+        assertThat(load("{}")).isEmpty();
+    }
+
+    @Test
+    void testLoad_givenTruncatedJson() {
+        RuntimeException e = assertThrows(RuntimeException.class,
+            () -> load("{\"tables\":[{\"name\":\"people\",\"columns\":[{\"name\":"));
+        assertThat(e.getCause()).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void testLoad_givenNotAnObject() {
+        RuntimeException e = assertThrows(RuntimeException.class, () -> load("[]"));
+        assertThat(e.getCause()).hasMessageStartingWith("Expected START_OBJECT but found START_ARRAY");
+    }
+
+    @Test
+    void testLoad_thenInputStreamLeftOpen() {
+        InputStream input = new ByteArrayInputStream("{}".getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public void close() {
+                throw new IllegalStateException("The input stream should not be closed");
+            }
+        };
+
+        assertThat(JsonSchemaLoader.builder().inputStream(input).build().load()).isEmpty();
+    }
+
+    @Test
+    void testJsonSchemaLoader_givenNoInput() {
+        assertThrows(IllegalArgumentException.class, () -> JsonSchemaLoader.builder().build());
+    }
+
+    private static List<Table> load(String json) {
+        return JsonSchemaLoader.builder()
+            .inputStream(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)))
+            .build()
+            .load();
+    }
+}
@@ -0,0 +1,173 @@
+package com.alexander.diagrams.db;
+
+import com.alexander.diagrams.model.Column;
+import com.alexander.diagrams.model.ForeignKey;
+import com.alexander.diagrams.model.Table;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MetaDataSchemaLoaderTest {
+
+    private static final String jdbcUrl = "jdbc:h2:mem:metadata;DB_CLOSE_DELAY=-1";
+
+    private static Connection conn;
+
+    @BeforeAll
+    static void setup() throws SQLException {
+        conn = DriverManager.getConnection(jdbcUrl, "sa", "");
+        try (Statement statement = conn.createStatement()) {
+            statement.execute("CREATE TABLE attribute_types ("
+                + "attribute_type_id varchar(36) NOT NULL PRIMARY KEY,"
+                + "name varchar(255) DEFAULT NULL,"
+                + "position int NOT NULL DEFAULT 0)");
+            statement.execute("CREATE TABLE attributes ("
+                + "attribute_id int NOT NULL AUTO_INCREMENT,"
+                + "attribute_type_id varchar(36) DEFAULT NULL,"
+                + "price decimal(10,2) NOT NULL,"
+                + "PRIMARY KEY (price, attribute_id),"
+                + "FOREIGN KEY (attribute_type_id) REFERENCES attribute_types (attribute_type_id))");
+            statement.execute("CREATE VIEW attribute_names AS SELECT name FROM attribute_types");
+        }
+    }
+
+    @AfterAll
+    static void teardown() throws SQLException {
+        conn.close();
+    }
+
+    @Test
+    void testLoad() {
+        List<Table> tables = MetaDataSchemaLoader.builder()
+            .jdbcUrl(jdbcUrl)
+            .username("sa")
+            .password("")
+            .build()
+            .load();
+
+        assertThat(tables).extracting(Table::getName).containsExactlyInAnyOrder("ATTRIBUTE_TYPES", "ATTRIBUTES");
+
+        Table attributes = table(tables, "ATTRIBUTES");
+        assertThat(attributes.getColumns()).extracting(Column::getName)
+            .containsExactly("ATTRIBUTE_ID", "ATTRIBUTE_TYPE_ID", "PRICE");
+        Column attributeId = attributes.getColumns().get(0);
+        assertEquals("integer", attributeId.getType());
+        assertNull(attributeId.getScale());
+        assertTrue(attributeId.isAutoIncrement());
+        assertTrue(attributeId.isNotNull());
+        assertTrue(attributeId.isPrimary());
+        assertFalse(attributeId.isForeign());
+
+        Column attributeTypeId = attributes.getColumns().get(1);
+        assertEquals("character varying", attributeTypeId.getType());
+        assertEquals("36", attributeTypeId.getScale());
+        assertEquals("NULL", attributeTypeId.getDefaultValue());
+        assertTrue(attributeTypeId.isForeign());
+
+        Column price = attributes.getColumns().get(2);
+        assertEquals("10,2", price.getScale());
+        assertTrue(price.isPrimary());
+
+        assertThat(attributes.getPrimaryKeys()).hasSize(1);
+        assertThat(attributes.getPrimaryKeys().get(0).getKeyName()).containsExactly("PRICE", "ATTRIBUTE_ID");
+        assertThat(attributes.getForeignKeys()).hasSize(1);
+        ForeignKey foreignKey = attributes.getForeignKeys().get(0);
+        assertEquals("ATTRIBUTE_TYPE_ID", foreignKey.getForeignKeyName());
+        assertEquals("ATTRIBUTE_TYPES", foreignKey.getSourceTable());
+        assertEquals("ATTRIBUTE_TYPE_ID", foreignKey.getSourceColumn());
+
+        Column position = table(tables, "ATTRIBUTE_TYPES").getColumns().get(2);
+        assertEquals("0", position.getDefaultValue());
+    }
+
+    @Test
+    void testLoad_givenDataSource() throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(DriverManager.getConnection(jdbcUrl, "sa", ""));
+
+        List<Table> tables = MetaDataSchemaLoader.builder()
+            .dataSource(dataSource)
+            .schema("PUBLIC")
+            .build()
+            .load();
+
+        assertThat(tables).extracting(Table::getName).containsExactlyInAnyOrder("ATTRIBUTE_TYPES", "ATTRIBUTES");
+    }
+
+    @Test
+    void testLoad_givenEmptySchema() throws SQLException {
+        try (Statement statement = conn.createStatement()) {
+            statement.execute("CREATE SCHEMA IF NOT EXISTS EMPTY");
+        }
+        List<Table> tables = MetaDataSchemaLoader.builder()
+            .jdbcUrl(jdbcUrl)
+            .username("sa")
+            .schema("EMPTY")
+            .build()
+            .load();
+
+        assertThat(tables).isEmpty();
+    }
+
+    @Test
+    void testLoad_givenSchemaWithWildcard_thenOnlyThatSchema() throws SQLException {
+        try (Statement statement = conn.createStatement()) {
+            statement.execute("CREATE SCHEMA IF NOT EXISTS MY_DB");
+            statement.execute("CREATE SCHEMA IF NOT EXISTS MYXDB");
+            statement.execute("CREATE TABLE IF NOT EXISTS MY_DB.ITEMS (item_id int NOT NULL PRIMARY KEY)");
+            statement.execute("CREATE TABLE IF NOT EXISTS MYXDB.ITEMS (other_id int NOT NULL PRIMARY KEY, "
+                + "name varchar(10))");
+        }
+        List<Table> tables = MetaDataSchemaLoader.builder()
+            .jdbcUrl(jdbcUrl)
+            .username("sa")
+            .schema("MY_DB")
+            .build()
+            .load();
+
+        assertThat(tables).extracting(Table::getName).containsExactly("ITEMS");
+        assertThat(tables.get(0).getColumns()).extracting(Column::getName).containsExactly("ITEM_ID");
+        assertThat(tables.get(0).getPrimaryKeys().get(0).getKeyName()).containsExactly("ITEM_ID");
+    }
+
+    @Test
+    void testEscapePattern() {
+        assertEquals("my\\_db\\%\\\\", MetaDataSchemaLoader.escapePattern("my_db%\\", "\\"));
+        assertEquals("my_db", MetaDataSchemaLoader.escapePattern("my_db", ""));
+        assertNull(MetaDataSchemaLoader.escapePattern(null, "\\"));
+    }
+
+    @Test
+    void testLoad_whenConnectionFails_thenThrowRuntimeException() throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenThrow(SQLException.class);
+
+        MetaDataSchemaLoader loader = MetaDataSchemaLoader.builder().dataSource(dataSource).build();
+
+        assertThrows(RuntimeException.class, loader::load);
+    }
+
+    @Test
+    void testBuild_givenNoConnectionDetails() {
+        assertThrows(IllegalArgumentException.class, () -> MetaDataSchemaLoader.builder().build());
+    }
+
+    private static Table table(List<Table> tables, String name) {
+        return tables.stream().filter(table -> name.equals(table.getName())).findFirst().orElseThrow();
+    }
+}
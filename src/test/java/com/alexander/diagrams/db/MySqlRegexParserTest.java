@@ -5,7 +5,15 @@ import com.alexander.diagrams.model.ForeignKey;
 import com.alexander.diagrams.model.PrimaryKey;
 import com.alexander.diagrams.model.Table;
 import com.alexander.diagrams.model.UniqueConstraint;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 
@@ -14,7 +22,11 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 class MySqlRegexParserTest {
 
-    private MySqlRegexParser parser = new MySqlRegexParser();
+    protected DatabaseSyntaxParser parser = createParser();
+
+    protected DatabaseSyntaxParser createParser() {
+        return new MySqlRegexParser();
+    }
 
     @Test
     void testToTable() {
@@ -24,6 +36,15 @@ class MySqlRegexParserTest {
         assertThat(table.getName()).isEqualTo("attribute_values");
     }
 
+    @Test
+    void testToTable_givenDigitsInName() {
+        assertThat(parser.toTable("CREATE TABLE `t1` (").getName()).isEqualTo("t1");
+        assertThat(parser.parseTable("CREATE TABLE `order_2023` (\n"
+            + "  `id` int(11) NOT NULL,\n"
+            + "  PRIMARY KEY (`id`)\n"
+            + ") ENGINE=InnoDB").getName()).isEqualTo("order_2023");
+    }
+
     @Test
     void testToTable_whenNotACreateTableStatement() {
         String input = "  `id` int(11) NOT NULL AUTO_INCREMENT,";
@@ -222,4 +243,173 @@ class MySqlRegexParserTest {
                 UniqueConstraint.builder().indexName(" ").build());
     }
 
+    @Test
+    void testClassify_table() {
+        ClassifiedLine line = parser.classify("CREATE TABLE `attribute_values` (");
+        assertThat(line.getType()).isEqualTo(LineType.TABLE);
+        assertThat(line.getTable().getName()).isEqualTo("attribute_values");
+    }
+
+    @Test
+    void testClassify_column() {
+        ClassifiedLine line = parser.classify("  `id` int(11) NOT NULL AUTO_INCREMENT,");
+        assertThat(line.getType()).isEqualTo(LineType.COLUMN);
+        assertThat(line.getColumn().getName()).isEqualTo("id");
+        assertThat(line.getForeignKey()).isNull();
+        assertThat(line.getPrimaryKey()).isNull();
+    }
+
+    @Test
+    void testClassify_primaryKey() {
+        ClassifiedLine line = parser.classify("  PRIMARY KEY (`inventory_id`,`attribute_value_id`),");
+        assertThat(line.getType()).isEqualTo(LineType.PRIMARY_KEY);
+        assertThat(line.getPrimaryKey().getKeyName()).isEqualTo(List.of("inventory_id","attribute_value_id"));
+    }
+
+    @Test
+    void testClassify_foreignKey() {
+        ClassifiedLine line = parser.classify(
+            "  CONSTRAINT `attributes_ibfk_1` FOREIGN KEY (`attribute_type_id`) REFERENCES `attribute_types` "
+                + "(`attribute_type_id`) ON DELETE SET NULL");
+        assertThat(line.getType()).isEqualTo(LineType.FOREIGN_KEY);
+        assertThat(line.getForeignKey().getForeignKeyName()).isEqualTo("attribute_type_id");
+        assertThat(line.getForeignKey().getSourceTable()).isEqualTo("attribute_types");
+    }
+
+    @Test
+    void testClassify_key() {
+        assertThat(parser.classify("  KEY `attribute_type_id` (`attribute_type_id`),").getType())
+            .isEqualTo(LineType.KEY);
+    }
+
+    @Test
+    void testClassify_end() {
+        assertThat(parser.classify(") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 ROW_FORMAT=DYNAMIC").getType())
+            .isEqualTo(LineType.END);
+    }
+
+    @Test
+    void testClassify_whenLeadingTokenMatchesButLineDoesNot() {
+        ClassifiedLine line = parser.classify("  `notes`,");
+        assertThat(line.getType()).isEqualTo(LineType.UNKNOWN);
+        assertThat(line.getColumn()).isNull();
+    }
+
+    @Test
+    void testClassify_whenLeadingTokenUnknown() {
+        assertThat(parser.classify(" aBa ").getType()).isEqualTo(LineType.UNKNOWN);
+        assertThat(parser.classify("").getType()).isEqualTo(LineType.UNKNOWN);
+        assertThat(parser.classify("  KEYS").getType()).isEqualTo(LineType.UNKNOWN);
+    }
+
+    @Test
+    void testParseTable() throws IOException {
+        Table table = parser.parseTable(Files.readString(Path.of("src", "test", "resources", "com", "alexander",
+            "diagrams", "generator", "pim", "attributes.sql")));
+
+        assertThat(table.getName()).isEqualTo("attributes");
+        assertThat(table.getColumns()).extracting(Column::getName).containsExactly("attribute_id", "name",
+            "description", "attribute_type_id", "label_partner", "label_customer", "is_legacy",
+            "max_selectable_attribute_values", "position", "is_mandatory");
+        assertThat(table.getPrimaryKeys()).hasSize(1);
+        assertThat(table.getForeignKeys()).extracting(ForeignKey::getSourceTable).containsExactly("attribute_types");
+        assertThat(table.getColumns()).filteredOn(Column::isPrimary).extracting(Column::getName)
+            .containsExactly("attribute_id");
+        assertThat(table.getColumns()).filteredOn(Column::isForeign).extracting(Column::getName)
+            .containsExactly("attribute_type_id");
+        assertThat(table.getColumns().get(8).getDefaultValue()).isEqualTo("'0'");
+    }
+
+    @Test
+    void testParseTable_givenDecimalAndCompositeKey() {
+        Table table = parser.parseTable("CREATE TABLE `prices` (\n"
+            + "  `product_id` int(11) NOT NULL,\n"
+            + "  `gross_price` decimal(14,6) DEFAULT NULL,\n"
+            + "  PRIMARY KEY (`product_id`,`gross_price`),\n"
+            + "  KEY `gross_price` (`gross_price`)\n"
+            + ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4");
+
+        assertThat(table.getName()).isEqualTo("prices");
+        assertThat(table.getColumns()).hasSize(2);
+        assertThat(table.getColumns().get(1).getScale()).isEqualTo("14,6");
+        assertThat(table.getColumns()).allMatch(Column::isPrimary);
+    }
+
+    @Test
+    void testParseTable_thenIdentifiersShared() {
+        Table people = parser.parseTable("CREATE TABLE `people` (\n"
+            + "  `id` int(11) NOT NULL,\n"
+            + "  PRIMARY KEY (`id`),\n"
+            + ") ENGINE=InnoDB");
+        Table products = parser.parseTable("CREATE TABLE `products` (\n"
+            + "  `id` int(11) NOT NULL,\n"
+            + "  `owner_id` int(11) NOT NULL,\n"
+            + "  PRIMARY KEY (`id`),\n"
+            + "  CONSTRAINT `fk_owner` FOREIGN KEY (`owner_id`) REFERENCES `people` (`id`)\n"
+            + ") ENGINE=InnoDB");
+
+        Column id = people.getColumns().get(0);
+        assertThat(products.getForeignKeys().get(0).getSourceTable()).isSameAs(people.getName());
+        assertThat(products.getForeignKeys().get(0).getSourceColumn()).isSameAs(id.getName());
+        assertThat(products.getColumns().get(0).getName()).isSameAs(id.getName());
+        assertThat(products.getColumns().get(1).getType()).isSameAs(id.getType());
+        assertThat(products.getColumns().get(1).getScale()).isSameAs(id.getScale());
+        assertThat(products.getPrimaryKeys().get(0).getKeyName().get(0)).isSameAs(id.getName());
+    }
+
+    @Test
+    void testParseTable_givenSeparateParsers_thenIdentifiersNotShared() {
+        String statement = "CREATE TABLE `people` (\n"
+            + "  `id` int(11) NOT NULL,\n"
+            + ") ENGINE=InnoDB";
+
+        Table first = parser.parseTable(statement);
+        Table second = createParser().parseTable(statement);
+
+        assertThat(second.getName()).isEqualTo(first.getName()).isNotSameAs(first.getName());
+        assertThat(second.getColumns().get(0).getName()).isNotSameAs(first.getColumns().get(0).getName());
+    }
+
+    @Test
+    void testParseTable_thenDefaultValuesNotShared() {
+        String statement = "CREATE TABLE `people` (\n"
+            + "  `id` int(11) DEFAULT NULL,\n"
+            + "  `owner_id` int(11) DEFAULT NULL,\n"
+            + ") ENGINE=InnoDB";
+
+        Table table = parser.parseTable(statement);
+
+        assertThat(table.getColumns().get(1).getDefaultValue()).isEqualTo("NULL")
+            .isNotSameAs(table.getColumns().get(0).getDefaultValue());
+    }
+
+    @Test
+    void testParseTable_whenNotACreateTableStatement() {
+        assertThat(parser.parseTable("  `id` int(11) NOT NULL AUTO_INCREMENT,")).isNull();
+        assertThat(parser.parseTable("")).isNull();
+        assertThat(parser.parseTable("CREATE TABLE `attribute_values`")).isNull();
+    }
+
+    @Test
+    void testParseTable_whenSharedBetweenThreads() throws Exception {
+        List<String> statements = Fixtures.statements();
+        List<Table> expected = statements.stream().map(parser::parseTable).collect(Collectors.toList());
+        assertThat(expected).isNotEmpty();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Table>> parsed = new ArrayList<>();
+        try {
+            for (int round = 0; round < 20; round++) {
+                for (String statement : statements) {
+                    parsed.add(executor.submit(() -> parser.parseTable(statement)));
+                }
+            }
+            for (int i = 0; i < parsed.size(); i++) {
+                assertThat(parsed.get(i).get()).usingRecursiveComparison()
+                    .isEqualTo(expected.get(i % statements.size()));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 }
@@ -0,0 +1,162 @@
+package com.alexander.diagrams.db;
+
+import com.alexander.diagrams.model.Column;
+import com.alexander.diagrams.model.ForeignKey;
+import com.alexander.diagrams.model.PrimaryKey;
+import com.alexander.diagrams.model.Table;
+import com.alexander.diagrams.model.UniqueConstraint;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs every {@link MySqlRegexParserTest} case against the {@link MySqlScannerParser} as well as its own cases.
+ */
+class MySqlScannerParserTest extends MySqlRegexParserTest {
+
+    @Override
+    protected DatabaseSyntaxParser createParser() {
+        return new MySqlScannerParser();
+    }
+
+    @Override
+    @Test
+    void testToUniqueConstraint() {
+        UniqueConstraint uniqueConstraint =
+            parser.toUniqueConstraint("  UNIQUE KEY `inventory_id` (`inventory_id`,`attribute_value_id`)");
+        assertThat(uniqueConstraint.getIndexName()).isEqualTo("inventory_id");
+        assertThat(uniqueConstraint.getColumnNames()).isEqualTo(List.of("inventory_id", "attribute_value_id"));
+    }
+
+    @Override
+    @Test
+    void testToUniqueConstraint_whenNotAUniqueConstraint() {
+        assertThat(parser.toUniqueConstraint(" aBa ")).isNull();
+        assertThat(parser.toUniqueConstraint(" ")).isNull();
+        assertThat(parser.toUniqueConstraint("  UNIQUE KEY `inventory_id` (`inventory_id`")).isNull();
+    }
+
+    @Test
+    void testToColumn_anyDataType() {
+        Column column = parser.toColumn("  `notes` mediumtext COLLATE utf8mb4_unicode_ci,");
+        assertThat(column.getName()).isEqualTo("notes");
+        assertThat(column.getType()).isEqualTo("mediumtext");
+        assertThat(column.getScale()).isNull();
+    }
+
+    @Test
+    void testToColumn_attributesInAnyOrder() {
+        Column column = parser.toColumn("  `id` int(11) unsigned AUTO_INCREMENT COMMENT 'a, (b)' NOT NULL");
+        assertThat(column.getType()).isEqualTo("int");
+        assertThat(column.getScale()).isEqualTo("11");
+        assertThat(column.isAutoIncrement()).isTrue();
+        assertThat(column.isNotNull()).isTrue();
+        assertThat(column.getDefaultValue()).isNull();
+    }
+
+    @Test
+    void testToColumn_defaultValues() {
+        assertThat(parser.toColumn("  `involvement` varchar(255) NOT NULL DEFAULT '',").getDefaultValue())
+            .isEqualTo("''");
+        assertThat(parser.toColumn("  `title` varchar(255) DEFAULT 'it''s, here',").getDefaultValue())
+            .isEqualTo("'it''s, here'");
+        assertThat(parser.toColumn("  `created_at` datetime DEFAULT CURRENT_TIMESTAMP,").getDefaultValue())
+            .isEqualTo("CURRENT_TIMESTAMP");
+    }
+
+    @Test
+    void testToColumn_enumScale() {
+        Column column = parser.toColumn("  `state` enum('open','closed(ish)') DEFAULT 'open',");
+        assertThat(column.getType()).isEqualTo("enum");
+        assertThat(column.getScale()).isEqualTo("'open','closed(ish)'");
+    }
+
+    @Test
+    void testToColumn_whenNoDataType() {
+        assertThat(parser.toColumn("  `id`,")).isNull();
+        assertThat(parser.toColumn("  ``  int(11),")).isNull();
+    }
+
+    @Test
+    void testToForeignKey_discardsReferentialActions() {
+        ForeignKey foreignKey = parser.toForeignKey("  CONSTRAINT `attributes_ibfk_1` FOREIGN KEY (`attribute_type_id`) "
+            + "REFERENCES `attribute_types` (`attribute_type_id`) ON DELETE SET NULL ON UPDATE CASCADE");
+        assertThat(foreignKey.getForeignKeyName()).isEqualTo("attribute_type_id");
+        assertThat(foreignKey.getSourceTable()).isEqualTo("attribute_types");
+        assertThat(foreignKey.getSourceColumn()).isEqualTo("attribute_type_id");
+    }
+
+    @Test
+    void testToForeignKey_whenCompositeKey() {
+        assertThat(parser.toForeignKey("  CONSTRAINT `fk` FOREIGN KEY (`a`,`b`) REFERENCES `other` (`a`,`b`)"))
+            .isNull();
+    }
+
+    @Test
+    void testToPrimaryKey_withoutTrailingComma() {
+        PrimaryKey primaryKey = parser.toPrimaryKey("  PRIMARY KEY (`id`) USING BTREE");
+        assertThat(primaryKey.getKeyName()).isEqualTo(List.of("id"));
+    }
+
+    @Test
+    void testToTable_whenNoOpeningParenthesis() {
+        assertThat(parser.toTable("CREATE TABLE `attribute_values`").getName()).isEmpty();
+    }
+
+    @Test
+    void testParseTable_givenMultiLineDefinitions() {
+        Table table = parser.parseTable("CREATE TABLE `orders` (\n"
+            + "  `id` int(11)\n"
+            + "    NOT NULL AUTO_INCREMENT,\n"
+            + "  `note` varchar(255) DEFAULT 'a, (b)\n c',\n"
+            + "  `customer_id` int(11) DEFAULT NULL,\n"
+            + "  CONSTRAINT `orders_ibfk_1` FOREIGN KEY (`customer_id`)\n"
+            + "    REFERENCES `customers` (`id`) ON DELETE CASCADE,\n"
+            + "  PRIMARY KEY (`id`)\n"
+            + ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4");
+
+        assertThat(table.getName()).isEqualTo("orders");
+        assertThat(table.getColumns()).extracting(Column::getName).containsExactly("id", "note", "customer_id");
+        assertThat(table.getColumns().get(0).isNotNull()).isTrue();
+        assertThat(table.getColumns().get(0).isPrimary()).isTrue();
+        assertThat(table.getColumns().get(1).getDefaultValue()).isEqualTo("'a, (b)\n c'");
+        assertThat(table.getColumns().get(2).isForeign()).isTrue();
+        assertThat(table.getForeignKeys()).extracting(ForeignKey::getSourceTable).containsExactly("customers");
+    }
+
+    @Test
+    void testParity_withRegexParser() throws IOException {
+        MySqlRegexParser regexParser = new MySqlRegexParser();
+        List<String> lines = Fixtures.files().stream()
+            .flatMap(file -> readAllLines(file).stream())
+            .collect(Collectors.toList());
+        assertThat(lines).isNotEmpty();
+
+        for (String line : lines) {
+            assertThat(parser.toTable(line)).usingRecursiveComparison().isEqualTo(regexParser.toTable(line));
+            assertParity(parser.toColumn(line), regexParser.toColumn(line));
+            assertParity(parser.toForeignKey(line), regexParser.toForeignKey(line));
+            assertParity(parser.toPrimaryKey(line), regexParser.toPrimaryKey(line));
+        }
+    }
+
+    private void assertParity(Object scanned, Object matched) {
+        if (matched != null) {
+            assertThat(scanned).usingRecursiveComparison().isEqualTo(matched);
+        }
+    }
+
+    private static List<String> readAllLines(Path file) {
+        try {
+            return Files.readAllLines(file);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
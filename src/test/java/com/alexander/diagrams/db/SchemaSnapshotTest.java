@@ -0,0 +1,194 @@
+package com.alexander.diagrams.db;
+
+import com.alexander.diagrams.model.Column;
+import com.alexander.diagrams.model.ForeignKey;
+import com.alexander.diagrams.model.PrimaryKey;
+import com.alexander.diagrams.model.Table;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SchemaSnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testLoad_givenSavedFixtures_thenSameTables() throws IOException {
+        List<Table> tables = Fixtures.tables();
+        SchemaSnapshot snapshot = snapshot(false);
+
+        snapshot.save(tables);
+
+        assertThat(snapshot.load()).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(tables);
+    }
+
+    @Test
+    void testLoad_givenMemoryMapped_thenSameTables() throws IOException {
+        List<Table> tables = Fixtures.tables();
+        snapshot(false).save(tables);
+
+        assertThat(snapshot(true).load()).usingRecursiveFieldByFieldElementComparator()
+            .containsExactlyElementsOf(tables);
+    }
+
+    @Test
+    void testLoad_givenColumnFlags() {
+        List<Table> tables = List.of(Table.builder()
+            .name("flags")
+            .columns(List.of(
+                Column.builder().name("none").build(),
+                Column.builder().name("all").notNull(true).notDefault(true).primary(true).foreign(true)
+                    .autoIncrement(true).build(),
+                Column.builder().name("some").notNull(true).foreign(true).build()))
+            .build());
+        SchemaSnapshot snapshot = snapshot(false);
+
+        snapshot.save(tables);
+
+        assertThat(snapshot.load()).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(tables);
+    }
+
+    @Test
+    void testLoad_givenNullValues_thenNullsAndEmptyLists() {
+        Table table = Table.builder().name(null).build();
+        table.setColumns(null);
+        table.setForeignKeys(Arrays.asList(ForeignKey.builder().build()));
+        table.setPrimaryKeys(null);
+        SchemaSnapshot snapshot = snapshot(false);
+
+        snapshot.save(List.of(table));
+        Table loaded = snapshot.load().get(0);
+
+        assertThat(loaded.getName()).isNull();
+        assertThat(loaded.getColumns()).isEmpty();
+        assertThat(loaded.getPrimaryKeys()).isEmpty();
+        assertThat(loaded.getForeignKeys()).hasSize(1);
+        assertThat(loaded.getForeignKeys().get(0).getForeignKeyName()).isNull();
+    }
+
+    @Test
+    void testLoad_givenLongIdentifiers_thenMultiByteVarints() {
+        String longName = "n".repeat(20_000);
+        String unicode = "täble_日本";
+        List<Table> tables = List.of(Table.builder()
+            .name(unicode)
+            .columns(List.of(Column.builder().name(longName).defaultValue("'" + longName + "'").build()))
+            .build());
+        SchemaSnapshot snapshot = snapshot(false);
+
+        snapshot.save(tables);
+
+        assertThat(snapshot.load()).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(tables);
+    }
+
+    @Test
+    void testWrite_thenIdentifiersWrittenOnce() throws IOException {
+        List<Table> tables = IntStream.range(0, 100)
+            .mapToObj(i -> Table.builder()
+                .name("table_" + i)
+                .columns(List.of(Column.builder().name("shared_column_name").type("varchar").scale("255").build()))
+                .primaryKeys(List.of(PrimaryKey.builder().keyName(List.of("shared_column_name")).build()))
+                .build())
+            .collect(Collectors.toList());
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        SchemaSnapshot.write(tables, output);
+
+        String written = output.toString(StandardCharsets.ISO_8859_1);
+        assertThat(written.indexOf("shared_column_name")).isEqualTo(written.lastIndexOf("shared_column_name"));
+        assertThat(SchemaSnapshot.read(ByteBuffer.wrap(output.toByteArray())))
+            .usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(tables);
+    }
+
+    @Test
+    void testLoad_givenManyTables() {
+        List<Table> tables = IntStream.range(0, 5_000)
+            .mapToObj(i -> Table.builder()
+                .name("table_" + i)
+                .columns(List.of(
+                    Column.builder().name("id").type("int").scale("11").notNull(true).primary(true).build(),
+                    Column.builder().name("parent_id").type("int").scale("11").foreign(true).build()))
+                .foreignKeys(List.of(ForeignKey.builder().foreignKeyName("parent_id")
+                    .sourceTable("table_" + (i / 2)).sourceColumn("id").build()))
+                .primaryKeys(List.of(PrimaryKey.builder().keyName(List.of("id")).build()))
+                .build())
+            .collect(Collectors.toList());
+        SchemaSnapshot snapshot = snapshot(true);
+
+        snapshot.save(tables);
+        List<Table> loaded = snapshot.load();
+
+        assertThat(loaded).hasSize(5_000);
+        assertThat(loaded.get(4_999).getForeignKeys().get(0).getSourceTable()).isEqualTo("table_2499");
+    }
+
+    @Test
+    void testLoad_givenTruncatedSnapshot() throws IOException {
+        snapshot(false).save(Fixtures.tables());
+        Path file = directory.resolve("schema.snapshot");
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length / 2));
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> snapshot(false).load());
+        assertThat(e.getCause()).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void testLoad_givenNotASnapshot() throws IOException {
+        Files.writeString(directory.resolve("schema.snapshot"), "CREATE TABLE `attributes` (");
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> snapshot(false).load());
+        assertThat(e.getCause()).hasMessage("Not a schema snapshot");
+    }
+
+    @Test
+    void testLoad_givenUnsupportedVersion() throws IOException {
+        Files.write(directory.resolve("schema.snapshot"), new byte[] {0x44, 0x44, 0x53, 0x53, 0x7F, 0});
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> snapshot(false).load());
+        assertThat(e.getCause()).hasMessageStartingWith("Unsupported schema snapshot version 127");
+    }
+
+    @Test
+    void testLoad_whenNoSnapshot() {
+        assertThrows(RuntimeException.class, () -> snapshot(false).load());
+    }
+
+    @Test
+    void testSave_thenNoTemporaryFilesLeft() throws IOException {
+        SchemaSnapshot snapshot = snapshot(false);
+
+        snapshot.save(Fixtures.tables());
+        snapshot.save(Fixtures.tables());
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files).containsExactly(directory.resolve("schema.snapshot"));
+        }
+    }
+
+    @Test
+    void testSchemaSnapshot_givenNoFile() {
+        assertThrows(IllegalArgumentException.class, () -> SchemaSnapshot.builder().build());
+    }
+
+    private SchemaSnapshot snapshot(boolean memoryMapped) {
+        return SchemaSnapshot.builder()
+            .snapshotFile(directory.resolve("schema.snapshot").toString())
+            .memoryMapped(memoryMapped)
+            .build();
+    }
+}
@@ -0,0 +1,109 @@
+package com.alexander.diagrams.db;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SymbolTableTest {
+
+    @Test
+    void testIntern_thenSameInstance() {
+        SymbolTable symbols = new SymbolTable(16);
+
+        String first = symbols.intern("  `created_at` datetime", 3, 13);
+        String second = symbols.intern(new StringBuilder("`created_at`"), 1, 11);
+
+        assertThat(first).isEqualTo("created_at");
+        assertThat(second).isSameAs(first);
+        assertThat(symbols.intern(new String("created_at".toCharArray()))).isSameAs(first);
+    }
+
+    @Test
+    void testIntern_givenDifferentNames_thenDifferentInstances() {
+        SymbolTable symbols = new SymbolTable(16);
+
+        assertThat(symbols.intern("id")).isEqualTo("id");
+        assertThat(symbols.intern("ID")).isEqualTo("ID");
+        assertThat(symbols.intern("id_")).isEqualTo("id_");
+        assertThat(symbols.intern("")).isEmpty();
+    }
+
+    @Test
+    void testIntern_givenNull() {
+        assertNull(new SymbolTable(16).intern(null));
+    }
+
+    @Test
+    void testIntern_givenFullTable_thenNotInterned() {
+        SymbolTable symbols = new SymbolTable(8);
+        List<String> names = IntStream.range(0, 8).mapToObj(i -> "name_" + i).collect(Collectors.toList());
+        names.forEach(symbols::intern);
+
+        String overflow = new String("overflow".toCharArray());
+
+        assertThat(symbols.intern(overflow)).isSameAs(overflow);
+        assertThat(symbols.intern("overflow", 0, 8)).isEqualTo("overflow").isNotSameAs(overflow);
+        for (String name : names) {
+            assertThat(symbols.intern(new String(name.toCharArray()))).isSameAs(symbols.intern(name));
+        }
+    }
+
+    @Test
+    void testIntern_givenLongText_thenNotInterned() {
+        SymbolTable symbols = new SymbolTable(16);
+        String longDefault = "'" + "x".repeat(100) + "'";
+
+        assertThat(symbols.intern(longDefault)).isSameAs(longDefault);
+        assertThat(symbols.intern(new String(longDefault.toCharArray()))).isNotSameAs(longDefault);
+    }
+
+    @Test
+    void testIntern_whenSharedBetweenThreads_thenOneInstancePerName() throws Exception {
+        SymbolTable symbols = new SymbolTable(1 << 10);
+        List<String> names = IntStream.range(0, 200).mapToObj(i -> "column_" + i).collect(Collectors.toList());
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<String>>> interned = new ArrayList<>();
+        try {
+            for (int thread = 0; thread < 8; thread++) {
+                interned.add(executor.submit(() -> {
+                    start.await();
+                    List<String> canonical = new ArrayList<>();
+                    for (String name : names) {
+                        canonical.add(symbols.intern(new StringBuilder(name), 0, name.length()));
+                    }
+                    return canonical;
+                }));
+            }
+            start.countDown();
+            for (int i = 0; i < names.size(); i++) {
+                Set<String> instances = Collections.newSetFromMap(new IdentityHashMap<>());
+                for (Future<List<String>> future : interned) {
+                    instances.add(future.get().get(i));
+                }
+                assertThat(instances).hasSize(1).containsExactly(names.get(i));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testSymbolTable_givenCapacityNotAPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new SymbolTable(12));
+        assertThrows(IllegalArgumentException.class, () -> new SymbolTable(0));
+    }
+}
@@ -0,0 +1,83 @@
+package com.alexander.diagrams.db;
+
+import com.alexander.diagrams.model.Column;
+import com.alexander.diagrams.model.ForeignKey;
+import com.alexander.diagrams.model.PrimaryKey;
+import com.alexander.diagrams.model.Table;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TableAssemblerTest {
+
+    @Test
+    void testBuild() {
+        TableAssembler assembler = new TableAssembler("test_table");
+        assembler.add(ClassifiedLine.builder().type(LineType.COLUMN)
+            .column(Column.builder().name("id").type("int").build()).build());
+        assembler.add(ClassifiedLine.builder().type(LineType.COLUMN)
+            .column(Column.builder().name("parent_id").type("int").build()).build());
+        assembler.add(ClassifiedLine.builder().type(LineType.PRIMARY_KEY)
+            .primaryKey(PrimaryKey.builder().keyName(List.of("id")).build()).build());
+        assembler.add(ClassifiedLine.builder().type(LineType.FOREIGN_KEY)
+            .foreignKey(ForeignKey.builder().foreignKeyName("parent_id").sourceTable("parent").build()).build());
+        assembler.add(ClassifiedLine.builder().type(LineType.KEY).build());
+
+        Table table = assembler.build();
+
+        assertThat(table.getName()).isEqualTo("test_table");
+        assertThat(table.getColumns()).extracting(Column::getName).containsExactly("id", "parent_id");
+        assertThat(table.getColumns().get(0).isPrimary()).isTrue();
+        assertThat(table.getColumns().get(0).isForeign()).isFalse();
+        assertThat(table.getColumns().get(0).getType()).isEqualTo("int");
+        assertThat(table.getColumns().get(1).isPrimary()).isFalse();
+        assertThat(table.getColumns().get(1).isForeign()).isTrue();
+        assertThat(table.getPrimaryKeys()).hasSize(1);
+        assertThat(table.getForeignKeys()).hasSize(1);
+    }
+
+    @Test
+    void testBuild_givenKeysWithoutColumns_thenKeysKept() {
+        TableAssembler assembler = new TableAssembler("test_table");
+        assembler.add(ClassifiedLine.builder().type(LineType.UNKNOWN).build());
+        assembler.add(ClassifiedLine.builder().type(LineType.COLUMN)
+            .column(Column.builder().name("key2").build()).build());
+        assembler.add(ClassifiedLine.builder().type(LineType.PRIMARY_KEY)
+            .primaryKey(PrimaryKey.builder().keyName(List.of("key1")).build()).build());
+        assembler.add(ClassifiedLine.builder().type(LineType.FOREIGN_KEY)
+            .foreignKey(ForeignKey.builder().foreignKeyName("key1").build()).build());
+
+        Table table = assembler.build();
+
+        assertThat(table.getColumns()).hasSize(1);
+        assertThat(table.getColumns().get(0).isPrimary()).isFalse();
+        assertThat(table.getColumns().get(0).isForeign()).isFalse();
+        assertThat(table.getPrimaryKeys()).hasSize(1);
+        assertThat(table.getForeignKeys()).hasSize(1);
+    }
+
+    @Test
+    void testBuild_givenWideTable_thenOnlyKeyColumnsCopied() {
+        List<Column> columns = IntStream.range(0, 300)
+            .mapToObj(i -> Column.builder().name("column" + i).build())
+            .collect(Collectors.toList());
+        TableAssembler assembler = new TableAssembler("wide_table");
+        columns.forEach(assembler::addColumn);
+        IntStream.range(0, 30).forEach(i -> assembler.addForeignKey(
+            ForeignKey.builder().foreignKeyName("column" + (i * 10)).build()));
+
+        Table table = assembler.build();
+
+        for (int i = 0; i < columns.size(); i++) {
+            if (i % 10 == 0) {
+                assertThat(table.getColumns().get(i).isForeign()).isTrue();
+                assertThat(table.getColumns().get(i)).isNotSameAs(columns.get(i));
+            } else {
+                assertThat(table.getColumns().get(i)).isSameAs(columns.get(i));
+            }
+        }
+    }
+}
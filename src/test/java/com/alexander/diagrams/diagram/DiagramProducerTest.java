@@ -0,0 +1,40 @@
+package com.alexander.diagrams.diagram;
+
+import com.alexander.diagrams.model.Schema;
+import com.alexander.diagrams.model.Table;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DiagramProducerTest {
+
+    @Test
+    void testStartDiagram_thenTablesPassedToGenerateDiagramOnComplete() {
+        List<List<Table>> generated = new ArrayList<>();
+        DiagramProducer producer = generated::add;
+        Table first = Table.builder().name("first").build();
+        Table second = Table.builder().name("second").build();
+
+        IncrementalDiagram diagram = producer.startDiagram();
+        diagram.add(first);
+        diagram.add(second);
+        assertThat(generated).isEmpty();
+        diagram.complete();
+
+        assertThat(generated).containsExactly(List.of(first, second));
+    }
+
+    @Test
+    void testGenerateDiagram_givenSchema_thenTablesPassedToGenerateDiagram() {
+        List<List<Table>> generated = new ArrayList<>();
+        DiagramProducer producer = generated::add;
+        Table first = Table.builder().name("first").build();
+        Table second = Table.builder().name("second").build();
+
+        producer.generateDiagram(Schema.of(List.of(first, second)));
+
+        assertThat(generated).containsExactly(List.of(first, second));
+    }
+}
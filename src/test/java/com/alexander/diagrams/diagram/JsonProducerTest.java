@@ -0,0 +1,153 @@
+package com.alexander.diagrams.diagram;
+
+import com.alexander.diagrams.model.Column;
+import com.alexander.diagrams.model.ForeignKey;
+import com.alexander.diagrams.model.PrimaryKey;
+import com.alexander.diagrams.model.Table;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JsonProducerTest {
+
+    private final Table products = Table.builder()
+        .name("products")
+        .columns(List.of(
+            Column.builder().name("id").type("int").scale("11").notNull(true).primary(true).autoIncrement(true)
+                .build(),
+            Column.builder().name("owner_id").type("int").defaultValue("NULL").foreign(true).build()))
+        .foreignKeys(List.of(ForeignKey.builder().foreignKeyName("owner_id").sourceTable("people")
+            .sourceColumn("id").build()))
+        .primaryKeys(List.of(PrimaryKey.builder().keyName(List.of("id")).build()))
+        .build();
+
+    @Test
+    void testGenerateDiagram() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        JsonProducer.builder().outputStream(output).build().generateDiagram(List.of(products));
+
+        JsonNode tables = new ObjectMapper().readTree(output.toByteArray()).get("tables");
+        assertThat(tables).hasSize(1);
+        JsonNode table = tables.get(0);
+        assertThat(table.get("name").asText()).isEqualTo("products");
+        JsonNode id = table.get("columns").get(0);
+        assertThat(id.get("name").asText()).isEqualTo("id");
+        assertThat(id.get("type").asText()).isEqualTo("int");
+        assertThat(id.get("scale").asText()).isEqualTo("11");
+        assertThat(id.has("defaultValue")).as("null values are left out").isFalse();
+        assertThat(id.get("notNull").asBoolean()).isTrue();
+        assertThat(id.get("primary").asBoolean()).isTrue();
+        assertThat(id.get("foreign").asBoolean()).isFalse();
+        assertThat(id.get("autoIncrement").asBoolean()).isTrue();
+        assertThat(table.get("columns").get(1).get("defaultValue").asText()).isEqualTo("NULL");
+        JsonNode foreignKey = table.get("foreignKeys").get(0);
+        assertThat(foreignKey.get("foreignKeyName").asText()).isEqualTo("owner_id");
+        assertThat(foreignKey.get("sourceTable").asText()).isEqualTo("people");
+        assertThat(foreignKey.get("sourceColumn").asText()).isEqualTo("id");
+        assertThat(table.get("primaryKeys").get(0).get("keyName").get(0).asText()).isEqualTo("id");
+    }
+
+    @Test
+    void testGenerateDiagram_givenNullLists_thenEmptyArrays() throws IOException {
+        Table table = Table.builder().name("empty").build();
+        table.setColumns(null);
+        table.setForeignKeys(null);
+        table.setPrimaryKeys(null);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        JsonProducer.builder().outputStream(output).build().generateDiagram(List.of(table));
+
+        assertThat(output.toString("UTF-8"))
+            .isEqualTo("{\"tables\":[{\"name\":\"empty\",\"columns\":[],\"foreignKeys\":[],\"primaryKeys\":[]}]}");
+    }
+
+    @Test
+    void testStartDiagram_thenOutputStreamLeftOpen() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                throw new IllegalStateException("The output stream should not be closed");
+            }
+        };
+
+        IncrementalDiagram diagram = JsonProducer.builder().outputStream(output).build().startDiagram();
+        diagram.add(products);
+        diagram.add(Table.builder().name("people").build());
+        diagram.complete();
+
+        assertThat(new ObjectMapper().readTree(output.toByteArray()).get("tables")).hasSize(2);
+    }
+
+    @Test
+    void testGenerateDiagram_givenFilename() throws IOException {
+        Path outputFile = Path.of("mydiagram.json");
+        Files.deleteIfExists(outputFile);
+
+        JsonProducer.builder().filename("mydiagram").build().generateDiagram(List.of(products));
+
+        try {
+            assertThat(new ObjectMapper().readTree(outputFile.toFile()).get("tables").get(0).get("name").asText())
+                .isEqualTo("products");
+        } finally {
+            Files.deleteIfExists(outputFile);
+        }
+    }
+
+    @Test
+    void testStartDiagram_givenFilename_whenAbandoned_thenExistingFileKept() throws IOException {
+        Path outputFile = Path.of("mydiagram.json");
+        Files.writeString(outputFile, "{}");
+        try {
+            IncrementalDiagram diagram = JsonProducer.builder().filename("mydiagram").build().startDiagram();
+            diagram.add(products);
+
+            assertThat(outputFile).hasContent("{}");
+            diagram.abandon();
+
+            assertThat(outputFile).hasContent("{}");
+            assertThat(temporaryFiles()).isEmpty();
+        } finally {
+            Files.deleteIfExists(outputFile);
+        }
+    }
+
+    @Test
+    void testStartDiagram_givenFilename_whenAddFails_thenNoFileLeft() throws IOException {
+        Path outputFile = Path.of("mydiagram.json");
+        Files.deleteIfExists(outputFile);
+        Table broken = mock(Table.class);
+        when(broken.getColumns()).thenThrow(new IllegalStateException("broken table"));
+
+        IncrementalDiagram diagram = JsonProducer.builder().filename("mydiagram").build().startDiagram();
+
+        assertThrows(IllegalStateException.class, () -> diagram.add(broken));
+        assertThat(outputFile).doesNotExist();
+        assertThat(temporaryFiles()).isEmpty();
+    }
+
+    @Test
+    void testJsonProducer_givenNoOutput() {
+        assertThrows(IllegalArgumentException.class, () -> JsonProducer.builder().build());
+    }
+
+    private static List<Path> temporaryFiles() throws IOException {
+        try (Stream<Path> files = Files.list(Path.of(""))) {
+            return files.filter(file -> file.getFileName().toString().startsWith("mydiagram.json"))
+                .filter(file -> file.toString().endsWith(".tmp"))
+                .collect(Collectors.toList());
+        }
+    }
+}
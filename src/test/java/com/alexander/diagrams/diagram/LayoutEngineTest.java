@@ -0,0 +1,24 @@
+package com.alexander.diagrams.diagram;
+
+import java.util.stream.Stream;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LayoutEngineTest {
+
+    @MethodSource("createPragmaArguments")
+    @ParameterizedTest
+    void testGetPragma(LayoutEngine engine, String expectedPragma) {
+        assertThat(engine.getPragma()).isEqualTo(expectedPragma);
+    }
+
+    private static Stream<Arguments> createPragmaArguments() {
+        return Stream.of(
+            Arguments.of(LayoutEngine.GRAPHVIZ, null),
+            Arguments.of(LayoutEngine.SMETANA, "!pragma layout smetana")
+        );
+    }
+}
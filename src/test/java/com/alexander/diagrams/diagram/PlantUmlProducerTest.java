@@ -2,18 +2,28 @@ package com.alexander.diagrams.diagram;
 
 import com.alexander.diagrams.model.Column;
 import com.alexander.diagrams.model.ForeignKey;
+import com.alexander.diagrams.model.Schema;
 import com.alexander.diagrams.model.Table;
 import java.io.IOException;
+import java.io.StringWriter;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.imageio.ImageIO;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
@@ -97,7 +107,95 @@ class PlantUmlProducerTest {
             .build();
 
         producer.generateDiagram(Arrays.asList(test));
-        assertThat(System.getProperty("PLANTUML_LIMIT_SIZE")).isEqualTo("" + 8192);
+        assertThat(System.getProperty("PLANTUML_LIMIT_SIZE")).isEqualTo("");
+    }
+
+    @Test
+    void testGenerateDiagram_givenPlantUmlLimitSize_thenImageLimited() throws IOException {
+        PlantUmlProducer.builder()
+            .title(name)
+            .filename(filename)
+            .build()
+            .generateDiagram(List.of(wideTable()));
+        assertThat(ImageIO.read(outputPng.toFile()).getWidth()).isGreaterThan(64);
+
+        PlantUmlProducer.builder()
+            .title(name)
+            .filename(filename)
+            .plantUmlLimitSize(64)
+            .build()
+            .generateDiagram(List.of(wideTable()));
+
+        assertThat(ImageIO.read(outputPng.toFile()).getWidth()).isEqualTo(64);
+    }
+
+    @Test
+    void testGenerateDiagram_whenRenderingConcurrently_thenEachLimitApplied() throws Exception {
+        int renders = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<Integer>> widths = new ArrayList<>();
+        try {
+            for (int i = 0; i < renders; i++) {
+                int limitSize = 40 + i * 10;
+                widths.add(executor.submit(() -> {
+                    String limitedFilename = filename + ".limit" + limitSize;
+                    Path png = Paths.get(limitedFilename + PNG_EXT);
+                    try {
+                        PlantUmlProducer.builder()
+                            .title(name)
+                            .filename(limitedFilename)
+                            .plantUmlLimitSize(limitSize)
+                            .build()
+                            .generateDiagram(List.of(wideTable()));
+                        return ImageIO.read(png.toFile()).getWidth();
+                    } finally {
+                        Files.deleteIfExists(png);
+                    }
+                }));
+            }
+            for (int i = 0; i < renders; i++) {
+                assertEquals(40 + i * 10, widths.get(i).get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(System.getProperty("PLANTUML_LIMIT_SIZE")).isEqualTo("");
+    }
+
+    @Test
+    void testGenerateDiagram_givenSmetanaLayout_thenPragmaAfterStart() throws IOException {
+        PlantUmlProducer.builder()
+            .title(name)
+            .filename(filename)
+            .generatePlantUmlFile(true)
+            .layoutEngine(LayoutEngine.SMETANA)
+            .outputFileFormat(OutputFileFormat.SVG)
+            .build()
+            .generateDiagram(List.of(table));
+
+        assertThat(Files.readString(Paths.get(filename + ".puml")))
+            .startsWith("@startuml\n!pragma layout smetana\nTitle: My Diagram\n");
+    }
+
+    @Test
+    void testGenerateDiagram_givenSmetanaLayout_thenRenderedWithoutGraphviz() throws IOException {
+        PlantUmlProducer.builder()
+            .title(name)
+            .filename(filename)
+            .layoutEngine(LayoutEngine.SMETANA)
+            .outputFileFormat(OutputFileFormat.SVG)
+            .build()
+            .generateDiagram(List.of(table, Table.builder().name("People").foreignKeys(List.of(foreignKey)).build()));
+
+        assertThat(Files.readString(outputSvg)).contains(">Products<", ">People<").doesNotContain("Graphviz");
+    }
+
+    private static Table wideTable() {
+        return Table.builder()
+            .name("wide")
+            .columns(List.of(Column.builder().name("a_column_name_long_enough_to_be_wider_than_every_limit")
+                .type("varchar").scale("255").build()))
+            .build();
     }
 
     @Test
@@ -153,6 +251,141 @@ class PlantUmlProducerTest {
         producer.generateDiagram(Arrays.asList(foreignTable, table));
     }
 
+    @Test
+    void testStartDiagram_thenSameSourceAsGenerateDiagram() throws IOException {
+        Path outputFile = Paths.get(filename + ".puml");
+        Table people = Table.builder()
+            .name("People")
+            .columns(Arrays.asList(Column.builder().name("Id").type("int").build()))
+            .foreignKeys(Arrays.asList(foreignKey))
+            .build();
+        producer = PlantUmlProducer.builder()
+            .title(name)
+            .filename(filename)
+            .generatePlantUmlFile(true)
+            .outputFileFormat(OutputFileFormat.SVG)
+            .build();
+
+        producer.generateDiagram(Arrays.asList(table, people));
+        String generated = Files.readString(outputFile);
+        IncrementalDiagram diagram = producer.startDiagram();
+        diagram.add(table);
+        diagram.add(people);
+        diagram.complete();
+
+        assertThat(Files.readString(outputFile)).isEqualTo(generated);
+        assertThat(generated).contains("class Products", "class People", "People::Id -- People::Name");
+    }
+
+    @Test
+    void testGenerateDiagram_givenSchema_thenSameSourceAsList() throws IOException {
+        Path outputFile = Paths.get(filename + ".puml");
+        Table people = Table.builder()
+            .name("People")
+            .columns(Arrays.asList(Column.builder().name("Id").type("int").build()))
+            .foreignKeys(Arrays.asList(foreignKey))
+            .build();
+        producer = PlantUmlProducer.builder()
+            .title(name)
+            .filename(filename)
+            .generatePlantUmlFile(true)
+            .outputFileFormat(OutputFileFormat.SVG)
+            .build();
+
+        producer.generateDiagram(Arrays.asList(table, people));
+        String generated = Files.readString(outputFile);
+        producer.generateDiagram(Schema.of(List.of(table, people)));
+
+        assertThat(Files.readString(outputFile)).isEqualTo(generated);
+    }
+
+    @Test
+    void testGenerateDiagram_givenDuplicateTable() {
+        assertThrows(IllegalStateException.class, () -> producer.generateDiagram(Arrays.asList(table, table)));
+    }
+
+    @Test
+    void testGenerateDiagram_thenPlantUmlSource() throws IOException {
+        Path outputFile = Paths.get(filename + ".puml");
+        producer = PlantUmlProducer.builder()
+            .title(name)
+            .filename(filename)
+            .generatePlantUmlFile(true)
+            .outputFileFormat(OutputFileFormat.SVG)
+            .build();
+        Table people = Table.builder()
+            .name("people")
+            .columns(Arrays.asList(Column.builder().name("id").type("int").scale("11").primary(true).build()))
+            .build();
+        Table products = Table.builder()
+            .name("products")
+            .columns(Arrays.asList(Column.builder().name("owner_id").type("int").foreign(true).build(),
+                Column.builder().name("price").type("decimal").scale("10,2").build()))
+            .foreignKeys(Arrays.asList(ForeignKey.builder().foreignKeyName("owner_id").sourceTable("people")
+                .sourceColumn("id").build()))
+            .build();
+        Table empty = Table.builder().name("empty").build();
+
+        producer.generateDiagram(Arrays.asList(people, products, empty));
+
+        assertThat(Files.readString(outputFile)).isEqualTo("@startuml\n"
+            + "Title: My Diagram\n"
+            + "class people << (T,#FFAAAA) >> {\n"
+            + "\t{field} <b>id</b> int(11) <<PK>>\n"
+            + "}\n"
+            + "class products << (T,#FFAAAA) >> {\n"
+            + "\t{field} <b>owner_id</b> int <<FK>>\n"
+            + "\t{field} <b>price</b> decimal(10,2)\n"
+            + "}\n"
+            + "class empty << (T,#FFAAAA) >> {\n"
+            + "\n"
+            + "}\n"
+            + "products::owner_id -- people::id\n"
+            + "\n"
+            + "@enduml\n");
+    }
+
+    @Test
+    void testStartDiagram_whenAbandoned_thenPlantUmlFileUnchanged() throws IOException {
+        Path outputFile = Paths.get(filename + ".puml");
+        Files.writeString(outputFile, "previous");
+        producer = PlantUmlProducer.builder()
+            .title(name)
+            .filename(filename)
+            .generatePlantUmlFile(true)
+            .build();
+
+        IncrementalDiagram diagram = producer.startDiagram();
+        diagram.add(table);
+        diagram.abandon();
+
+        assertThat(Files.readString(outputFile)).isEqualTo("previous");
+        try (Stream<Path> files = Files.list(Paths.get("."))) {
+            assertThat(files.map(Path::toString)).noneMatch(file -> file.endsWith(".tmp"));
+        }
+    }
+
+    @Test
+    void testAppendTable_givenWriter() throws IOException {
+        StringWriter writer = new StringWriter();
+
+        producer.appendTable(writer, Table.builder()
+            .name("test")
+            .columns(Arrays.asList(Column.builder().name("id").type("int").primary(true).build()))
+            .build());
+
+        assertThat(writer.toString())
+            .isEqualTo("class test << (T,#FFAAAA) >> {\n\t{field} <b>id</b> int <<PK>>\n}\n");
+    }
+
+    @Test
+    void testStartDiagram_givenDuplicateTable() {
+        IncrementalDiagram diagram = producer.startDiagram();
+        diagram.add(table);
+
+        assertThrows(IllegalStateException.class, () -> diagram.add(table));
+    }
+
     @Test
     void testTableFunction() {
         String tableString = producer.tableFunction(Table.builder().name("test").build());
@@ -175,26 +408,6 @@ class PlantUmlProducerTest {
         assertThat(columnsString).isEqualTo("\t{field} <b>null</b>\n");
     }
 
-    @Test
-    void testSet() {
-        assertThat(producer.set("Test")).isEqualTo(" Test");
-    }
-
-    @Test
-    void testSet_givenNull() {
-        assertThat(producer.set(null)).isEqualTo("");
-    }
-
-    @Test
-    void testBold() {
-        assertThat(producer.bold("Test")).isEqualTo("<b>Test</b>");
-    }
-
-    @Test
-    void testBold_givenNull() {
-        assertThat(producer.bold(null)).isEqualTo("<b>null</b>");
-    }
-
     @Test
     void testSetType_givenNullColumn() {
         assertThrows(NullPointerException.class, () -> producer.setType(null));
@@ -343,13 +556,13 @@ class PlantUmlProducerTest {
     @Test
     void testBuildForeignKeys_whenTableNull() {
         assertThrows(NullPointerException.class,
-            () -> producer.buildForeignKeys(null, Map.of()));
+            () -> producer.buildForeignKeys(null, Schema.of(List.of())));
     }
 
     @Test
     void testBuildForeignKeys_whenForeignKeyListIsNull() {
         //Due to joining clause
-        assertThat(producer.buildForeignKeys(Table.builder().build(), Map.of()))
+        assertThat(producer.buildForeignKeys(Table.builder().build(), Schema.of(List.of())))
             .isEqualTo("\n");
     }
 
@@ -361,12 +574,12 @@ class PlantUmlProducerTest {
         assertThat(producer.buildForeignKeys(Table.builder()
                 .foreignKeys(foreignKeys)
                 .build(),
-            Map.of()))
+            Schema.of(List.of())))
             .isEqualTo("\n");
     }
 
     @Test
-    void testBuildForeignKeys_whenTableMapIsNull() {
+    void testBuildForeignKeys_whenSchemaIsNull() {
         assertThrows(NullPointerException.class,
             () -> producer.buildForeignKeys(Table.builder()
                 .foreignKeys(List.of(foreignKey))
@@ -375,16 +588,16 @@ class PlantUmlProducerTest {
     }
 
     @Test
-    void testBuildForeignKeys_whenShowOrphanForeignKeysIsFalse_andSourceTablePresentInMap() {
+    void testBuildForeignKeys_whenShowOrphanForeignKeysIsFalse_andSourceTablePresentInSchema() {
         table.setForeignKeys(List.of(foreignKey));
         assertThat(producer.buildForeignKeys(
             table,
-            Map.of(foreignKey.getSourceTable(), table)))
+            Schema.of(List.of(Table.builder().name(foreignKey.getSourceTable()).build()))))
             .isEqualTo("Products::Id -- People::Name\n");
     }
 
     @Test
-    void testBuildForeignKeys_whenShowOrphanForeignKeysIsTrue_andSourceTablePresentInMap() {
+    void testBuildForeignKeys_whenShowOrphanForeignKeysIsTrue_andSourceTablePresentInSchema() {
         producer = PlantUmlProducer.builder()
             .title("My Diagram")
             .filename("mydiagram.png")
@@ -394,12 +607,12 @@ class PlantUmlProducerTest {
         table.setForeignKeys(List.of(foreignKey));
         assertThat(producer.buildForeignKeys(
             table,
-            Map.of(foreignKey.getSourceTable(), table)))
+            Schema.of(List.of(Table.builder().name(foreignKey.getSourceTable()).build()))))
             .isEqualTo("Products::Id -- People::Name\n");
     }
 
     @Test
-    void testBuildForeignKeys_whenShowOrphanForeignKeysIsTrue_andSourceTableIsMissingInMap() {
+    void testBuildForeignKeys_whenShowOrphanForeignKeysIsTrue_andSourceTableIsMissingInSchema() {
         producer = PlantUmlProducer.builder()
             .title("My Diagram")
             .filename("mydiagram.png")
@@ -409,16 +622,16 @@ class PlantUmlProducerTest {
         table.setForeignKeys(List.of(foreignKey));
         assertThat(producer.buildForeignKeys(
             table,
-            Map.of(table.getName(), table)))
+            Schema.of(List.of(table))))
             .isEqualTo("Products::Id -- People::Name\n");
     }
 
     @Test
-    void testBuildForeignKeys_whenShowOrphanForeignKeysIsFalse_andSourceTableMissingInMap() {
+    void testBuildForeignKeys_whenShowOrphanForeignKeysIsFalse_andSourceTableMissingInSchema() {
         table.setForeignKeys(List.of(foreignKey));
         assertThat(producer.buildForeignKeys(
             table,
-            Map.of(table.getName(), table)))
+            Schema.of(List.of(table))))
             .isEqualTo("\n");
     }
 
@@ -427,7 +640,7 @@ class PlantUmlProducerTest {
         table.setForeignKeys(List.of(foreignKey));
         assertThat(producer.buildForeignKeys(
             table,
-            Map.of(foreignKey.getSourceTable(), table)))
+            Schema.of(List.of(Table.builder().name(foreignKey.getSourceTable()).build()))))
             .isEqualTo("Products::Id -- People::Name\n");
     }
 
@@ -566,6 +779,140 @@ class PlantUmlProducerTest {
             .as(".png file should be generated").isTrue();
     }
 
+    @Test
+    void testGenerateDiagram_givenRenderCache_thenUnchangedDiagramCopied(@TempDir Path cacheDirectory)
+        throws IOException {
+        tidyupFile(outputPng);
+        RenderCache cache = RenderCache.builder().cacheDirectory(cacheDirectory.toString()).build();
+        PlantUmlProducer producer = PlantUmlProducer.builder()
+            .title(name)
+            .filename(filename)
+            .renderCache(cache)
+            .build();
+
+        producer.generateDiagram(List.of(table));
+        byte[] rendered = Files.readAllBytes(outputPng);
+        tidyupFile(outputPng);
+        producer.generateDiagram(List.of(table));
+
+        assertThat(outputPng).hasBinaryContent(rendered);
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    void testGenerateDiagram_givenRenderCache_whenPrintedToStandardOut_thenSameDiagram(@TempDir Path cacheDirectory) {
+        RenderCache cache = RenderCache.builder().cacheDirectory(cacheDirectory.toString()).build();
+        PlantUmlProducer.PlantUmlProducerBuilder builder = PlantUmlProducer.builder()
+            .title(name)
+            .filename(filename)
+            .renderCache(cache);
+
+        builder.generatePlantUmlFile(false).build().generateDiagram(List.of(table));
+        builder.generatePlantUmlFile(true).build().generateDiagram(List.of(table));
+        tidyupFile(outputPuml);
+
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    void testGenerateDiagram_givenRenderCacheHit_thenNotRendered(@TempDir Path cacheDirectory) throws IOException {
+        RenderCache cache = RenderCache.builder().cacheDirectory(cacheDirectory.toString()).build();
+        PlantUmlProducer producer = PlantUmlProducer.builder()
+            .title(name)
+            .filename(filename)
+            .renderCache(cache)
+            .build();
+        producer.generateDiagram(List.of(table));
+        try (Stream<Path> entries = Files.list(cacheDirectory)) {
+            for (Path entry : entries.collect(Collectors.toList())) {
+                Files.write(entry, new byte[] {1, 2, 3});
+            }
+        }
+
+        producer.generateDiagram(List.of(table));
+
+        assertThat(outputPng).hasBinaryContent(new byte[] {1, 2, 3});
+    }
+
+    @Test
+    void testGenerateDiagram_givenRenderCache_whenDiagramChanged_thenRendered(@TempDir Path cacheDirectory) {
+        RenderCache cache = RenderCache.builder().cacheDirectory(cacheDirectory.toString()).build();
+        PlantUmlProducer.PlantUmlProducerBuilder builder = PlantUmlProducer.builder()
+            .title(name)
+            .filename(filename)
+            .renderCache(cache);
+
+        builder.build().generateDiagram(List.of(table));
+        builder.build().generateDiagram(List.of(Table.builder().name("People").build()));
+        builder.outputFileFormat(OutputFileFormat.SVG).build().generateDiagram(List.of(table));
+        builder.plantUmlLimitSize(8192).build().generateDiagram(List.of(table));
+
+        assertEquals(4, cache.getMisses());
+        assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    void testGenerateDiagram_givenOutputFileFormats_thenEachRendered() throws IOException {
+        tidyupFile(outputPng);
+        tidyupFile(outputSvg);
+        PlantUmlProducer producer = PlantUmlProducer.builder()
+            .title(name)
+            .filename(filename)
+            .outputFileFormats(EnumSet.of(OutputFileFormat.SVG, OutputFileFormat.PNG))
+            .build();
+
+        producer.generateDiagram(List.of(table));
+
+        assertThat(Files.readString(outputSvg)).contains("<svg").contains("Products");
+        assertThat(Files.readAllBytes(outputPng)).startsWith((byte) 0x89, (byte) 'P', (byte) 'N', (byte) 'G');
+    }
+
+    @Test
+    void testGenerateDiagram_givenOutputFileFormats_thenSameImagesAsEachFormatAlone() throws IOException {
+        PlantUmlProducer.PlantUmlProducerBuilder builder = PlantUmlProducer.builder()
+            .title(name)
+            .filename(filename);
+        builder.outputFileFormat(OutputFileFormat.SVG).build().generateDiagram(List.of(table));
+        String svg = Files.readString(outputSvg);
+        tidyupFile(outputSvg);
+
+        builder.outputFileFormats(EnumSet.of(OutputFileFormat.PNG, OutputFileFormat.SVG)).build()
+            .generateDiagram(List.of(table));
+
+        assertThat(Files.readString(outputSvg)).isEqualTo(svg);
+    }
+
+    @Test
+    void testGenerateDiagram_givenOutputFileFormats_andRenderCache(@TempDir Path cacheDirectory) {
+        RenderCache cache = RenderCache.builder().cacheDirectory(cacheDirectory.toString()).build();
+        PlantUmlProducer producer = PlantUmlProducer.builder()
+            .title(name)
+            .filename(filename)
+            .outputFileFormats(EnumSet.allOf(OutputFileFormat.class))
+            .renderCache(cache)
+            .build();
+
+        producer.generateDiagram(List.of(table));
+        producer.generateDiagram(List.of(table));
+
+        assertEquals(2, cache.getMisses());
+        assertEquals(2, cache.getHits());
+    }
+
+    @Test
+    void testGenerateDiagramFile_givenOutputFileFormats_andNoFilenameSet_thenThrowRuntimeException() {
+        PlantUmlProducer producer = PlantUmlProducer.builder()
+            .outputFileFormats(EnumSet.of(OutputFileFormat.SVG))
+            .build();
+        Throwable exception = assertThrows(RuntimeException.class,
+            () -> producer.generateDiagramFile(new StringBuilder()));
+
+        assertThat(exception.getLocalizedMessage())
+            .isEqualTo("A filename is required to generate a .svg file.");
+    }
+
     private void tidyupFile(Path filePath) {
         if (filePath.toFile().exists()) {
             filePath.toFile().delete();
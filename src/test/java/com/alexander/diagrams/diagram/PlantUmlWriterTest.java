@@ -0,0 +1,78 @@
+package com.alexander.diagrams.diagram;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PlantUmlWriterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testFinish_thenFileMovedIntoPlace() throws IOException {
+        Path file = directory.resolve("diagram.puml");
+        PlantUmlWriter writer = PlantUmlWriter.toFile(file);
+
+        writer.append("@startuml").append('\n').append("xx@enduml\nyy", 2, 10);
+        assertThat(file).doesNotExist();
+        CharSequence source = writer.finish();
+
+        assertThat(source.toString()).isEqualTo("@startuml\n@enduml\n");
+        assertThat(Files.readString(file)).isEqualTo("@startuml\n@enduml\n");
+        assertThat(files()).containsExactly(file);
+    }
+
+    @Test
+    void testFinish_givenExistingFile_thenReplaced() throws IOException {
+        Path file = Files.writeString(directory.resolve("diagram.puml"), "previous");
+        PlantUmlWriter writer = PlantUmlWriter.toFile(file);
+
+        writer.append("@startuml\n");
+        writer.finish();
+
+        assertThat(Files.readString(file)).isEqualTo("@startuml\n");
+    }
+
+    @Test
+    void testAbandon_thenTemporaryFileRemoved() throws IOException {
+        Path file = directory.resolve("diagram.puml");
+        PlantUmlWriter writer = PlantUmlWriter.toFile(file);
+
+        writer.append("@startuml\n");
+        writer.abandon();
+
+        assertThat(files()).isEmpty();
+    }
+
+    @Test
+    void testToStandardOut() throws IOException {
+        PrintStream standardOut = System.out;
+        ByteArrayOutputStream printed = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(printed, true, StandardCharsets.UTF_8));
+        try {
+            PlantUmlWriter writer = PlantUmlWriter.toStandardOut();
+            writer.append("@startuml\n");
+
+            assertThat(writer.finish().toString()).isEqualTo("@startuml\n");
+        } finally {
+            System.setOut(standardOut);
+        }
+        assertThat(printed.toString(StandardCharsets.UTF_8)).isEqualTo("@startuml\n\n");
+    }
+
+    private Stream<Path> files() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.collect(Collectors.toList()).stream();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.alexander.diagrams.diagram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RenderCacheTest {
+
+    private static final String SOURCE = "@startuml\nTitle: pim\nclass inventory << (T,#FFAAAA) >> {\n}\n@enduml\n";
+
+    @TempDir
+    Path cacheDirectory;
+
+    @TempDir
+    Path outputDirectory;
+
+    @Test
+    void testKey_givenSameDiagram_thenSameKey() {
+        RenderCache cache = cache(null);
+
+        assertEquals(cache.key(SOURCE, OutputFileFormat.PNG, 4096),
+            cache.key(new StringBuilder(SOURCE), OutputFileFormat.PNG, 4096));
+        assertThat(cache.key(SOURCE, OutputFileFormat.PNG, 4096)).hasSize(64);
+    }
+
+    @Test
+    void testKey_givenDifferentSourceFormatOrLimitSize_thenDifferentKeys() {
+        RenderCache cache = cache(null);
+
+        assertThat(List.of(
+            cache.key(SOURCE, OutputFileFormat.PNG, 4096),
+            cache.key(SOURCE.replace("pim", "mononoth"), OutputFileFormat.PNG, 4096),
+            cache.key(SOURCE, OutputFileFormat.SVG, 4096),
+            cache.key(SOURCE, OutputFileFormat.PNG, 8192)))
+            .doesNotHaveDuplicates();
+    }
+
+    @Test
+    void testKey_givenSourceLargerThanBuffer() {
+        RenderCache cache = cache(null);
+        String large = "täble_日本\n".repeat(10_000);
+
+        assertEquals(cache.key(large, OutputFileFormat.PNG, 4096), cache.key(large, OutputFileFormat.PNG, 4096));
+        assertThat(cache.key(large, OutputFileFormat.PNG, 4096))
+            .isNotEqualTo(cache.key(large + "x", OutputFileFormat.PNG, 4096));
+    }
+
+    @Test
+    void testCopyTo_whenNotStored_thenMiss() {
+        RenderCache cache = cache(null);
+        Path output = outputDirectory.resolve("pim.png");
+
+        assertFalse(cache.copyTo(cache.key(SOURCE, OutputFileFormat.PNG, 4096), output));
+
+        assertThat(output).doesNotExist();
+        assertEquals(1, cache.getMisses());
+        assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    void testCopyTo_whenStored_thenOutputReplaced() throws IOException {
+        RenderCache cache = cache(null);
+        String key = cache.key(SOURCE, OutputFileFormat.PNG, 4096);
+        Path rendered = Files.write(outputDirectory.resolve("rendered.png"), new byte[] {1, 2, 3});
+        Path output = Files.write(outputDirectory.resolve("pim.png"), new byte[] {9});
+
+        cache.store(key, rendered);
+
+        assertTrue(cache.copyTo(key, output));
+        assertThat(output).hasBinaryContent(new byte[] {1, 2, 3});
+        assertEquals(1, cache.getHits());
+        assertThat(temporaryFiles(cacheDirectory)).isEmpty();
+        assertThat(temporaryFiles(outputDirectory)).isEmpty();
+    }
+
+    @Test
+    void testCopyTo_givenNewProcess_thenCachedOnDisk() throws IOException {
+        String key = cache(null).key(SOURCE, OutputFileFormat.SVG, 4096);
+        cache(null).store(key, Files.writeString(outputDirectory.resolve("rendered.svg"), "<svg/>"));
+
+        Path output = outputDirectory.resolve("pim.svg");
+        assertTrue(cache(null).copyTo(key, output));
+
+        assertThat(output).hasContent("<svg/>");
+    }
+
+    @Test
+    void testStore_givenMaxEntries_thenLeastRecentlyUsedEvicted() throws IOException {
+        RenderCache cache = cache(2);
+        Path rendered = Files.write(outputDirectory.resolve("rendered.png"), new byte[] {1});
+        Path output = outputDirectory.resolve("pim.png");
+        cache.store("first", rendered);
+        cache.store("second", rendered);
+        Files.setLastModifiedTime(cacheDirectory.resolve("first.render"),
+            FileTime.from(Instant.now().minus(Duration.ofDays(1))));
+
+        cache.store("third", rendered);
+
+        assertThat(entries()).hasSize(2);
+        assertFalse(cache.copyTo("first", output));
+        assertTrue(cache.copyTo("second", output));
+        assertTrue(cache.copyTo("third", output));
+    }
+
+    @Test
+    void testEvict_thenAbandonedTempFilesRemoved() throws IOException {
+        RenderCache cache = cache(null);
+        Path abandoned = Files.createFile(cacheDirectory.resolve("abandoned.tmp"));
+        Files.setLastModifiedTime(abandoned, FileTime.from(Instant.now().minus(Duration.ofDays(1))));
+        Path writing = Files.createFile(cacheDirectory.resolve("writing.tmp"));
+
+        cache.evict();
+
+        assertThat(abandoned).doesNotExist();
+        assertThat(writing).exists();
+    }
+
+    @Test
+    void testRenderCache_givenNoCacheDirectory() {
+        assertThrows(IllegalArgumentException.class, () -> RenderCache.builder().build());
+    }
+
+    @Test
+    void testRenderCache_givenZeroMaxEntries() {
+        assertThrows(IllegalArgumentException.class, () -> cache(0));
+    }
+
+    private RenderCache cache(Integer maxEntries) {
+        return RenderCache.builder()
+            .cacheDirectory(cacheDirectory.toString())
+            .maxEntries(maxEntries)
+            .build();
+    }
+
+    private List<Path> entries() throws IOException {
+        try (Stream<Path> files = Files.list(cacheDirectory)) {
+            return files.filter(file -> file.toString().endsWith(".render")).collect(Collectors.toList());
+        }
+    }
+
+    private static List<Path> temporaryFiles(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".tmp")).collect(Collectors.toList());
+        }
+    }
+}
@@ -2,18 +2,18 @@ package com.alexander.diagrams.generator;
 
 import com.alexander.diagrams.db.DatabaseSyntaxParser;
 import com.alexander.diagrams.generator.DatabaseEntityRelationshipGenerator;
-import com.alexander.diagrams.model.Column;
-import com.alexander.diagrams.model.ForeignKey;
-import com.alexander.diagrams.model.PrimaryKey;
+import com.alexander.diagrams.model.Schema;
 import com.alexander.diagrams.model.Table;
 import com.alexander.diagrams.diagram.DiagramProducer;
+import com.alexander.diagrams.diagram.IncrementalDiagram;
 import com.alexander.diagrams.source.Source;
 import java.io.File;
-import java.util.Arrays;
 import java.util.List;
-import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -32,210 +32,154 @@ class MySQLDatabaseEntityRelationshipGeneratorTest {
     private DatabaseEntityRelationshipGenerator generator
         = new DatabaseEntityRelationshipGenerator(parser, producer, source);
 
-    private Optional<Table> tableOptional = Optional.of(Table.builder().build());
-
-    private static final String KEY1 = "key1";
-    private static final String KEY2 = "key2";
-
 
     @Test
     void testGenerate() throws Exception {
         when(source.hasNext()).thenReturn(true, false);
-        when(source.next()).thenReturn(List.of());
+        when(source.nextStatement()).thenReturn("");
 
         assertThrows(RuntimeException.class, () -> generator.generate(), "Unable to convert empty Table list to a diagram");
         verify(source, times(2)).hasNext();
-        verify(source, times(1)).next();
-    }
-
-    @Test
-    void testToTable_givenEmptyList() {
-        Optional<Table> table = generator.toTable(List.of());
-        assertThat(table.isEmpty()).isTrue();
-    }
-
-    @Test
-    void testToTable_givenNullTableGenerated() {
-        when(parser.toTable(isA(String.class))).thenReturn(null);
-        Optional<Table> table = generator.toTable(List.of("CREATE TABLE `test_table` ("));
-        assertThat(table.isEmpty()).isTrue();
-    }
-
-    @Test
-    void testToTable() {
-        when(parser.toTable(isA(String.class))).thenReturn(Table.builder().name("test_table").build());
-
-        when(parser.toForeignKey(isA(String.class))).thenReturn(ForeignKey.builder().build());
-        when(parser.toColumn(isA(String.class))).thenReturn(Column.builder().build());
-        when(parser.toPrimaryKey(isA(String.class))).thenReturn(PrimaryKey.builder().build());
-
-        Optional<Table> table = generator.toTable(List.of("CREATE TABLE `test_table` ("));
-        assertThat(table.isPresent()).isTrue();
-        assertThat(table.get().getName()).isEqualTo("test_table");
-
-        verify(parser, times(1)).toForeignKey(isA(String.class));
-        verify(parser, times(1)).toColumn(isA(String.class));
-        verify(parser, times(1)).toPrimaryKey(isA(String.class));
+        verify(source, times(1)).nextStatement();
+        verify(parser, times(1)).parseTable("");
     }
 
     @Test
-    void testToTable_givenOnlyHeader() {
-        when(parser.toTable(isA(String.class))).thenReturn(Table.builder().name("test_table").build());
+    void testGenerate_givenStatements() {
+        Table table = Table.builder().name("test_table").build();
+        when(source.hasNext()).thenReturn(true, true, false);
+        when(source.nextStatement()).thenReturn("CREATE TABLE `test_table` (", "");
+        when(parser.parseTable("CREATE TABLE `test_table` (")).thenReturn(table);
 
-        Optional<Table> table = generator.toTable(List.of("CREATE TABLE `test_table` ("));
+        generator.generate();
 
-        assertThat(table.isPresent()).isTrue();
-        assertThat(table.get().getName()).isEqualTo("test_table");
+        verify(source, never()).next();
+        verify(producer, times(1)).generateDiagram(schemaOf(table));
     }
 
-
     @Test
-    void testAddColumns() {
-        //Check we operate on the sublist
-        //Check that parser.toColumns is called for each line
-        //Check that we get back an Optional that is present
-        //Check that we have a list of a specific size in our table object
-        when(parser.toColumn(""))
-                .thenReturn(Column.builder().name(KEY1).build())
-                .thenReturn(Column.builder().name(KEY2).build());
-
-        Optional<Table> table = generator.addColumns(Arrays.asList("",""), tableOptional);
-        verify(parser, times(2)).toColumn("");
-
-        assertThat(table.isPresent()).isTrue();
-        assertThat(table.get().getColumns().size()).isEqualTo(2);
-        assertThat(table.get().getColumns().get(0).getName()).isEqualTo(KEY1);
-        assertThat(table.get().getColumns().get(1).getName()).isEqualTo(KEY2);
+    void testGenerate_givenExecutor_thenTablesInSourceOrder() {
+        Table slow = Table.builder().name("slow").build();
+        Table fast = Table.builder().name("fast").build();
+        when(source.hasNext()).thenReturn(true, true, false);
+        when(source.nextStatement()).thenReturn("slow", "fast");
+        when(parser.parseTable("slow")).thenAnswer(invocation -> {
+            Thread.sleep(100);
+            return slow;
+        });
+        when(parser.parseTable("fast")).thenReturn(fast);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            new DatabaseEntityRelationshipGenerator(parser, producer, source, executor, null).generate();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(producer, times(1)).generateDiagram(schemaOf(slow, fast));
     }
 
     @Test
-    void testAddColumns_whenNoColumnFound() {
-        when(parser.toColumn("")).thenReturn(null);
-
-        Optional<Table> table = generator.addColumns(Arrays.asList("",""), tableOptional);
-        verify(parser, times(2)).toColumn("");
-
-        assertThat(table.get().getColumns().size()).isEqualTo(0);
+    void testGenerate_givenExecutor_whenParseFails() {
+        when(source.hasNext()).thenReturn(true, true, false);
+        when(source.nextStatement()).thenReturn("first", "second");
+        when(parser.parseTable("first")).thenReturn(Table.builder().name("first").build());
+        when(parser.parseTable("second")).thenThrow(new IllegalStateException("Unparseable"));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            DatabaseEntityRelationshipGenerator parallel
+                = new DatabaseEntityRelationshipGenerator(parser, producer, source, executor, null);
+            assertThrows(IllegalStateException.class, () -> parallel.generate());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(producer, never()).generateDiagram(any(Schema.class));
     }
 
     @Test
-    void testAddForeignKey() {
-        tableOptional.get().setColumns(List.of(
-            Column.builder().name(KEY1).build(),
-            Column.builder().name(KEY2).build()));
-
-        when(parser.toForeignKey(""))
-            .thenReturn(ForeignKey.builder().foreignKeyName(KEY1).build())
-            .thenReturn(ForeignKey.builder().foreignKeyName(KEY2).build());
-
-        Optional<Table> table = generator.addForeignKey(Arrays.asList("",""), tableOptional);
-        verify(parser, times(2)).toForeignKey("");
-
-        assertThat(table.isPresent()).isTrue();
-        assertThat(table.get().getForeignKeys().size()).isEqualTo(2);
-        assertThat(table.get().getForeignKeys().get(0).getForeignKeyName()).isEqualTo(KEY1);
-        assertThat(table.get().getForeignKeys().get(1).getForeignKeyName()).isEqualTo(KEY2);
-
-        long foreignKeyCount = table.get()
-            .getColumns()
-            .stream()
-            .filter(column -> column.isForeign() == true)
-            .count();
-        assertThat(foreignKeyCount).isEqualTo(2);
+    void testGenerate_givenQueueDepth_thenTablesRenderedInSourceOrder() {
+        Table first = Table.builder().name("first").build();
+        Table second = Table.builder().name("second").build();
+        IncrementalDiagram diagram = mock(IncrementalDiagram.class);
+        when(producer.startDiagram()).thenReturn(diagram);
+        when(source.hasNext()).thenReturn(true, true, false);
+        when(source.nextStatement()).thenReturn("first", "second");
+        when(parser.parseTable("first")).thenReturn(first);
+        when(parser.parseTable("second")).thenReturn(second);
+        DatabaseEntityRelationshipGenerator pipelined = DatabaseEntityRelationshipGenerator.builder()
+            .parser(parser)
+            .producer(producer)
+            .source(source)
+            .queueDepth(1)
+            .build();
+        assertThat(pipelined.getStageCounters()).isEmpty();
+
+        pipelined.generate();
+
+        InOrder inOrder = inOrder(diagram);
+        inOrder.verify(diagram).add(first);
+        inOrder.verify(diagram).add(second);
+        inOrder.verify(diagram).complete();
+        verify(producer, never()).generateDiagram(any(Schema.class));
+        assertThat(pipelined.getStageCounters()).extracting(StageCounters::getItems).containsExactly(2L, 2L, 2L);
     }
 
     @Test
-    void testForeignKey_whenNoMatchingColumnFound() {
-        tableOptional.get().setColumns(List.of(
-            Column.builder().name(KEY2).build()));
-
-        when(parser.toForeignKey(""))
-            .thenReturn(ForeignKey.builder().foreignKeyName(KEY1).build())
-            .thenReturn(ForeignKey.builder().foreignKeyName(KEY2).build());
-
-        Optional<Table> table = generator.addForeignKey(Arrays.asList("",""), tableOptional);
-        verify(parser, times(2)).toForeignKey("");
-
-        assertThat(table.isPresent()).isTrue();
-        assertThat(table.get().getForeignKeys().size()).isEqualTo(2);
-        assertThat(table.get().getForeignKeys().get(0).getForeignKeyName()).isEqualTo(KEY1);
-        assertThat(table.get().getForeignKeys().get(1).getForeignKeyName()).isEqualTo(KEY2);
-
-        long foreignKeyCount = table.get()
-            .getColumns()
-            .stream()
-            .filter(column -> column.isForeign() == true)
-            .count();
-        assertThat(foreignKeyCount).isEqualTo(1);
+    void testGenerate_givenZeroQueueDepth() {
+        assertThrows(IllegalArgumentException.class, () -> DatabaseEntityRelationshipGenerator.builder()
+            .parser(parser)
+            .producer(producer)
+            .source(source)
+            .queueDepth(0)
+            .build());
     }
 
-
     @Test
-    void testAddForeignKey_whenNoForeignKeyFound() {
-        when(parser.toForeignKey(""))
-                .thenReturn(null)
-                .thenReturn(ForeignKey.builder().foreignKeyName(KEY2).build());
+    void testToTable_givenStatement() {
+        Table table = Table.builder().name("test_table").build();
+        when(parser.parseTable("CREATE TABLE `test_table` (")).thenReturn(table);
 
-        Optional<Table> table = generator.addForeignKey(Arrays.asList("",""), tableOptional);
-        verify(parser, times(2)).toForeignKey("");
-
-        assertThat(table.isPresent()).isTrue();
-        assertThat(table.get().getForeignKeys().size()).isEqualTo(1);
-        assertThat(table.get().getForeignKeys().get(0).getForeignKeyName()).isEqualTo(KEY2);
+        assertThat(generator.toTable("CREATE TABLE `test_table` (")).contains(table);
+        assertThat(generator.toTable(null)).isEmpty();
     }
 
     @Test
-    void testAddPrimaryKey() {
-        when(parser.toPrimaryKey(""))
-                .thenReturn(PrimaryKey.builder().keyName(List.of(KEY1)).build())
-                .thenReturn(PrimaryKey.builder().keyName(List.of(KEY2)).build());
-
-        tableOptional.get().setColumns(List.of(
-            Column.builder().name(KEY1).build(),
-            Column.builder().name(KEY2).build()));
-
-        Optional<Table> table = generator.addPrimaryKey(Arrays.asList("",""), tableOptional);
-        verify(parser, times(2)).toPrimaryKey("");
+    void testToTable_givenUnparseableCreateTable_thenThrowRuntimeException() {
+        when(parser.parseTable(isA(CharSequence.class))).thenReturn(null);
 
-        assertThat(table.isPresent()).isTrue();
-        assertThat(table.get().getPrimaryKeys().size()).isEqualTo(2);
-        assertThat(table.get().getPrimaryKeys().get(0).getKeyName().get(0)).isEqualTo(KEY1);
-        assertThat(table.get().getPrimaryKeys().get(1).getKeyName().get(0)).isEqualTo(KEY2);
+        RuntimeException e = assertThrows(RuntimeException.class,
+            () -> generator.toTable("CREATE TABLE `t 1` (\n  `id` int(11) NOT NULL\n)"));
 
-        assertThat(table.get().getColumns().get(0).isPrimary()).isTrue();
-        assertThat(table.get().getColumns().get(1).isPrimary()).isTrue();
+        assertThat(e.getMessage()).isEqualTo("Unable to parse create table statement: CREATE TABLE `t 1` (");
     }
 
     @Test
-    void testAddPrimaryKey_whenNoPrimaryKeyFound() {
-       when(parser.toPrimaryKey(""))
-                .thenReturn(null)
-                .thenReturn(PrimaryKey.builder().keyName(List.of(KEY2)).build());
+    void testToTable_givenCreateView_thenSkipped() {
+        when(parser.parseTable(isA(CharSequence.class))).thenReturn(null);
 
-        Optional<Table> table = generator.addPrimaryKey(Arrays.asList("", ""), tableOptional);
-        verify(parser, times(2)).toPrimaryKey("");
-
-        assertThat(table.isPresent()).isTrue();
-        assertThat(table.get().getPrimaryKeys().size()).isEqualTo(1);
-        assertThat(table.get().getPrimaryKeys().get(0).getKeyName().get(0)).isEqualTo(KEY2);
+        assertThat(generator.toTable("CREATE ALGORITHM=UNDEFINED VIEW `v1` AS select 1")).isEmpty();
     }
 
     @Test
     void testToDiagram_givenNullList() throws Exception {
         assertThrows(RuntimeException.class, () -> generator.toDiagram(null));
-        verify(producer, times(0)).generateDiagram(null);
+        verify(producer, times(0)).generateDiagram(any(Schema.class));
     }
 
     @Test
     void testToDiagram_givenEmptyList() throws Exception {
         assertThrows(RuntimeException.class, () -> generator.toDiagram(List.of()));
-        verify(producer, times(0)).generateDiagram(anyList());
+        verify(producer, times(0)).generateDiagram(any(Schema.class));
     }
 
     @Test
     void testToDiagram_givenList() throws Exception {
         generator.toDiagram(List.of(Table.builder().name("Test").build()));
-        verify(producer, times(1)).generateDiagram(anyList());
+        verify(producer, times(1)).generateDiagram(any(Schema.class));
+    }
+
+    private static Schema schemaOf(Table... tables) {
+        return argThat(schema -> schema.getTables().equals(List.of(tables)));
     }
 
     @BeforeAll
@@ -0,0 +1,269 @@
+package com.alexander.diagrams.generator;
+
+import com.alexander.diagrams.diagram.IncrementalDiagram;
+import com.alexander.diagrams.model.Table;
+import com.alexander.diagrams.source.Source;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PipelineTest {
+
+    private static final Function<CharSequence, Optional<Table>> PARSER =
+        statement -> Optional.of(Table.builder().name(statement.toString()).build());
+
+    private final List<String> names = IntStream.range(0, 100).mapToObj(i -> "table_" + i)
+        .collect(Collectors.toList());
+
+    @Test
+    void testRun_thenSourceOrderPreserved() {
+        RecordingDiagram diagram = new RecordingDiagram();
+
+        new Pipeline(source(names.iterator()), PARSER, null, 4).run(diagram);
+
+        assertThat(diagram.names()).containsExactlyElementsOf(names);
+        assertTrue(diagram.completed);
+        assertFalse(diagram.abandoned);
+    }
+
+    @Test
+    void testRun_givenExecutor_thenSourceOrderPreserved() {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        RecordingDiagram diagram = new RecordingDiagram();
+        Function<CharSequence, Optional<Table>> slowParser = statement -> {
+            try {
+                Thread.sleep(statement.length() % 3);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return PARSER.apply(statement);
+        };
+        try {
+            new Pipeline(source(names.iterator()), slowParser, executor, 8).run(diagram);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(diagram.names()).containsExactlyElementsOf(names);
+    }
+
+    @Test
+    void testRun_givenSlowRender_thenQueueDepthBoundsStatementsRead() throws InterruptedException {
+        AtomicInteger read = new AtomicInteger();
+        CountDownLatch rendering = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Iterator<String> statements = names.stream().peek(name -> read.incrementAndGet()).iterator();
+        RecordingDiagram diagram = new RecordingDiagram() {
+            @Override
+            public void add(Table table) {
+                rendering.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.add(table);
+            }
+        };
+        Pipeline pipeline = new Pipeline(source(statements), PARSER, null, 2);
+        Thread render = new Thread(() -> pipeline.run(diagram));
+        render.start();
+
+        assertTrue(rendering.await(5, TimeUnit.SECONDS));
+        Thread.sleep(200);
+        // One table rendering, two queued, one waiting to be queued by the parse stage, two queued statements and one
+        // waiting to be queued by the source stage
+        assertThat(read.get()).isLessThanOrEqualTo(7);
+        release.countDown();
+        render.join(TimeUnit.SECONDS.toMillis(5));
+
+        assertThat(diagram.names()).containsExactlyElementsOf(names);
+    }
+
+    @Test
+    void testRun_givenEmptyParse_thenTableSkipped() {
+        RecordingDiagram diagram = new RecordingDiagram();
+        Function<CharSequence, Optional<Table>> parser = statement -> "skip".contentEquals(statement)
+            ? Optional.empty() : PARSER.apply(statement);
+
+        new Pipeline(source(List.of("first", "skip", "last").iterator()), parser, null, 1).run(diagram);
+
+        assertThat(diagram.names()).containsExactly("first", "last");
+    }
+
+    @Test
+    void testRun_givenNoTables() {
+        RecordingDiagram diagram = new RecordingDiagram();
+        Pipeline pipeline = new Pipeline(source(List.<String>of().iterator()), PARSER, null, 1);
+
+        assertThrows(RuntimeException.class, () -> pipeline.run(diagram),
+            "Unable to convert empty Table list to a diagram");
+        assertFalse(diagram.completed);
+        assertTrue(diagram.abandoned);
+    }
+
+    @Test
+    void testRun_givenFailingParse_thenCauseRethrown() {
+        RecordingDiagram diagram = new RecordingDiagram();
+        Function<CharSequence, Optional<Table>> parser = statement -> {
+            if ("table_50".contentEquals(statement)) {
+                throw new IllegalStateException("Unparseable");
+            }
+            return PARSER.apply(statement);
+        };
+        Pipeline pipeline = new Pipeline(source(names.iterator()), parser, null, 2);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> pipeline.run(diagram));
+        assertEquals("Unparseable", e.getMessage());
+        assertThat(diagram.names()).hasSize(50);
+        assertFalse(diagram.completed);
+        assertTrue(diagram.abandoned);
+    }
+
+    @Test
+    void testRun_givenFailingSource_thenCauseRethrown() {
+        RecordingDiagram diagram = new RecordingDiagram();
+        Iterator<String> statements = names.stream().map(name -> {
+            if ("table_10".equals(name)) {
+                throw new IllegalStateException("Unreadable");
+            }
+            return name;
+        }).iterator();
+        Pipeline pipeline = new Pipeline(source(statements), PARSER, null, 2);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> pipeline.run(diagram));
+        assertEquals("Unreadable", e.getMessage());
+        assertThat(diagram.names()).hasSize(10);
+        assertFalse(diagram.completed);
+        assertTrue(diagram.abandoned);
+    }
+
+    @Test
+    void testRun_givenErrorInSource_thenErrorRethrown() {
+        RecordingDiagram diagram = new RecordingDiagram();
+        Iterator<String> statements = names.stream().map(name -> {
+            if ("table_10".equals(name)) {
+                throw new StackOverflowError("Unreadable");
+            }
+            return name;
+        }).iterator();
+        Pipeline pipeline = new Pipeline(source(statements), PARSER, null, 2);
+
+        StackOverflowError e = assertTimeoutPreemptively(Duration.ofSeconds(10),
+            () -> assertThrows(StackOverflowError.class, () -> pipeline.run(diagram)));
+        assertEquals("Unreadable", e.getMessage());
+        assertThat(diagram.names()).hasSize(10);
+        assertTrue(diagram.abandoned);
+    }
+
+    @Test
+    void testRun_givenErrorInParse_thenErrorRethrown() {
+        RecordingDiagram diagram = new RecordingDiagram();
+        Function<CharSequence, Optional<Table>> parser = statement -> {
+            if ("table_50".contentEquals(statement)) {
+                throw new AssertionError("Unparseable");
+            }
+            return PARSER.apply(statement);
+        };
+        Pipeline pipeline = new Pipeline(source(names.iterator()), parser, null, 2);
+
+        AssertionError e = assertTimeoutPreemptively(Duration.ofSeconds(10),
+            () -> assertThrows(AssertionError.class, () -> pipeline.run(diagram)));
+        assertEquals("Unparseable", e.getMessage());
+        assertThat(diagram.names()).hasSize(50);
+        assertTrue(diagram.abandoned);
+    }
+
+    @Test
+    void testRun_givenRejectingExecutor_thenFailureRethrown() {
+        RecordingDiagram diagram = new RecordingDiagram();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.shutdown();
+        Pipeline pipeline = new Pipeline(source(names.iterator()), PARSER, executor, 2);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10),
+            () -> assertThrows(RejectedExecutionException.class, () -> pipeline.run(diagram)));
+        assertTrue(diagram.abandoned);
+    }
+
+    @Test
+    void testCounters() {
+        Pipeline pipeline = new Pipeline(source(names.iterator()), PARSER, null, 4);
+
+        pipeline.run(new RecordingDiagram());
+
+        assertThat(pipeline.counters()).extracting(StageCounters::getName).containsExactly("source", "parse",
+            "render");
+        assertThat(pipeline.counters()).extracting(StageCounters::getItems).containsOnly(100L);
+        assertThat(pipeline.counters()).allMatch(counters -> counters.getBusyNanos() > 0);
+    }
+
+    @Test
+    void testPipeline_givenZeroDepth() {
+        assertThrows(IllegalArgumentException.class, () -> new Pipeline(source(names.iterator()), PARSER, null, 0));
+    }
+
+    private static Source source(Iterator<String> statements) {
+        return new Source() {
+            @Override
+            public boolean hasNext() {
+                return statements.hasNext();
+            }
+
+            @Override
+            public List<String> next() {
+                return List.of(statements.next());
+            }
+
+            @Override
+            public CharSequence nextStatement() {
+                return statements.next();
+            }
+        };
+    }
+
+    private static class RecordingDiagram implements IncrementalDiagram {
+
+        private final List<Table> tables = new ArrayList<>();
+        private boolean completed;
+        private boolean abandoned;
+
+        @Override
+        public void add(Table table) {
+            tables.add(table);
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        @Override
+        public void abandon() {
+            abandoned = true;
+        }
+
+        List<String> names() {
+            return tables.stream().map(Table::getName).collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.alexander.diagrams.generator;
+
+import com.alexander.diagrams.db.SchemaLoader;
+import com.alexander.diagrams.diagram.DiagramProducer;
+import com.alexander.diagrams.model.Schema;
+import com.alexander.diagrams.model.Table;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SchemaEntityRelationshipGeneratorTest {
+
+    private SchemaLoader loader = mock(SchemaLoader.class);
+    private DiagramProducer producer = mock(DiagramProducer.class);
+
+    private SchemaEntityRelationshipGenerator generator = SchemaEntityRelationshipGenerator.builder()
+        .loader(loader)
+        .producer(producer)
+        .build();
+
+    @Test
+    void testGenerate() {
+        List<Table> tables = List.of(Table.builder().name("test_table").build());
+        when(loader.load()).thenReturn(tables);
+
+        generator.generate();
+
+        verify(loader, times(1)).load();
+        verify(producer, times(1)).generateDiagram(argThat((Schema schema) -> schema.getTables().equals(tables)));
+    }
+
+    @Test
+    void testGenerate_givenEmptySchema() {
+        when(loader.load()).thenReturn(List.of());
+
+        assertThrows(RuntimeException.class, () -> generator.generate(),
+            "Unable to convert empty Table list to a diagram");
+        verify(producer, never()).generateDiagram(any(Schema.class));
+    }
+
+    @Test
+    void testGenerate_givenNullTables() {
+        when(loader.load()).thenReturn(null);
+
+        assertThrows(RuntimeException.class, () -> generator.generate(),
+            "Unable to convert null Table list to a diagram");
+    }
+}
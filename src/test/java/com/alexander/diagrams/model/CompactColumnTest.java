@@ -0,0 +1,94 @@
+package com.alexander.diagrams.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CompactColumnTest {
+
+    @Test
+    void testOf_givenPrecisionAndScale() {
+        CompactColumn column = CompactColumn.of(Column.builder().name("price").type("decimal").scale("10,2").build());
+
+        assertEquals(10, column.getPrecision());
+        assertEquals(2, column.getScale());
+        assertNull(column.getArguments());
+        assertThat(column.getSize()).isEqualTo("10,2");
+        assertThat(column.getType()).isSameAs(DataType.of("decimal"));
+    }
+
+    @Test
+    void testOf_givenPrecision() {
+        CompactColumn column = CompactColumn.of(Column.builder().name("name").type("varchar").scale("255").build());
+
+        assertEquals(255, column.getPrecision());
+        assertEquals(CompactColumn.NO_SIZE, column.getScale());
+        assertThat(column.getSize()).isEqualTo("255");
+    }
+
+    @Test
+    void testOf_givenNoScale() {
+        CompactColumn column = CompactColumn.of(Column.builder().name("created").type("date").build());
+
+        assertEquals(CompactColumn.NO_SIZE, column.getPrecision());
+        assertEquals(CompactColumn.NO_SIZE, column.getScale());
+        assertNull(column.getSize());
+    }
+
+    @Test
+    void testOf_givenEnumValues_thenKeptAsArguments() {
+        CompactColumn column = CompactColumn.of(Column.builder().name("status").type("enum")
+            .scale("'open','closed(ish)'").build());
+
+        assertEquals(CompactColumn.NO_SIZE, column.getPrecision());
+        assertThat(column.getArguments()).isEqualTo("'open','closed(ish)'");
+        assertThat(column.getSize()).isEqualTo("'open','closed(ish)'");
+    }
+
+    @Test
+    void testOf_givenSizesThatWouldNotWriteBackTheSame_thenKeptAsArguments() {
+        for (String scale : new String[] {"10, 2", "010", "10,", ",2", "", "-1", "12345678901", "1,2,3"}) {
+            CompactColumn column = CompactColumn.of(Column.builder().name("n").type("decimal").scale(scale).build());
+
+            assertThat(column.getArguments()).as(scale).isEqualTo(scale);
+            assertThat(column.toColumn().getScale()).as(scale).isEqualTo(scale);
+        }
+    }
+
+    @Test
+    void testOf_thenFlagsPacked() {
+        CompactColumn none = CompactColumn.of(Column.builder().name("none").build());
+        CompactColumn all = CompactColumn.of(Column.builder().name("all").notNull(true).notDefault(true).primary(true)
+            .foreign(true).autoIncrement(true).build());
+        CompactColumn some = CompactColumn.of(Column.builder().name("some").notNull(true).foreign(true).build());
+
+        assertEquals(0, none.getFlags());
+        assertEquals(CompactColumn.NOT_NULL | CompactColumn.NOT_DEFAULT | CompactColumn.PRIMARY | CompactColumn.FOREIGN
+            | CompactColumn.AUTO_INCREMENT, all.getFlags());
+        assertEquals(CompactColumn.NOT_NULL | CompactColumn.FOREIGN, some.getFlags());
+        assertThat(some.isNotNull()).isTrue();
+        assertThat(some.isNotDefault()).isFalse();
+        assertThat(some.isPrimary()).isFalse();
+        assertThat(some.isForeign()).isTrue();
+        assertThat(some.isAutoIncrement()).isFalse();
+    }
+
+    @Test
+    void testToColumn_thenSameColumn() {
+        Column column = Column.builder().name("id").type("int").scale("11").notNull(true).primary(true)
+            .autoIncrement(true).defaultValue("'0'").build();
+
+        assertThat(CompactColumn.of(column).toColumn()).usingRecursiveComparison().isEqualTo(column);
+    }
+
+    @Test
+    void testBuilder_givenNoSize() {
+        CompactColumn column = CompactColumn.builder().name("id").type(DataType.of("int")).build();
+
+        assertEquals(CompactColumn.NO_SIZE, column.getPrecision());
+        assertEquals(CompactColumn.NO_SIZE, column.getScale());
+        assertNull(column.toColumn().getScale());
+    }
+}
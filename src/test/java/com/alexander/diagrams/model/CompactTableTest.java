@@ -0,0 +1,123 @@
+package com.alexander.diagrams.model;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CompactTableTest {
+
+    @Test
+    void testToTable_givenTables_thenSameTables() {
+        List<Table> tables = tables();
+
+        List<Table> unpacked = tables.stream()
+            .map(CompactTable::of)
+            .map(CompactTable::toTable)
+            .collect(Collectors.toList());
+
+        assertThat(unpacked).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(tables);
+    }
+
+    @Test
+    void testOf_thenColumnsShareDataTypes() {
+        List<CompactColumn> columns = tables().stream()
+            .map(CompactTable::of)
+            .flatMap(table -> table.getColumns().stream())
+            .filter(column -> column.getType() != null && "int".equals(column.getType().getName()))
+            .collect(Collectors.toList());
+
+        assertThat(columns).hasSizeGreaterThan(1);
+        assertThat(columns).allSatisfy(column -> assertThat(column.getType()).isSameAs(DataType.of("int")));
+    }
+
+    @Test
+    void testOf_givenTable() {
+        Table table = Table.builder()
+            .name("products")
+            .columns(List.of(Column.builder().name("id").type("int").scale("11").primary(true).build(),
+                Column.builder().name("owner_id").type("int").foreign(true).build()))
+            .foreignKeys(List.of(ForeignKey.builder().foreignKeyName("owner_id").sourceTable("people")
+                .sourceColumn("id").build()))
+            .primaryKeys(List.of(PrimaryKey.builder().keyName(List.of("id", "owner_id")).build()))
+            .build();
+
+        CompactTable compact = CompactTable.of(table);
+
+        assertThat(compact.getName()).isEqualTo("products");
+        assertThat(compact.getColumns()).extracting(CompactColumn::getName).containsExactly("id", "owner_id");
+        assertThat(compact.getForeignKeys()).extracting(CompactForeignKey::getSourceTable).containsExactly("people");
+        assertThat(compact.getPrimaryKeys()).containsExactly(List.of("id", "owner_id"));
+    }
+
+    @Test
+    void testOf_givenNullLists_thenEmpty() {
+        Table table = Table.builder().name("empty").build();
+        table.setColumns(null);
+        table.setForeignKeys(null);
+        table.setPrimaryKeys(null);
+
+        CompactTable compact = CompactTable.of(table);
+
+        assertThat(compact.getColumns()).isEmpty();
+        assertThat(compact.getForeignKeys()).isEmpty();
+        assertThat(compact.getPrimaryKeys()).isEmpty();
+        assertThat(compact.toTable().getColumns()).isEmpty();
+    }
+
+    @Test
+    void testGetters_thenReadOnly() {
+        CompactTable compact = CompactTable.builder()
+            .name("people")
+            .columns(List.of(CompactColumn.builder().name("id").build()))
+            .primaryKeys(List.of(List.of("id")))
+            .build();
+
+        assertThrows(UnsupportedOperationException.class, () -> compact.getColumns().clear());
+        assertThrows(UnsupportedOperationException.class, () -> compact.getForeignKeys().add(null));
+        assertThrows(UnsupportedOperationException.class, () -> compact.getPrimaryKeys().get(0).set(0, "name"));
+    }
+
+    @Test
+    void testToTable_thenMutableCopy() {
+        CompactTable compact = CompactTable.builder()
+            .name("people")
+            .columns(List.of(CompactColumn.builder().name("id").build()))
+            .build();
+
+        Table table = compact.toTable();
+        table.getColumns().clear();
+
+        assertThat(compact.getColumns()).hasSize(1);
+        assertThat(compact.toTable().getColumns()).hasSize(1);
+    }
+
+    /**
+     * Tables covering each kind of column size, default values, foreign keys and a composite primary key.
+     */
+    private static List<Table> tables() {
+        Table people = Table.builder()
+            .name("people")
+            .columns(List.of(
+                Column.builder().name("id").type("int").scale("11").notNull(true).primary(true).autoIncrement(true)
+                    .build(),
+                Column.builder().name("name").type("varchar").scale("255").defaultValue("NULL").build(),
+                Column.builder().name("status").type("enum").scale("'active','left'").notNull(true).build(),
+                Column.builder().name("created").type("timestamp").notDefault(true).build()))
+            .primaryKeys(List.of(PrimaryKey.builder().keyName(List.of("id")).build()))
+            .build();
+        Table products = Table.builder()
+            .name("products")
+            .columns(List.of(
+                Column.builder().name("id").type("int").scale("11").notNull(true).primary(true).build(),
+                Column.builder().name("owner_id").type("int").scale("11").primary(true).foreign(true).build(),
+                Column.builder().name("price").type("decimal").scale("10,2").defaultValue("0.00").build()))
+            .foreignKeys(List.of(ForeignKey.builder().foreignKeyName("owner_id").sourceTable("people")
+                .sourceColumn("id").build()))
+            .primaryKeys(List.of(PrimaryKey.builder().keyName(List.of("id", "owner_id")).build()))
+            .build();
+        return List.of(people, products);
+    }
+}
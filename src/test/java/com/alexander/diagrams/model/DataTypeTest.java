@@ -0,0 +1,29 @@
+package com.alexander.diagrams.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class DataTypeTest {
+
+    @Test
+    void testOf_thenSameInstance() {
+        DataType type = DataType.of("varchar");
+
+        assertThat(DataType.of(new String("varchar".toCharArray()))).isSameAs(type);
+        assertThat(type.getName()).isEqualTo("varchar");
+        assertThat(type).hasToString("varchar");
+    }
+
+    @Test
+    void testOf_givenDifferentCase_thenKeptAsWritten() {
+        assertThat(DataType.of("INT")).isNotSameAs(DataType.of("int"));
+        assertThat(DataType.of("INT").getName()).isEqualTo("INT");
+    }
+
+    @Test
+    void testOf_givenNull() {
+        assertNull(DataType.of(null));
+    }
+}
@@ -0,0 +1,163 @@
+package com.alexander.diagrams.model;
+
+import com.alexander.diagrams.model.ForeignKeyGraph.Direction;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ForeignKeyGraphTest {
+
+    private static final int PEOPLE = 0;
+    private static final int PRODUCTS = 1;
+    private static final int ORDERS = 2;
+    private static final int SUPPLIERS = 3;
+    private static final int CATEGORIES = 4;
+
+    private final Schema schema = Schema.of(List.of(
+        table("people"),
+        table("products", "people", "missing"),
+        table("orders", "people", "products"),
+        table("suppliers"),
+        table("categories", "categories")));
+    private final ForeignKeyGraph graph = ForeignKeyGraph.of(schema);
+
+    @Test
+    void testIds_thenTableOrder() {
+        assertEquals(5, graph.size());
+        assertEquals(ORDERS, graph.id("orders"));
+        assertEquals("orders", graph.name(ORDERS));
+        assertEquals(ForeignKeyGraph.NO_TABLE, graph.id("missing"));
+    }
+
+    @Test
+    void testEdges_thenOrphansCountedNotLinked() {
+        assertEquals(4, graph.edgeCount());
+        assertEquals(1, graph.orphanCount());
+        assertEquals(1, graph.outDegree(PRODUCTS));
+        assertEquals(PEOPLE, graph.outbound(PRODUCTS, 0));
+    }
+
+    @Test
+    void testOutbound_thenForeignKeyOrder() {
+        assertEquals(2, graph.outDegree(ORDERS));
+        assertEquals(PEOPLE, graph.outbound(ORDERS, 0));
+        assertEquals(PRODUCTS, graph.outbound(ORDERS, 1));
+        assertEquals(0, graph.outDegree(PEOPLE));
+        assertEquals(CATEGORIES, graph.outbound(CATEGORIES, 0));
+    }
+
+    @Test
+    void testInbound_thenTableOrder() {
+        assertEquals(2, graph.inDegree(PEOPLE));
+        assertEquals(PRODUCTS, graph.inbound(PEOPLE, 0));
+        assertEquals(ORDERS, graph.inbound(PEOPLE, 1));
+        assertEquals(1, graph.inDegree(PRODUCTS));
+        assertEquals(0, graph.inDegree(SUPPLIERS));
+    }
+
+    @Test
+    void testBreadthFirst_givenOutbound() {
+        int[] order = new int[graph.size()];
+        int[] depth = new int[graph.size()];
+
+        int visited = graph.breadthFirst(ORDERS, Direction.OUTBOUND, Integer.MAX_VALUE, order, depth);
+
+        assertEquals(3, visited);
+        assertThat(order).startsWith(ORDERS, PEOPLE, PRODUCTS);
+        assertThat(depth).containsExactly(1, 1, 0, ForeignKeyGraph.UNREACHED, ForeignKeyGraph.UNREACHED);
+    }
+
+    @Test
+    void testBreadthFirst_givenInbound() {
+        assertThat(graph.breadthFirst(PEOPLE, Direction.INBOUND, Integer.MAX_VALUE))
+            .containsExactly(PEOPLE, PRODUCTS, ORDERS);
+        assertThat(graph.breadthFirst(ORDERS, Direction.INBOUND, Integer.MAX_VALUE)).containsExactly(ORDERS);
+    }
+
+    @Test
+    void testBreadthFirst_givenBoth() {
+        assertThat(graph.breadthFirst(PRODUCTS, Direction.BOTH, Integer.MAX_VALUE))
+            .containsExactly(PRODUCTS, PEOPLE, ORDERS);
+        assertThat(graph.breadthFirst(CATEGORIES, Direction.BOTH, Integer.MAX_VALUE)).containsExactly(CATEGORIES);
+    }
+
+    @Test
+    void testBreadthFirst_givenMaxDepth() {
+        assertThat(graph.breadthFirst(PEOPLE, Direction.BOTH, 0)).containsExactly(PEOPLE);
+        assertThat(graph.breadthFirst(PEOPLE, Direction.BOTH, 1)).containsExactly(PEOPLE, PRODUCTS, ORDERS);
+    }
+
+    @Test
+    void testBreadthFirst_givenNegativeMaxDepth() {
+        assertThrows(IllegalArgumentException.class, () -> graph.breadthFirst(PEOPLE, Direction.BOTH, -1));
+    }
+
+    @Test
+    void testBreadthFirst_givenReusedArrays_thenDepthsReset() {
+        int[] order = new int[graph.size()];
+        int[] depth = new int[graph.size()];
+        graph.breadthFirst(PEOPLE, Direction.BOTH, Integer.MAX_VALUE, order, depth);
+
+        int visited = graph.breadthFirst(SUPPLIERS, Direction.BOTH, Integer.MAX_VALUE, order, depth);
+
+        assertEquals(1, visited);
+        assertThat(depth).containsExactly(ForeignKeyGraph.UNREACHED, ForeignKeyGraph.UNREACHED,
+            ForeignKeyGraph.UNREACHED, 0, ForeignKeyGraph.UNREACHED);
+    }
+
+    @Test
+    void testComponents() {
+        int[] labels = new int[graph.size()];
+
+        int components = graph.components(labels, new int[graph.size()]);
+
+        assertEquals(3, components);
+        assertThat(labels).containsExactly(0, 0, 0, 1, 2);
+        assertThat(graph.components()).containsExactly(0, 0, 0, 1, 2);
+    }
+
+    @Test
+    void testComponents_givenLongChain() {
+        int size = 20_000;
+        List<Table> tables = IntStream.range(0, size)
+            .mapToObj(i -> i == 0 ? table("table_0") : table("table_" + i, "table_" + (i - 1)))
+            .collect(Collectors.toList());
+        ForeignKeyGraph chain = ForeignKeyGraph.of(Schema.of(tables));
+        int[] order = new int[size];
+        int[] depth = new int[size];
+
+        assertThat(chain.components()).containsOnly(0);
+        assertEquals(size, chain.breadthFirst(size - 1, Direction.OUTBOUND, Integer.MAX_VALUE, order, depth));
+        assertEquals(size - 1, depth[0]);
+        assertEquals(1, chain.breadthFirst(0, Direction.OUTBOUND, Integer.MAX_VALUE, order, depth));
+    }
+
+    @Test
+    void testOf_givenEmptySchema() {
+        ForeignKeyGraph empty = ForeignKeyGraph.of(Schema.of(List.of()));
+
+        assertEquals(0, empty.size());
+        assertThat(empty.components()).isEmpty();
+    }
+
+    @Test
+    void testGetForeignKeyGraph_thenBuiltOnce() {
+        assertThat(schema.getForeignKeyGraph()).isSameAs(schema.getForeignKeyGraph());
+        assertEquals(5, schema.getForeignKeyGraph().size());
+    }
+
+    private static Table table(String name, String... references) {
+        return Table.builder()
+            .name(name)
+            .foreignKeys(IntStream.range(0, references.length)
+                .mapToObj(i -> ForeignKey.builder().foreignKeyName("fk_" + i).sourceTable(references[i])
+                    .sourceColumn("id").build())
+                .collect(Collectors.toList()))
+            .build();
+    }
+}
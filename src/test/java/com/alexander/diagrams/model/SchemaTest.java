@@ -0,0 +1,114 @@
+package com.alexander.diagrams.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SchemaTest {
+
+    private final ForeignKey ownerOfProduct = ForeignKey.builder().foreignKeyName("owner_id").sourceTable("people")
+        .sourceColumn("id").build();
+    private final ForeignKey ownerOfOrder = ForeignKey.builder().foreignKeyName("owner_id").sourceTable("people")
+        .sourceColumn("id").build();
+    private final ForeignKey missingSupplier = ForeignKey.builder().foreignKeyName("supplier_id")
+        .sourceTable("suppliers").sourceColumn("id").build();
+    private final Column peopleId = Column.builder().name("id").type("int").primary(true).build();
+    private final Table people = Table.builder().name("people").columns(List.of(peopleId)).build();
+    private final Table products = Table.builder()
+        .name("products")
+        .columns(List.of(Column.builder().name("id").build(), Column.builder().name("owner_id").foreign(true).build()))
+        .foreignKeys(List.of(ownerOfProduct, missingSupplier))
+        .build();
+    private final Table orders = Table.builder().name("orders").foreignKeys(List.of(ownerOfOrder)).build();
+
+    private final Schema schema = Schema.of(List.of(people, products, orders));
+
+    @Test
+    void testGetTables_thenInGivenOrder() {
+        assertThat(schema.getTables()).containsExactly(people, products, orders);
+        assertThrows(UnsupportedOperationException.class, () -> schema.getTables().clear());
+    }
+
+    @Test
+    void testOf_thenCopiesTheList() {
+        List<Table> tables = new ArrayList<>(List.of(people));
+        Schema copied = Schema.of(tables);
+
+        tables.add(orders);
+
+        assertThat(copied.getTables()).containsExactly(people);
+    }
+
+    @Test
+    void testGetTable() {
+        assertThat(schema.getTable("products")).isSameAs(products);
+        assertThat(schema.hasTable("products")).isTrue();
+        assertNull(schema.getTable("suppliers"));
+        assertThat(schema.hasTable("suppliers")).isFalse();
+    }
+
+    @Test
+    void testGetColumn() {
+        assertThat(schema.getColumn("people", "id")).isSameAs(peopleId);
+        assertThat(schema.getColumn("products", "owner_id").isForeign()).isTrue();
+        assertNull(schema.getColumn("people", "owner_id"));
+        assertNull(schema.getColumn("suppliers", "id"));
+    }
+
+    @Test
+    void testGetOutbound() {
+        assertThat(schema.getOutbound("products")).extracting(Relationship::getForeignKey)
+            .containsExactly(ownerOfProduct, missingSupplier);
+        assertThat(schema.getOutbound("products")).extracting(Relationship::getTable)
+            .containsOnly("products");
+        assertThat(schema.getOutbound("people")).isEmpty();
+        assertThat(schema.getOutbound("suppliers")).isEmpty();
+    }
+
+    @Test
+    void testGetInbound() {
+        assertThat(schema.getInbound("people")).extracting(Relationship::getTable)
+            .containsExactly("products", "orders");
+        assertThat(schema.getInbound("suppliers")).extracting(Relationship::getForeignKey)
+            .containsExactly(missingSupplier);
+        assertThat(schema.getInbound("orders")).isEmpty();
+    }
+
+    @Test
+    void testGetRelationships_thenInTableOrder() {
+        assertThat(schema.getRelationships()).extracting(Relationship::getForeignKey)
+            .containsExactly(ownerOfProduct, missingSupplier, ownerOfOrder);
+    }
+
+    @Test
+    void testIsOrphan() {
+        assertThat(schema.getRelationships()).filteredOn(schema::isOrphan).extracting(Relationship::getForeignKey)
+            .containsExactly(missingSupplier);
+    }
+
+    @Test
+    void testOf_givenNullListsAndElements() {
+        List<ForeignKey> foreignKeys = new ArrayList<>();
+        foreignKeys.add(null);
+        List<Column> columns = new ArrayList<>();
+        columns.add(null);
+        Table table = Table.builder().name("nulls").columns(columns).foreignKeys(foreignKeys).build();
+        Table empty = Table.builder().name("empty").build();
+        empty.setColumns(null);
+        empty.setForeignKeys(null);
+
+        Schema nulls = Schema.of(List.of(table, empty));
+
+        assertThat(nulls.getRelationships()).isEmpty();
+        assertNull(nulls.getColumn("empty", "id"));
+    }
+
+    @Test
+    void testOf_givenDuplicateTable() {
+        assertThrows(IllegalStateException.class, () -> Schema.of(List.of(people, people)));
+    }
+}
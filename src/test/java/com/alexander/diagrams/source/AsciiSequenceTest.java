@@ -0,0 +1,61 @@
+package com.alexander.diagrams.source;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AsciiSequenceTest {
+
+    private static final String STATEMENT = "CREATE TABLE `inventory` (\n  `inventory_id` varchar(36) NOT NULL\n)";
+
+    @Test
+    void testOf_givenAscii_thenViewOfBytes() {
+        CharSequence text = AsciiSequence.of(ByteBuffer.wrap(STATEMENT.getBytes(StandardCharsets.US_ASCII)));
+
+        assertThat(text).isInstanceOf(AsciiSequence.class);
+        assertEquals(STATEMENT.length(), text.length());
+        assertEquals('C', text.charAt(0));
+        assertEquals(STATEMENT, text.toString());
+    }
+
+    @Test
+    void testOf_givenNonAscii_thenDecoded() {
+        String unicode = STATEMENT.replace("inventory", "täble_日本");
+
+        CharSequence text = AsciiSequence.of(ByteBuffer.wrap(unicode.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(text).isNotInstanceOf(AsciiSequence.class);
+        assertEquals(unicode, text.toString());
+    }
+
+    @Test
+    void testOf_givenNonAsciiInTail() {
+        String tail = "abcdefgh" + "é";
+
+        assertEquals(tail, AsciiSequence.of(ByteBuffer.wrap(tail.getBytes(StandardCharsets.UTF_8))).toString());
+    }
+
+    @Test
+    void testOf_givenBufferPosition_thenRemainingBytesOnly() {
+        ByteBuffer bytes = ByteBuffer.wrap(("--\n" + STATEMENT).getBytes(StandardCharsets.US_ASCII));
+        bytes.position(3);
+
+        assertEquals(STATEMENT, AsciiSequence.of(bytes).toString());
+    }
+
+    @Test
+    void testSubSequence() {
+        CharSequence text = AsciiSequence.of(ByteBuffer.wrap(STATEMENT.getBytes(StandardCharsets.US_ASCII)));
+
+        CharSequence name = text.subSequence(14, 23);
+
+        assertEquals("inventory", name.toString());
+        assertEquals("vent", name.subSequence(2, 6).toString());
+        assertThrows(IndexOutOfBoundsException.class, () -> text.subSequence(5, 4));
+        assertThrows(IndexOutOfBoundsException.class, () -> text.subSequence(0, STATEMENT.length() + 1));
+    }
+}
@@ -0,0 +1,130 @@
+package com.alexander.diagrams.source;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ConnectionPoolTest {
+
+    @Test
+    void testBorrow_givenReleasedConnection_thenReused() throws SQLException {
+        Connection conn = mock(Connection.class);
+        ConnectionPool.ConnectionFactory factory = mock(ConnectionPool.ConnectionFactory.class);
+        when(factory.open()).thenReturn(conn);
+        ConnectionPool pool = new ConnectionPool(factory, 1);
+
+        pool.release(pool.borrow());
+        pool.release(pool.borrow());
+
+        verify(factory, times(1)).open();
+        verify(conn, never()).close();
+    }
+
+    @Test
+    void testRelease_whenPoolFull_thenConnectionClosed() throws SQLException {
+        Connection first = mock(Connection.class);
+        Connection second = mock(Connection.class);
+        ConnectionPool pool = new ConnectionPool(mockFactory(first, second), 1);
+
+        Connection borrowedFirst = pool.borrow();
+        Connection borrowedSecond = pool.borrow();
+        pool.release(borrowedFirst);
+        pool.release(borrowedSecond);
+
+        assertEquals(1, pool.idleCount());
+        verify(first, never()).close();
+        verify(second, times(1)).close();
+    }
+
+    @Test
+    void testBorrow_givenClosedIdleConnection_thenNewConnectionOpened() throws SQLException {
+        Connection stale = mock(Connection.class);
+        Connection fresh = mock(Connection.class);
+        ConnectionPool pool = new ConnectionPool(mockFactory(stale, fresh), 1);
+        pool.release(pool.borrow());
+        when(stale.isClosed()).thenReturn(true);
+
+        assertSame(fresh, pool.borrow());
+    }
+
+    @Test
+    void testDiscard_thenConnectionClosedAndNotReused() throws SQLException {
+        Connection broken = mock(Connection.class);
+        Connection fresh = mock(Connection.class);
+        ConnectionPool pool = new ConnectionPool(mockFactory(broken, fresh), 1);
+
+        pool.discard(pool.borrow(), new SQLException("broken"));
+
+        verify(broken, times(1)).close();
+        assertNotSame(broken, pool.borrow());
+    }
+
+    @Test
+    void testDiscard_whenCloseFails_thenSuppressed() throws SQLException {
+        Connection broken = mock(Connection.class);
+        doThrow(SQLException.class).when(broken).close();
+        ConnectionPool pool = new ConnectionPool(mockFactory(broken), 1);
+        SQLException cause = new SQLException("broken");
+
+        pool.discard(pool.borrow(), cause);
+
+        assertEquals(1, cause.getSuppressed().length);
+    }
+
+    @Test
+    void testClose_thenIdleConnectionsClosed() throws SQLException {
+        Connection first = mock(Connection.class);
+        Connection second = mock(Connection.class);
+        ConnectionPool pool = new ConnectionPool(mockFactory(first, second), 2);
+        Connection borrowedFirst = pool.borrow();
+        Connection borrowedSecond = pool.borrow();
+        pool.release(borrowedFirst);
+        pool.release(borrowedSecond);
+
+        pool.close();
+
+        assertEquals(0, pool.idleCount());
+        verify(first, times(1)).close();
+        verify(second, times(1)).close();
+    }
+
+    @Test
+    void testClose_whenCloseFails_thenThrowRuntimeException() throws SQLException {
+        Connection conn = mock(Connection.class);
+        doThrow(SQLException.class).when(conn).close();
+        ConnectionPool pool = new ConnectionPool(mockFactory(conn), 1);
+        pool.release(pool.borrow());
+
+        assertThrows(RuntimeException.class, pool::close);
+    }
+
+    @Test
+    void testConstructor_givenZeroSize() {
+        assertThrows(IllegalArgumentException.class, () -> new ConnectionPool(mockFactory(), 0));
+    }
+
+    private static ConnectionPool.ConnectionFactory mockFactory(Connection... connections) {
+        ConnectionPool.ConnectionFactory factory = mock(ConnectionPool.ConnectionFactory.class);
+        try {
+            if (connections.length > 0) {
+                Connection[] rest = Arrays.copyOfRange(connections, 1, connections.length);
+                when(factory.open()).thenReturn(connections[0], rest);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+        return factory;
+    }
+}
@@ -12,6 +12,9 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
 import lombok.Builder;
 import lombok.experimental.SuperBuilder;
 import org.junit.jupiter.api.AfterAll;
@@ -115,6 +118,110 @@ class DatabaseSourceTest {
 
     }
 
+    @Test
+    void testNextStatement() {
+        DatabaseSource source = DatabaseSource.builder()
+            .username(sourceUsername)
+            .password(sourcePassword)
+            .databaseName(database)
+            .databaseUrl(databaseUrl)
+            .tableNames(List.of("attribute_types"))
+            .build();
+        assertThat(source.hasNext()).isTrue();
+        assertThat(source.nextStatement().toString()).startsWith("CREATE TABLE `attribute_types` (").hasLineCount(8);
+        assertThat(source.hasNext()).isFalse();
+    }
+
+    @Test
+    void testNextStatement_givenBatchSize() {
+        DatabaseSource sequential = DatabaseSource.builder()
+            .username(sourceUsername)
+            .password(sourcePassword)
+            .databaseName(database)
+            .databaseUrl(databaseUrl)
+            .tableNames(List.of("attribute_types", "attributes", "attribute_types"))
+            .build();
+        DatabaseSource batched = DatabaseSource.builder()
+            .username(sourceUsername)
+            .password(sourcePassword)
+            .databaseName(database)
+            .databaseUrl(databaseUrl)
+            .tableNames(List.of("attribute_types", "attributes", "attribute_types"))
+            .batchSize(2)
+            .build();
+
+        while (sequential.hasNext()) {
+            assertThat(batched.hasNext()).isTrue();
+            assertThat(batched.nextStatement().toString()).isEqualTo(sequential.nextStatement().toString());
+        }
+        assertThat(batched.hasNext()).isFalse();
+        assertThrows(NoSuchElementException.class, batched::nextStatement);
+    }
+
+    @Test
+    void testNext_givenBatchSizeAndFetchThreads() {
+        DatabaseSource source = DatabaseSource.builder()
+            .username(sourceUsername)
+            .password(sourcePassword)
+            .databaseName(database)
+            .databaseUrl(databaseUrl)
+            .batchSize(3)
+            .fetchThreads(2)
+            .build();
+        assertThat(source.hasNext()).isTrue();
+        assertThat(source.next()).hasSize(8);
+        assertThat(source.next()).hasSize(15);
+        assertThat(source.hasNext()).isFalse();
+    }
+
+    @Test
+    void testNextStatement_givenBatchSize_whenTableDoesntExist() {
+        DatabaseSource source = DatabaseSource.builder()
+            .username(sourceUsername)
+            .password(sourcePassword)
+            .databaseName(database)
+            .databaseUrl(databaseUrl)
+            .tableNames(List.of("attribute_types", "doesnotexist"))
+            .batchSize(2)
+            .build();
+        assertThat(source.hasNext()).isTrue();
+        assertThrows(RuntimeException.class, () -> source.nextStatement());
+    }
+
+    @Test
+    void testNextStatement_givenBatchSize_whenTableNameHoldsSql_thenOnlyReadAsName() {
+        DatabaseSource source = DatabaseSource.builder()
+            .username(sourceUsername)
+            .password(sourcePassword)
+            .databaseName(database)
+            .databaseUrl(databaseUrl)
+            .tableNames(List.of("attributes", "attributes; CREATE TABLE injected (id int)"))
+            .batchSize(2)
+            .build();
+        assertThrows(RuntimeException.class, () -> source.nextStatement());
+
+        DatabaseSource injected = DatabaseSource.builder()
+            .username(sourceUsername)
+            .password(sourcePassword)
+            .databaseName(database)
+            .databaseUrl(databaseUrl)
+            .tableNames(List.of("injected"))
+            .build();
+        assertThrows(RuntimeException.class, () -> injected.nextStatement());
+    }
+
+    @Test
+    void testQuote() {
+        assertThat(DatabaseSource.quote("attributes")).isEqualTo("`attributes`");
+        assertThat(DatabaseSource.quote("order-items 2")).isEqualTo("`order-items 2`");
+        assertThat(DatabaseSource.quote("a`; DROP TABLE b; `")).isEqualTo("`a``; DROP TABLE b; ```");
+    }
+
+    @Test
+    void testBuild_givenZeroBatchSize() {
+        assertThrows(IllegalArgumentException.class, () -> DatabaseSource.builder().batchSize(0).build());
+    }
+
     @Test
     void testWhenWrongPassword_thenAuthenticationFailed() {
         assertThrows(RuntimeException.class,
@@ -181,7 +288,7 @@ class DatabaseSourceTest {
         Connection conn = mock(Connection.class);
         doNothing().when(conn).close();
 
-        when(conn.prepareStatement("SHOW CREATE TABLE " + mocktable + ";")).thenThrow(SQLException.class);
+        when(conn.prepareStatement("SHOW CREATE TABLE `" + mocktable + "`;")).thenThrow(SQLException.class);
 
         DatabaseSource source = MockConnectionDatabaseSource.subbuilder()
             .connection(conn)
@@ -200,7 +307,7 @@ class DatabaseSourceTest {
         Connection conn = mock(Connection.class);
         doThrow(SQLException.class).when(conn).close();
 
-        when(conn.prepareStatement("SHOW CREATE TABLE " + mocktable + ";")).thenThrow(SQLException.class);
+        when(conn.prepareStatement("SHOW CREATE TABLE `" + mocktable + "`;")).thenThrow(SQLException.class);
 
         DatabaseSource source = MockConnectionDatabaseSource.subbuilder()
             .connection(conn)
@@ -222,7 +329,7 @@ class DatabaseSourceTest {
         Connection conn = mock(Connection.class);
         doNothing().when(conn).close();
 
-        when(conn.prepareStatement("SHOW CREATE TABLE " + mocktable + ";")).thenReturn(showCreateTableStatement);
+        when(conn.prepareStatement("SHOW CREATE TABLE `" + mocktable + "`;")).thenReturn(showCreateTableStatement);
 
         DatabaseSource source = MockConnectionDatabaseSource.subbuilder()
             .connection(conn)
@@ -253,7 +360,7 @@ class DatabaseSourceTest {
         Connection conn = mock(Connection.class);
         doNothing().when(conn).close();
 
-        when(conn.prepareStatement("SHOW CREATE TABLE " + mocktable + ";")).thenReturn(showCreateTableStatement);
+        when(conn.prepareStatement("SHOW CREATE TABLE `" + mocktable + "`;")).thenReturn(showCreateTableStatement);
 //        when(conn.prepareStatement("SHOW TABLES;")).thenReturn(listTablesStatement);
 
         DatabaseSource source = MockConnectionDatabaseSource.subbuilder()
@@ -288,7 +395,7 @@ class DatabaseSourceTest {
         Connection conn = mock(Connection.class);
         doNothing().when(conn).close();
 
-        when(conn.prepareStatement("SHOW CREATE TABLE " + mocktable + ";")).thenReturn(showCreateTableStatement);
+        when(conn.prepareStatement("SHOW CREATE TABLE `" + mocktable + "`;")).thenReturn(showCreateTableStatement);
 //        when(conn.prepareStatement("SHOW TABLES;")).thenReturn(listTablesStatement);
 
         DatabaseSource source = MockConnectionDatabaseSource.subbuilder()
@@ -300,9 +407,116 @@ class DatabaseSourceTest {
             .build();
 
         assertThat(source.getDescribeTable(mocktable)).isEqualTo(new LinkedList<>());
+        verify(conn, never()).close();
+        source.close();
+        verify(conn, times(1)).close();
+    }
+
+    @Test
+    void testGetDescribeTable_givenMultipleTables_thenConnectionReused() throws SQLException {
+        ResultSet createTableResult = mock(ResultSet.class);
+        when(createTableResult.next()).thenReturn(true);
+        when(createTableResult.getString(2)).thenReturn("CREATE TABLE `" + mocktable + "` (\n)");
+
+        PreparedStatement showCreateTableStatement = mock(PreparedStatement.class);
+        when(showCreateTableStatement.executeQuery()).thenReturn(createTableResult);
+
+        Connection conn = mock(Connection.class);
+        when(conn.prepareStatement("SHOW CREATE TABLE `" + mocktable + "`;")).thenReturn(showCreateTableStatement);
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(conn);
+
+        DatabaseSource source = DatabaseSource.builder()
+            .dataSource(dataSource)
+            .tableNames(List.of(mocktable, mocktable, mocktable))
+            .build();
+
+        assertSourceSize(3, source);
+        verify(dataSource, times(1)).getConnection();
+        verify(showCreateTableStatement, times(3)).close();
         verify(conn, times(1)).close();
     }
 
+    @Test
+    void testGetDescribeTable_whenExecuteQuery_thenConnectionReplaced() throws SQLException {
+        PreparedStatement showCreateTableStatement = mock(PreparedStatement.class);
+        when(showCreateTableStatement.executeQuery()).thenThrow(SQLException.class);
+
+        Connection broken = mock(Connection.class);
+        when(broken.prepareStatement("SHOW CREATE TABLE `" + mocktable + "`;")).thenReturn(showCreateTableStatement);
+        Connection replacement = mock(Connection.class);
+        when(replacement.prepareStatement("SHOW CREATE TABLE `" + mocktable + "`;")).thenReturn(showCreateTableStatement);
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(broken, replacement);
+
+        DatabaseSource source = DatabaseSource.builder()
+            .dataSource(dataSource)
+            .build();
+
+        assertThrows(RuntimeException.class, () -> source.getDescribeTable(mocktable));
+        verify(broken, times(1)).close();
+        assertThrows(RuntimeException.class, () -> source.getDescribeTable(mocktable));
+        verify(dataSource, times(2)).getConnection();
+    }
+
+    @Test
+    void testNextStatement_givenFetchThreads_thenTableOrderPreserved() throws SQLException {
+        List<String> tableNames = new LinkedList<>();
+        for (int i = 0; i < 20; i++) {
+            tableNames.add(mocktable + i);
+        }
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenAnswer(invocation -> showCreateTableConnection(tableNames));
+
+        DatabaseSource source = DatabaseSource.builder()
+            .dataSource(dataSource)
+            .tableNames(tableNames)
+            .fetchThreads(3)
+            .build();
+
+        List<String> statements = new LinkedList<>();
+        while (source.hasNext()) {
+            statements.add(source.nextStatement().toString());
+        }
+        assertThat(statements).containsExactlyElementsOf(tableNames.stream()
+            .map(tableName -> "CREATE TABLE `" + tableName + "` (\n)")
+            .collect(Collectors.toList()));
+        verify(dataSource, atMost(3)).getConnection();
+    }
+
+    @Test
+    void testNextStatement_givenFetchThreads_whenExecuteQuery_thenThrowRuntimeException() throws SQLException {
+        PreparedStatement showCreateTableStatement = mock(PreparedStatement.class);
+        when(showCreateTableStatement.executeQuery()).thenThrow(SQLException.class);
+        Connection conn = mock(Connection.class);
+        when(conn.prepareStatement(anyString())).thenReturn(showCreateTableStatement);
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(conn);
+
+        DatabaseSource source = DatabaseSource.builder()
+            .dataSource(dataSource)
+            .tableNames(List.of(mocktable, mocktable))
+            .fetchThreads(2)
+            .build();
+
+        assertTrue(source.hasNext());
+        assertThrows(RuntimeException.class, source::nextStatement);
+        assertFalse(source.hasNext());
+    }
+
+    private static Connection showCreateTableConnection(List<String> tableNames) throws SQLException {
+        Connection conn = mock(Connection.class);
+        for (String tableName : tableNames) {
+            ResultSet createTableResult = mock(ResultSet.class);
+            when(createTableResult.next()).thenReturn(true);
+            when(createTableResult.getString(2)).thenReturn("CREATE TABLE `" + tableName + "` (\n)");
+            PreparedStatement showCreateTableStatement = mock(PreparedStatement.class);
+            when(showCreateTableStatement.executeQuery()).thenReturn(createTableResult);
+            when(conn.prepareStatement("SHOW CREATE TABLE `" + tableName + "`;")).thenReturn(showCreateTableStatement);
+        }
+        return conn;
+    }
+
     private static String createAttributeTypesTable() {
         StringBuilder builder = new StringBuilder();
         builder.append("CREATE TABLE attribute_types (");
@@ -1,14 +1,19 @@
 package com.alexander.diagrams.source;
 
+import com.alexander.diagrams.db.MySqlScannerParser;
 import com.alexander.diagrams.generator.DatabaseEntityRelationshipGenerator;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.assertj.core.util.Files;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Test;
 
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 
 class FileSourceTest {
@@ -93,6 +98,110 @@ class FileSourceTest {
         assertThrows(RuntimeException.class, () -> source.next());
     }
 
+    @Test
+    void testNextStatement() throws IOException {
+        FileSource source = FileSource.builder()
+            .directoryPath(Path.of(testPath, packagePath, system).toString())
+            .fileName("inventory.sql")
+            .build();
+        assertEquals(java.nio.file.Files.readString(Path.of(testPath, packagePath, system, "inventory.sql")),
+            source.nextStatement().toString());
+        assertFalse(source.hasNext());
+    }
+
+    @Test
+    void testNextStatement_givenMemoryMapped() throws IOException {
+        FileSource source = FileSource.builder()
+            .directoryPath(Path.of(testPath, packagePath, system).toString())
+            .fileName("inventory.sql")
+            .memoryMapped(true)
+            .build();
+        assertEquals(java.nio.file.Files.readString(Path.of(testPath, packagePath, system, "inventory.sql")),
+            source.nextStatement().toString());
+        assertFalse(source.hasNext());
+    }
+
+    @Test
+    void testNextStatement_givenMemoryMapped_thenParsedInPlace() {
+        FileSource read = FileSource.builder()
+            .directoryPath(Path.of(testPath, packagePath, system).toString())
+            .build();
+        FileSource mapped = FileSource.builder()
+            .directoryPath(Path.of(testPath, packagePath, system).toString())
+            .memoryMapped(true)
+            .build();
+        MySqlScannerParser parser = new MySqlScannerParser();
+
+        while (read.hasNext()) {
+            CharSequence statement = mapped.nextStatement();
+            assertThat(statement).isInstanceOf(AsciiSequence.class);
+            assertThat(parser.parseTable(statement)).usingRecursiveComparison()
+                .isEqualTo(parser.parseTable(read.nextStatement()));
+        }
+        assertFalse(mapped.hasNext());
+    }
+
+    @Test
+    void testNextStatement_thenFileNameOrder() throws IOException {
+        Path directory = Path.of(testPath, packagePath, system);
+        List<String> expected;
+        try (Stream<Path> files = java.nio.file.Files.list(directory)) {
+            expected = files.filter(file -> file.toString().endsWith(".sql"))
+                .map(file -> file.getFileName().toString())
+                .sorted()
+                .collect(Collectors.toList());
+        }
+        FileSource source = FileSource.builder()
+            .directoryPath(directory.toString())
+            .build();
+
+        for (String file : expected) {
+            assertTrue(source.hasNext());
+            assertEquals(java.nio.file.Files.readString(directory.resolve(file)), source.nextStatement().toString());
+        }
+        assertFalse(source.hasNext());
+    }
+
+    @Test
+    void testNextStatement_givenReadAheadThreads_thenDirectoryOrderPreserved() {
+        FileSource sequential = FileSource.builder()
+            .directoryPath(Path.of(testPath, packagePath, system).toString())
+            .build();
+        FileSource readAhead = FileSource.builder()
+            .directoryPath(Path.of(testPath, packagePath, system).toString())
+            .memoryMapped(true)
+            .readAheadThreads(3)
+            .build();
+
+        while (sequential.hasNext()) {
+            assertTrue(readAhead.hasNext());
+            assertEquals(sequential.nextStatement().toString(), readAhead.nextStatement().toString());
+        }
+        assertFalse(readAhead.hasNext());
+    }
+
+    @Test
+    void testNext_givenReadAheadThreads() {
+        FileSource source = FileSource.builder()
+            .directoryPath(Path.of(testPath, packagePath, system).toString())
+            .readAheadThreads(2)
+            .build();
+        assertSourceSize(8, source);
+    }
+
+    @Test
+    void testClose_givenReadAheadThreads() {
+        FileSource source = FileSource.builder()
+            .directoryPath(Path.of(testPath, packagePath, system).toString())
+            .readAheadThreads(2)
+            .build();
+        source.nextStatement();
+
+        source.close();
+
+        assertFalse(source.hasNext());
+    }
+
     private void assertSourceSize(int expectedSize, Source source) {
         int i = 0;
         while (source.hasNext()) {
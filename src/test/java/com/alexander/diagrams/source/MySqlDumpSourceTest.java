@@ -0,0 +1,128 @@
+package com.alexander.diagrams.source;
+
+import com.alexander.diagrams.generator.DatabaseEntityRelationshipGenerator;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MySqlDumpSourceTest {
+
+    static String testPath = String.format("src%stest%sresources%s",
+        File.separator, File.separator, File.separator);
+    static String packagePath = MySqlDumpSource.class.getPackageName()
+        .replace(".", File.separator);
+    static String system = "pim";
+    static Path dump = Path.of(testPath, packagePath, "mysqldump.sql");
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testBuild_givenNullFilePath() {
+        assertThrows(IllegalArgumentException.class,
+            () -> MySqlDumpSource.builder().build());
+    }
+
+    @Test
+    void testBuild_givenMissingFile() {
+        assertThrows(RuntimeException.class,
+            () -> MySqlDumpSource.builder().filePath(Path.of("/madeup.sql").toString()).build());
+    }
+
+    @Test
+    void testNextStatement() throws IOException {
+        MySqlDumpSource source = MySqlDumpSource.builder().filePath(dump.toString()).build();
+
+        assertThat(readAll(source)).containsExactly(
+            fixture("attribute_types.sql"),
+            fixture("attributes.sql"));
+    }
+
+    @Test
+    void testNextStatement_givenSmallBuffer() throws IOException {
+        MySqlDumpSource source = MySqlDumpSource.builder()
+            .filePath(dump.toString())
+            .bufferSize(1)
+            .build();
+
+        assertThat(readAll(source)).containsExactly(
+            fixture("attribute_types.sql"),
+            fixture("attributes.sql"));
+    }
+
+    @Test
+    void testNext() throws IOException {
+        MySqlDumpSource source = MySqlDumpSource.builder().filePath(dump.toString()).build();
+
+        assertTrue(source.hasNext());
+        assertThat(source.next()).isEqualTo(fixture("attribute_types.sql").lines().collect(Collectors.toList()));
+    }
+
+    @Test
+    void testNextStatement_whenExhausted() {
+        MySqlDumpSource source = MySqlDumpSource.builder().filePath(dump.toString()).build();
+        readAll(source);
+
+        assertFalse(source.hasNext());
+        assertThrows(NoSuchElementException.class, source::nextStatement);
+    }
+
+    @Test
+    void testNextStatement_whenClosed() {
+        MySqlDumpSource source = MySqlDumpSource.builder().filePath(dump.toString()).build();
+        assertTrue(source.hasNext());
+        source.nextStatement();
+
+        source.close();
+
+        assertFalse(source.hasNext());
+    }
+
+    @Test
+    void testNextStatement_givenDataLargerThanBuffer() throws IOException {
+        Path largeDump = tempDir.resolve("large.sql");
+        try (Writer writer = Files.newBufferedWriter(largeDump, StandardCharsets.UTF_8)) {
+            writer.write("INSERT INTO `attribute_types` VALUES ");
+            for (int i = 0; i < 50_000; i++) {
+                writer.write("('" + i + "','CREATE TABLE ; \\' `x`','/* -- ',0),");
+            }
+            writer.write("('last','','',0);\n");
+            writer.write(fixture("attributes.sql"));
+            writer.write(";\n");
+        }
+        MySqlDumpSource source = MySqlDumpSource.builder()
+            .filePath(largeDump.toString())
+            .bufferSize(128)
+            .build();
+
+        assertThat(readAll(source)).containsExactly(fixture("attributes.sql"));
+    }
+
+    private static List<String> readAll(Source source) {
+        List<String> statements = new ArrayList<>();
+        while (source.hasNext()) {
+            statements.add(source.nextStatement().toString());
+        }
+        return statements;
+    }
+
+    private static String fixture(String fileName) throws IOException {
+        String generatorPath = DatabaseEntityRelationshipGenerator.class.getPackageName()
+            .replace(".", File.separator);
+        return Files.readString(Path.of(testPath, generatorPath, system, fileName));
+    }
+}
@@ -0,0 +1,85 @@
+package com.alexander.diagrams.source;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReadAheadTest {
+
+    @Test
+    void testNext_thenSubmissionOrderPreserved() {
+        List<Callable<Integer>> tasks = IntStream.range(0, 100)
+            .mapToObj(i -> (Callable<Integer>) () -> {
+                Thread.sleep(i % 3);
+                return i;
+            })
+            .collect(Collectors.toList());
+        ReadAhead<Integer> readAhead = new ReadAhead<>(ReadAhead.workers(4, "test"), tasks.iterator(), 8);
+
+        List<Integer> results = new ArrayList<>();
+        readAhead.forEachRemaining(results::add);
+
+        assertThat(results).containsExactlyElementsOf(IntStream.range(0, 100).boxed().collect(Collectors.toList()));
+    }
+
+    @Test
+    void testNext_givenSlowConsumer_thenCapacityBoundsTasksStarted() throws InterruptedException {
+        AtomicInteger started = new AtomicInteger();
+        CountDownLatch filled = new CountDownLatch(3);
+        List<Callable<Integer>> tasks = IntStream.range(0, 10)
+            .mapToObj(i -> (Callable<Integer>) () -> {
+                started.incrementAndGet();
+                filled.countDown();
+                return i;
+            })
+            .collect(Collectors.toList());
+        ReadAhead<Integer> readAhead = new ReadAhead<>(ReadAhead.workers(4, "test"), tasks.iterator(), 3);
+
+        assertTrue(filled.await(5, TimeUnit.SECONDS));
+        assertEquals(3, started.get());
+        assertEquals(0, readAhead.next());
+        readAhead.close();
+    }
+
+    @Test
+    void testNext_givenFailingTask_thenCauseRethrown() {
+        List<Callable<Integer>> tasks = List.of(() -> 1, () -> {
+            throw new IllegalStateException("broken");
+        });
+        ReadAhead<Integer> readAhead = new ReadAhead<>(ReadAhead.workers(1, "test"), tasks.iterator(), 2);
+
+        assertEquals(1, readAhead.next());
+        assertThrows(IllegalStateException.class, readAhead::next);
+        assertFalse(readAhead.hasNext());
+    }
+
+    @Test
+    void testHasNext_whenExhausted_thenWorkersShutdown() {
+        ExecutorService workers = ReadAhead.workers(2, "test");
+        ReadAhead<Integer> readAhead = new ReadAhead<>(workers, List.<Callable<Integer>>of(() -> 1).iterator(), 2);
+
+        readAhead.next();
+
+        assertFalse(readAhead.hasNext());
+        assertTrue(workers.isShutdown());
+    }
+
+    @Test
+    void testConstructor_givenZeroCapacity() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new ReadAhead<>(ReadAhead.workers(1, "test"), List.<Callable<Integer>>of().iterator(), 0));
+    }
+}
@@ -0,0 +1,85 @@
+-- MySQL dump 10.13  Distrib 8.0.21, for Linux (x86_64)
+--
+-- Host: localhost    Database: pim
+-- ------------------------------------------------------
+-- Server version	8.0.21
+
+/*!40101 SET @OLD_CHARACTER_SET_CLIENT=@@CHARACTER_SET_CLIENT */;
+/*!50503 SET NAMES utf8mb4 */;
+/*!40014 SET @OLD_FOREIGN_KEY_CHECKS=@@FOREIGN_KEY_CHECKS, FOREIGN_KEY_CHECKS=0 */;
+
+--
+-- Table structure for table `attribute_types`
+--
+
+DROP TABLE IF EXISTS `attribute_types`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `attribute_types` (
+  `attribute_type_id` varchar(36) NOT NULL,
+  `name` varchar(255) DEFAULT NULL,
+  `description` varchar(1024) DEFAULT NULL,
+  `position` int(11) NOT NULL DEFAULT '0',
+  PRIMARY KEY (`attribute_type_id`),
+  UNIQUE KEY `attribute_type_id` (`attribute_type_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 ROW_FORMAT=DYNAMIC;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Dumping data for table `attribute_types`
+--
+
+LOCK TABLES `attribute_types` WRITE;
+/*!40000 ALTER TABLE `attribute_types` DISABLE KEYS */;
+INSERT INTO `attribute_types` VALUES ('1','colour','CREATE TABLE `fake` (;',0),('2','it\'s; \\','-- not a comment; \"',1);
+/*!40000 ALTER TABLE `attribute_types` ENABLE KEYS */;
+UNLOCK TABLES;
+
+--
+-- Table structure for table `attributes`
+--
+
+DROP TABLE IF EXISTS `attributes`;
+# a hash comment with a ; in it
+CREATE TABLE `attributes` (
+  `attribute_id` varchar(36) NOT NULL,
+  `name` varchar(255) DEFAULT NULL,
+  `description` varchar(1024) DEFAULT NULL,
+  `attribute_type_id` varchar(255) DEFAULT NULL,
+  `label_partner` varchar(255) DEFAULT NULL,
+  `label_customer` varchar(255) DEFAULT NULL,
+  `is_legacy` tinyint(1) DEFAULT NULL,
+  `max_selectable_attribute_values` int(11) DEFAULT NULL,
+  `position` int(11) NOT NULL DEFAULT '0',
+  `is_mandatory` tinyint(1) NOT NULL DEFAULT '0',
+  PRIMARY KEY (`attribute_id`),
+  UNIQUE KEY `attribute_id` (`attribute_id`),
+  KEY `attribute_type_id` (`attribute_type_id`),
+  CONSTRAINT `attributes_ibfk_1` FOREIGN KEY (`attribute_type_id`) REFERENCES `attribute_types` (`attribute_type_id`) ON DELETE SET NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 ROW_FORMAT=DYNAMIC;
+
+--
+-- Temporary view structure for view `attribute_view`
+--
+
+DROP TABLE IF EXISTS `attribute_view`;
+/*!50001 DROP VIEW IF EXISTS `attribute_view`*/;
+SET @saved_cs_client     = @@character_set_client;
+/*!50503 SET character_set_client = utf8mb4 */;
+/*!50001 CREATE VIEW `attribute_view` AS SELECT
+ 1 AS `attribute_id`*/;
+SET character_set_client = @saved_cs_client;
+
+--
+-- Dumping routines for database 'pim'
+--
+DELIMITER ;;
+CREATE DEFINER=`root`@`localhost` PROCEDURE `make_temp`()
+BEGIN
+SELECT 1;
+CREATE TABLE `temp` (`id` int);
+END ;;
+DELIMITER ;
+/*!40101 SET CHARACTER_SET_CLIENT=@OLD_CHARACTER_SET_CLIENT */;
+
+-- Dump completed on 2022-12-01 12:00:00